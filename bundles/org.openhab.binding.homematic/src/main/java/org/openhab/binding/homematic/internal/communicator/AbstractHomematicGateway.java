@@ -14,17 +14,24 @@ package org.openhab.binding.homematic.internal.communicator;
 
 import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -76,6 +83,8 @@ import org.openhab.binding.homematic.internal.model.HmInterface;
 import org.openhab.binding.homematic.internal.model.HmParamsetType;
 import org.openhab.binding.homematic.internal.model.HmRssiInfo;
 import org.openhab.binding.homematic.internal.model.HmValueType;
+import org.openhab.core.OpenHAB;
+import org.openhab.core.common.NamedThreadFactory;
 import org.openhab.core.common.ThreadPoolManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -106,7 +115,8 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private final Map<String, HmDevice> devices = Collections.synchronizedMap(new HashMap<>());
     private final Map<HmInterface, TransferMode> availableInterfaces = new TreeMap<>();
     private static List<VirtualDatapointHandler> virtualDatapointHandlers = new ArrayList<>();
-    private boolean cancelLoadAllMetadata;
+    private final ParamsetDescriptionCache paramsetDescriptionCache;
+    private volatile boolean cancelLoadAllMetadata;
     private boolean initialized;
     private boolean newDeviceEventsEnabled;
     private ScheduledFuture<?> enableNewDeviceFuture;
@@ -139,6 +149,8 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         this.config = config;
         this.gatewayAdapter = gatewayAdapter;
         this.httpClient = httpClient;
+        this.paramsetDescriptionCache = new ParamsetDescriptionCache(new File(OpenHAB.getUserDataFolder()
+                + File.separator + "homematic" + File.separator + "paramsets-" + id + ".cache"));
     }
 
     @Override
@@ -245,7 +257,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     /**
      * Starts the Homematic RPC server.
      */
-    private synchronized void startServers() throws IOException {
+    protected synchronized void startServers() throws IOException {
         for (TransferMode mode : availableInterfaces.values()) {
             if (!rpcServers.containsKey(mode)) {
                 RpcServer rpcServer = mode == TransferMode.XML_RPC ? new XmlRpcServer(this, config)
@@ -262,7 +274,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     /**
      * Stops the Homematic RPC server.
      */
-    private synchronized void stopServers() {
+    protected synchronized void stopServers() {
         for (HmInterface hmInterface : availableInterfaces.keySet()) {
             try {
                 getRpcClient(hmInterface).release(hmInterface);
@@ -371,53 +383,51 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         // load all device descriptions
         List<HmDevice> deviceDescriptions = getDeviceDescriptions();
 
-        // loading datapoints for all channels
-        Set<String> loadedDevices = new HashSet<>();
-        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new HashMap<>();
+        HmGatewayInfo gatewayInfo = config.getGatewayInfo();
+        paramsetDescriptionCache.load(gatewayInfo.getType() + ":" + gatewayInfo.getFirmware());
+
+        // the metadata of the devices of different interfaces is loaded in parallel, the devices of one interface one
+        // after another. The loaded devices are only prepared and reported on this thread.
+        Map<HmInterface, List<HmDevice>> devicesByInterface = new LinkedHashMap<>();
         for (HmDevice device : deviceDescriptions) {
-            if (!cancelLoadAllMetadata) {
-                try {
-                    logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(),
-                            device.getType());
-                    if (device.isGatewayExtras()) {
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
-                    } else {
-                        for (HmChannel channel : device.getChannels()) {
-                            logger.trace("  Loading channel {}", channel);
-                            // speed up metadata generation a little bit for equal channels in the gateway devices
-                            if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
-                                    || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
-                                HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
-                                cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
-                            } else {
-                                String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
-                                        channel.getDevice().getFirmware(), channel.getNumber());
-                                Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
-                                if (cachedDatapoints != null) {
-                                    // clone all datapoints
-                                    cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
-                                } else {
-                                    logger.trace("    Loading datapoints into channel {}", channel);
-                                    addChannelDatapoints(channel, HmParamsetType.MASTER);
-                                    addChannelDatapoints(channel, HmParamsetType.VALUES);
-
-                                    // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
-                                    // the data point set might change depending on the selected mode.
-                                    if (!channel.isReconfigurable()) {
-                                        datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
-                                    }
-                                }
-                            }
+            devicesByInterface.computeIfAbsent(device.getHmInterface(), i -> new ArrayList<>()).add(device);
+        }
+        Set<String> loadedDevices = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, devicesByInterface.size()),
+                new NamedThreadFactory("homematic-metadata-" + id));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (List<HmDevice> interfaceDevices : devicesByInterface.values()) {
+                futures.add(executor.submit(() -> {
+                    for (HmDevice device : interfaceDevices) {
+                        if (!cancelLoadAllMetadata && loadDeviceMetadata(device)) {
+                            loadedDevices.add(device.getAddress());
                         }
                     }
-                    prepareDevice(device);
-                    loadedDevices.add(device.getAddress());
-                    gatewayAdapter.onDeviceLoaded(device);
-                } catch (IOException ex) {
-                    logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
-                            ex.getMessage());
-                }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            cancelLoadAllMetadata = true;
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading the device metadata", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            executor.shutdownNow();
+            paramsetDescriptionCache.save();
+        }
+
+        for (HmDevice device : deviceDescriptions) {
+            if (loadedDevices.contains(device.getAddress())) {
+                prepareDevice(device);
+                gatewayAdapter.onDeviceLoaded(device);
             }
         }
         if (!cancelLoadAllMetadata) {
@@ -426,6 +436,54 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         initialized = true;
     }
 
+    /**
+     * Loads the datapoints of all channels of the device, the datapoints of known channels are taken from the
+     * paramset description cache. The device has to be prepared with {@link #prepareDevice(HmDevice)} afterwards.
+     *
+     * @return true, if the device has been loaded
+     */
+    private boolean loadDeviceMetadata(HmDevice device) {
+        try {
+            logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(), device.getType());
+            if (device.isGatewayExtras()) {
+                loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
+                loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
+            } else {
+                for (HmChannel channel : device.getChannels()) {
+                    logger.trace("  Loading channel {}", channel);
+                    // speed up metadata generation a little bit for equal channels in the gateway devices
+                    if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
+                            || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
+                        HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
+                        cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
+                    } else {
+                        String channelId = ParamsetDescriptionCache.getChannelId(channel);
+                        Collection<HmDatapoint> cachedDatapoints = paramsetDescriptionCache.get(channelId);
+                        if (cachedDatapoints != null) {
+                            // clone all datapoints
+                            cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
+                        } else {
+                            logger.trace("    Loading datapoints into channel {}", channel);
+                            addChannelDatapoints(channel, HmParamsetType.MASTER);
+                            addChannelDatapoints(channel, HmParamsetType.VALUES);
+
+                            // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
+                            // the data point set might change depending on the selected mode.
+                            if (!channel.isReconfigurable()) {
+                                paramsetDescriptionCache.put(channelId, channel.getDatapoints());
+                            }
+                        }
+                    }
+                }
+            }
+            return true;
+        } catch (IOException ex) {
+            logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
+                    ex.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Loads all datapoints from the gateway.
      */
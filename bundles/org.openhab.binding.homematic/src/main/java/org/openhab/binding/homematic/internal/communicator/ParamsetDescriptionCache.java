@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the datapoint metadata of the channels, which is loaded with the paramset descriptions from the gateway.
+ * The metadata only depends on the device type, the firmware of the device and the channel number, so it is stored
+ * in a file and only unknown channels are loaded from the gateway on the next start. The file is discarded if the
+ * type or firmware of the gateway has changed.
+ *
+ * @author agent - Initial contribution
+ */
+public class ParamsetDescriptionCache {
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte VALUE_NULL = 0;
+    private static final byte VALUE_INTEGER = 1;
+    private static final byte VALUE_DOUBLE = 2;
+    private static final byte VALUE_BOOLEAN = 3;
+    private static final byte VALUE_STRING = 4;
+
+    private final Logger logger = LoggerFactory.getLogger(ParamsetDescriptionCache.class);
+    private final File file;
+    private final Map<String, List<HmDatapoint>> datapointsByChannelId = new ConcurrentHashMap<>();
+    private String gatewaySignature = "";
+    private volatile boolean modified;
+
+    public ParamsetDescriptionCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the id of the channel in the cache.
+     */
+    public static String getChannelId(HmChannel channel) {
+        return String.format("%s:%s:%s", channel.getDevice().getType(), channel.getDevice().getFirmware(),
+                channel.getNumber());
+    }
+
+    /**
+     * Returns the cached datapoints of the channel or null, if the channel is unknown.
+     */
+    public Collection<HmDatapoint> get(String channelId) {
+        return datapointsByChannelId.get(channelId);
+    }
+
+    /**
+     * Adds the datapoints of a channel, virtual datapoints are skipped.
+     */
+    public void put(String channelId, Collection<HmDatapoint> datapoints) {
+        List<HmDatapoint> copies = new ArrayList<>(datapoints.size());
+        for (HmDatapoint dp : datapoints) {
+            if (!dp.isVirtual()) {
+                HmDatapoint copy = dp.clone();
+                copy.setChannel(null);
+                copy.setValue(null);
+                copies.add(copy);
+            }
+        }
+        datapointsByChannelId.put(channelId, copies);
+        modified = true;
+    }
+
+    public int size() {
+        return datapointsByChannelId.size();
+    }
+
+    /**
+     * Loads the cache from the file, if it has been written for the same gateway type and firmware.
+     */
+    public synchronized void load(String gatewaySignature) {
+        this.gatewaySignature = gatewaySignature;
+        datapointsByChannelId.clear();
+        modified = false;
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION || !gatewaySignature.equals(in.readUTF())) {
+                logger.debug("Discarding paramset description cache '{}', the gateway has changed", file);
+                return;
+            }
+            int channels = in.readInt();
+            for (int i = 0; i < channels; i++) {
+                String channelId = in.readUTF();
+                int count = in.readInt();
+                List<HmDatapoint> datapoints = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    datapoints.add(readDatapoint(in));
+                }
+                datapointsByChannelId.put(channelId, datapoints);
+            }
+            logger.debug("Loaded paramset descriptions of {} channels from '{}'", channels, file);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.debug("Can't read paramset description cache '{}': {}", file, e.getMessage());
+            datapointsByChannelId.clear();
+        }
+    }
+
+    /**
+     * Writes the cache to the file, if channels have been added.
+     */
+    public synchronized void save() {
+        if (!modified) {
+            return;
+        }
+        File tempFile = new File(file.getPath() + ".tmp");
+        try {
+            File folder = file.getParentFile();
+            if (folder != null && !folder.exists()) {
+                folder.mkdirs();
+            }
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(gatewaySignature);
+                Map<String, List<HmDatapoint>> snapshot = Map.copyOf(datapointsByChannelId);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<String, List<HmDatapoint>> entry : snapshot.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().size());
+                    for (HmDatapoint dp : entry.getValue()) {
+                        writeDatapoint(out, dp);
+                    }
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            modified = false;
+            logger.debug("Saved paramset descriptions of {} channels to '{}'", size(), file);
+        } catch (IOException e) {
+            logger.warn("Can't write paramset description cache '{}': {}", file, e.getMessage());
+        }
+    }
+
+    private static void writeDatapoint(DataOutputStream out, HmDatapoint dp) throws IOException {
+        out.writeUTF(dp.getName());
+        writeValue(out, dp.getDescription());
+        out.writeUTF(dp.getType().name());
+        out.writeUTF(dp.getParamsetType().name());
+        writeValue(out, dp.getMinValue());
+        writeValue(out, dp.getMaxValue());
+        writeValue(out, dp.getStep());
+        writeValue(out, dp.getDefaultValue());
+        String[] options = dp.getOptions();
+        out.writeInt(options == null ? -1 : options.length);
+        if (options != null) {
+            for (String option : options) {
+                out.writeUTF(option);
+            }
+        }
+        out.writeBoolean(dp.isReadOnly());
+        out.writeBoolean(dp.isReadable());
+        out.writeBoolean(dp.isTrigger());
+        writeValue(out, dp.getInfo());
+        writeValue(out, dp.getUnit());
+    }
+
+    private static HmDatapoint readDatapoint(DataInputStream in) throws IOException {
+        HmDatapoint dp = new HmDatapoint();
+        dp.setName(in.readUTF());
+        dp.setDescription((String) readValue(in));
+        dp.setType(HmValueType.valueOf(in.readUTF()));
+        dp.setParamsetType(HmParamsetType.valueOf(in.readUTF()));
+        dp.setMinValue((Number) readValue(in));
+        dp.setMaxValue((Number) readValue(in));
+        dp.setStep((Number) readValue(in));
+        dp.setDefaultValue(readValue(in));
+        int optionCount = in.readInt();
+        if (optionCount >= 0) {
+            String[] options = new String[optionCount];
+            for (int i = 0; i < optionCount; i++) {
+                options[i] = in.readUTF();
+            }
+            dp.setOptions(options);
+        }
+        dp.setReadOnly(in.readBoolean());
+        dp.setReadable(in.readBoolean());
+        dp.setTrigger(in.readBoolean());
+        dp.setInfo((String) readValue(in));
+        dp.setUnit((String) readValue(in));
+        return dp;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(VALUE_NULL);
+        } else if (value instanceof Integer) {
+            out.writeByte(VALUE_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Number) {
+            out.writeByte(VALUE_DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            out.writeByte(VALUE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else {
+            out.writeByte(VALUE_STRING);
+            out.writeUTF(value.toString());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_INTEGER:
+                return in.readInt();
+            case VALUE_DOUBLE:
+                return in.readDouble();
+            case VALUE_BOOLEAN:
+                return in.readBoolean();
+            case VALUE_STRING:
+                return in.readUTF();
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+    }
+}
@@ -13,7 +13,8 @@
 package org.openhab.binding.homematic.internal.communicator.client;
 
 import java.io.IOException;
-import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
@@ -24,7 +25,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Client implementation for sending messages via BIN-RPC to the Homematic server.
+ * Client implementation for sending messages via BIN-RPC to the Homematic server. Messages to the same port are sent
+ * one after the other over the cached socket of the port, messages to different ports are sent concurrently.
  *
  * @author Gerhard Riegler - Initial contribution
  */
@@ -32,6 +34,7 @@ public class BinRpcClient extends RpcClient<byte[]> {
     private final Logger logger = LoggerFactory.getLogger(BinRpcClient.class);
 
     private SocketHandler socketHandler;
+    private final Map<Integer, Object> portLocks = new ConcurrentHashMap<>();
 
     public BinRpcClient(HomematicConfig config) {
         super(config);
@@ -56,18 +59,27 @@ public class BinRpcClient extends RpcClient<byte[]> {
     @Override
     public void init(HmInterface hmInterface, String clientId) throws IOException {
         super.init(hmInterface, clientId);
-        socketHandler.removeSocket(config.getRpcPort(hmInterface));
+        int port = config.getRpcPort(hmInterface);
+        synchronized (getPortLock(port)) {
+            socketHandler.removeSocket(port);
+        }
     }
 
     /**
      * Sends a BIN-RPC message and parses the response to see if there was an error.
      */
     @Override
-    protected synchronized Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
+    protected Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
         if (logger.isTraceEnabled()) {
             logger.trace("Client BinRpcRequest:\n{}", request);
         }
-        return sendMessage(port, request, 0);
+        synchronized (getPortLock(port)) {
+            return sendMessage(port, request, 0);
+        }
+    }
+
+    private Object getPortLock(int port) {
+        return portLocks.computeIfAbsent(port, p -> new Object());
     }
 
     /**
@@ -76,9 +88,9 @@ public class BinRpcClient extends RpcClient<byte[]> {
     private Object[] sendMessage(int port, RpcRequest<byte[]> request, int rpcRetryCounter) throws IOException {
         BinRpcMessage resp = null;
         try {
-            Socket socket = socketHandler.getSocket(port);
-            socket.getOutputStream().write(request.createMessage());
-            resp = new BinRpcMessage(socket.getInputStream(), false, config.getEncoding());
+            SocketInfo socketInfo = socketHandler.getSocket(port);
+            socketInfo.getSocket().getOutputStream().write(request.createMessage());
+            resp = new BinRpcMessage(socketInfo.getInputStream(), false, config.getEncoding());
             return new RpcResponseParser(request).parse(resp.getResponseData());
         } catch (UnknownRpcFailureException | UnknownParameterSetException rpcEx) {
             // throw immediately, don't retry the message
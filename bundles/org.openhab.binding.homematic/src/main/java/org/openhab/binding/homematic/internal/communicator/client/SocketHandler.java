@@ -15,22 +15,23 @@ package org.openhab.binding.homematic.internal.communicator.client;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Simple socket cache class.
+ * Simple socket cache class. The socket of a port must only be used by one thread at a time, sockets of different
+ * ports can be used concurrently.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class SocketHandler {
     private final Logger logger = LoggerFactory.getLogger(SocketHandler.class);
 
-    private Map<Integer, SocketInfo> socketsPerPort = new HashMap<>();
+    private Map<Integer, SocketInfo> socketsPerPort = new ConcurrentHashMap<>();
     private HomematicConfig config;
 
     public SocketHandler(HomematicConfig config) {
@@ -40,15 +41,20 @@ public class SocketHandler {
     /**
      * Returns a socket for the given port, (re)creates it if required.
      */
-    public Socket getSocket(int port) throws IOException {
+    public SocketInfo getSocket(int port) throws IOException {
         SocketInfo socketInfo = socketsPerPort.get(port);
         if (socketInfo == null) {
             logger.trace("Creating new socket for port {}", port);
             Socket socket = new Socket();
             socket.setSoTimeout(config.getTimeout() * 1000);
             socket.setReuseAddress(true);
-            socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
-            socketInfo = new SocketInfo(socket);
+            try {
+                socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
+                socketInfo = new SocketInfo(socket);
+            } catch (IOException e) {
+                closeSilent(socket);
+                throw e;
+            }
             socketsPerPort.put(port, socketInfo);
         } else {
             boolean isMaxAliveReached = System.currentTimeMillis()
@@ -61,17 +67,16 @@ public class SocketHandler {
             }
             logger.trace("Returning socket for port {}", port);
         }
-        return socketInfo.getSocket();
+        return socketInfo;
     }
 
     /**
      * Removes the socket for the given port from the cache.
      */
     public void removeSocket(int port) {
-        SocketInfo socketInfo = socketsPerPort.get(port);
+        SocketInfo socketInfo = socketsPerPort.remove(port);
         if (socketInfo != null) {
             logger.trace("Closing Socket on port {}", port);
-            socketsPerPort.remove(port);
             closeSilent(socketInfo.getSocket());
         }
     }
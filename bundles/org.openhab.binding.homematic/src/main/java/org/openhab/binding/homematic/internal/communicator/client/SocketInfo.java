@@ -12,6 +12,9 @@
  */
 package org.openhab.binding.homematic.internal.communicator.client;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.Socket;
 
 /**
@@ -21,10 +24,12 @@ import java.net.Socket;
  */
 public class SocketInfo {
     private Socket socket;
+    private InputStream inputStream;
     private long created;
 
-    public SocketInfo(Socket socket) {
+    public SocketInfo(Socket socket) throws IOException {
         this.socket = socket;
+        this.inputStream = new BufferedInputStream(socket.getInputStream());
         this.created = System.currentTimeMillis();
     }
 
@@ -35,6 +40,13 @@ public class SocketInfo {
         return socket;
     }
 
+    /**
+     * Returns the buffered input stream of the socket, which has to be used for all reads.
+     */
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
     /**
      * Returns the timestamp when the socket has been created.
      */
@@ -12,6 +12,7 @@
  */
 package org.openhab.binding.homematic.internal.communicator.message;
 
+import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -29,7 +30,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
-import org.apache.commons.lang.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,6 +48,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
 
     private Object[] messageData;
     private byte binRpcData[];
+    private int binRpcDataLength;
     private int offset;
 
     private String methodName;
@@ -74,33 +75,42 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      */
     public BinRpcMessage(InputStream is, boolean methodHeader, String encoding) throws IOException {
         this.encoding = encoding;
-        byte sig[] = new byte[8];
-        int length = is.read(sig, 0, 4);
-        if (length != 4) {
-            throw new EOFException("Only " + length + " bytes received reading signature");
-        }
-        validateBinXSignature(sig);
-        length = is.read(sig, 4, 4);
-        if (length != 4) {
-            throw new EOFException("Only " + length + " bytes received reading message length");
-        }
-        int datasize = (new BigInteger(ArrayUtils.subarray(sig, 4, 8))).intValue();
-        byte payload[] = new byte[datasize];
-        int offset = 0;
-        int currentLength;
+        DataInputStream in = new DataInputStream(is);
+        byte header[] = new byte[8];
+        readFully(in, header, 0, 4, "signature");
+        validateBinXSignature(header);
+        readFully(in, header, 4, 4, "message length");
+        int datasize = getMessageLength(header);
+        byte message[] = Arrays.copyOf(header, 8 + datasize);
+        readFully(in, message, 8, datasize, "message payload");
+        decodeMessage(message, message.length, methodHeader);
+    }
 
-        while (offset < datasize && (currentLength = is.read(payload, offset, datasize - offset)) != -1) {
-            offset += currentLength;
+    private static void readFully(DataInputStream in, byte[] buffer, int offset, int length, String part)
+            throws IOException {
+        try {
+            in.readFully(buffer, offset, length);
+        } catch (EOFException e) {
+            throw new EOFException("Connection closed while reading " + part + ", expected " + length + " bytes");
         }
-        if (offset != datasize) {
-            throw new EOFException("Only " + offset + " bytes received while reading message payload, expected "
-                    + datasize + " bytes");
+    }
+
+    /**
+     * Returns the length of the payload from the header of a BIN-RPC message.
+     */
+    public static int getMessageLength(byte[] header) throws IOException {
+        int datasize = ((header[4] & 0xff) << 24) | ((header[5] & 0xff) << 16) | ((header[6] & 0xff) << 8)
+                | (header[7] & 0xff);
+        if (datasize < 0) {
+            throw new IOException("Invalid message length " + datasize);
         }
-        byte[] message = ArrayUtils.addAll(sig, payload);
-        decodeMessage(message, methodHeader);
+        return datasize;
     }
 
-    private void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
+    /**
+     * Validates the signature of a BIN-RPC message header.
+     */
+    public static void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
         if (sig[0] != 'B' || sig[1] != 'i' || sig[2] != 'n') {
             throw new UnsupportedEncodingException("No BinX signature");
         }
@@ -110,16 +120,25 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      * Decodes a BIN-RPC message from the given byte array.
      */
     public BinRpcMessage(byte[] message, boolean methodHeader, String encoding) throws IOException, ParseException {
+        this(message, message.length, methodHeader, encoding);
+    }
+
+    /**
+     * Decodes a BIN-RPC message from the first bytes of the given byte array, the array may be reused afterwards.
+     */
+    public BinRpcMessage(byte[] message, int length, boolean methodHeader, String encoding)
+            throws IOException, ParseException {
         this.encoding = encoding;
-        if (message.length < 8) {
-            throw new EOFException("Only " + message.length + " bytes received");
+        if (length < 8) {
+            throw new EOFException("Only " + length + " bytes received");
         }
         validateBinXSignature(message);
-        decodeMessage(message, methodHeader);
+        decodeMessage(message, length, methodHeader);
     }
 
-    private void decodeMessage(byte[] message, boolean methodHeader) throws IOException {
+    private void decodeMessage(byte[] message, int length, boolean methodHeader) throws IOException {
         binRpcData = message;
+        binRpcDataLength = length;
 
         offset = 8;
 
@@ -137,7 +156,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     private void generateResponseData() throws IOException {
         offset = 8 + (methodName != null ? methodName.length() + 8 : 0);
         List<Object> values = new ArrayList<>();
-        while (offset < binRpcData.length) {
+        while (offset < binRpcDataLength) {
             values.add(readRpcValue());
         }
         messageData = values.toArray();
@@ -12,30 +12,47 @@
  */
 package org.openhab.binding.homematic.internal.communicator.server;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
 import org.openhab.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Waits for a message from the Homematic gateway and starts the RpcCallbackHandler to handle the message.
  *
+ * All connections are read and written by one thread with a selector, only the method calls are handled by the
+ * thread pool. An idle connection doesn't occupy a thread of the pool, so the connections of all interfaces of the
+ * gateway are served, no matter how many of them are kept open.
+ *
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcNetworkService implements Runnable {
+    private final Logger logger = LoggerFactory.getLogger(BinRpcNetworkService.class);
+
     private static final byte BIN_EMPTY_STRING[] = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 0, 3, 0, 0, 0, 0 };
     private static final byte BIN_EMPTY_ARRAY[] = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 1, 0, 0, 0, 0, 0 };
     private static final byte BIN_EMPTY_EVENT_LIST[] = { 'B', 'i', 'n', 1, 0, 0, 0, 21, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0,
             3, 0, 0, 0, 5, 'e', 'v', 'e', 'n', 't' };
 
     private static final String RPC_POOL_NAME = "homematicRpc";
-    private ServerSocket serverSocket;
-    private boolean accept = true;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Queue<BinRpcResponseHandler> handledRequests = new ConcurrentLinkedQueue<>();
+    private volatile boolean accept = true;
     private HomematicConfig config;
     private RpcResponseHandler<byte[]> rpcResponseHandler;
 
@@ -45,9 +62,18 @@ public class BinRpcNetworkService implements Runnable {
     public BinRpcNetworkService(RpcEventListener listener, HomematicConfig config) throws IOException {
         this.config = config;
 
-        serverSocket = new ServerSocket();
-        serverSocket.setReuseAddress(true);
-        serverSocket.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.socket().setReuseAddress(true);
+            serverChannel.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            closeSilent(serverChannel);
+            closeSilent(selector);
+            throw e;
+        }
 
         this.rpcResponseHandler = new RpcResponseHandler<byte[]>(listener) {
 
@@ -78,24 +104,85 @@ public class BinRpcNetworkService implements Runnable {
      */
     @Override
     public void run() {
-        while (accept) {
-            try {
-                Socket cs = serverSocket.accept();
-                BinRpcResponseHandler rpcHandler = new BinRpcResponseHandler(cs, rpcResponseHandler, config);
-                ThreadPoolManager.getPool(RPC_POOL_NAME).execute(rpcHandler);
-            } catch (IOException ex) {
-                // ignore
+        try {
+            while (accept) {
+                selector.select();
+
+                BinRpcResponseHandler handler;
+                while ((handler = handledRequests.poll()) != null) {
+                    handler.sendResponse();
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        acceptConnections();
+                    } else {
+                        ((BinRpcResponseHandler) key.attachment()).handleKey();
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (accept) {
+                logger.warn("BIN-RPC server stopped unexpectedly: {}", e.getMessage(), e);
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeSilent(key.channel());
+            }
+            closeSilent(selector);
+        }
+    }
+
+    /**
+     * Accepts all pending connections and registers them for reading.
+     */
+    private void acceptConnections() {
+        try {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new BinRpcResponseHandler(channel, key, this, rpcResponseHandler, config));
             }
+        } catch (IOException e) {
+            logger.debug("Can't accept BIN-RPC connection: {}", e.getMessage());
         }
     }
 
     /**
-     * Stops the listening.
+     * Handles the method call of the handler with the thread pool.
+     */
+    void execute(BinRpcResponseHandler handler) {
+        ThreadPoolManager.getPool(RPC_POOL_NAME).execute(handler);
+    }
+
+    /**
+     * Called from the thread pool after the method call has been handled, the response is sent by the selector
+     * thread.
+     */
+    void requestHandled(BinRpcResponseHandler handler) {
+        handledRequests.add(handler);
+        selector.wakeup();
+    }
+
+    /**
+     * Stops the listening. The server socket is closed right away, the connections are closed by the selector thread.
      */
     public void shutdown() {
         accept = false;
+        closeSilent(serverChannel);
+        selector.wakeup();
+    }
+
+    private void closeSilent(Closeable closeable) {
         try {
-            serverSocket.close();
+            closeable.close();
         } catch (IOException ioe) {
             // ignore
         }
@@ -14,7 +14,10 @@ package org.openhab.binding.homematic.internal.communicator.server;
 
 import java.io.EOFException;
 import java.io.IOException;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
@@ -24,51 +27,174 @@ import org.slf4j.LoggerFactory;
 /**
  * Reads a BIN-RPC message from the socket and handles the method call.
  *
+ * The socket is read and written by the selector thread of the {@link BinRpcNetworkService}, the method call is
+ * handled by the thread pool. The gateway waits for the response before it sends the next message, so the socket is
+ * not read while a method call is handled.
+ *
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcResponseHandler implements Runnable {
+    private static final int MAX_MESSAGE_LENGTH = 64 * 1024 * 1024;
+    // larger buffers are not kept for the next message of the connection
+    private static final int MAX_REUSED_BUFFER_LENGTH = 64 * 1024;
+    private static final byte[] EMPTY_BUFFER = new byte[0];
+
     private final Logger logger = LoggerFactory.getLogger(BinRpcResponseHandler.class);
 
-    private Socket socket;
+    private SocketChannel channel;
+    private SelectionKey key;
+    private BinRpcNetworkService networkService;
     private RpcResponseHandler<byte[]> rpcResponseHandler;
     private HomematicConfig config;
     private long created;
 
-    public BinRpcResponseHandler(Socket socket, RpcResponseHandler<byte[]> rpcResponseHandler, HomematicConfig config) {
-        this.socket = socket;
+    private ByteBuffer header = ByteBuffer.allocate(8);
+    private ByteBuffer message;
+    // the messages of a connection are received one after another, so they are all read into the same buffer
+    private byte[] buffer = EMPTY_BUFFER;
+    private byte[] request;
+    private int requestLength;
+    private ByteBuffer response;
+    private boolean failed;
+
+    public BinRpcResponseHandler(SocketChannel channel, SelectionKey key, BinRpcNetworkService networkService,
+            RpcResponseHandler<byte[]> rpcResponseHandler, HomematicConfig config) {
+        this.channel = channel;
+        this.key = key;
+        this.networkService = networkService;
         this.rpcResponseHandler = rpcResponseHandler;
         this.config = config;
         this.created = System.currentTimeMillis();
     }
 
     /**
-     * Reads the event from the Homematic gateway and handles the method call.
+     * Reads from or writes to the socket, called by the selector thread if the socket is ready.
+     */
+    void handleKey() {
+        try {
+            if (key.isReadable()) {
+                read();
+            }
+            if (key.isValid() && key.isWritable()) {
+                write();
+            }
+        } catch (EOFException eof) {
+            close();
+        } catch (IOException | RejectedExecutionException e) {
+            logger.warn("{}", e.getMessage(), e);
+            close();
+        }
+    }
+
+    /**
+     * Sends the response of the handled method call, called by the selector thread.
+     */
+    void sendResponse() {
+        if (!key.isValid()) {
+            return;
+        }
+        if (failed) {
+            close();
+            return;
+        }
+        try {
+            if (response != null) {
+                write();
+            } else {
+                finishRequest();
+            }
+        } catch (IOException e) {
+            logger.warn("{}", e.getMessage(), e);
+            close();
+        }
+    }
+
+    /**
+     * Handles the method call of the received message, called by the thread pool.
      */
     @Override
     public void run() {
         try {
-            boolean isMaxAliveReached;
-            do {
-                BinRpcMessage message = new BinRpcMessage(socket.getInputStream(), true, config.getEncoding());
-                logger.trace("Event BinRpcMessage: {}", message);
-                byte[] returnValue = rpcResponseHandler.handleMethodCall(message.getMethodName(),
-                        message.getResponseData());
-                if (returnValue != null) {
-                    socket.getOutputStream().write(returnValue);
-                }
-                isMaxAliveReached = System.currentTimeMillis() - created > (config.getSocketMaxAlive() * 1000);
-            } while (!isMaxAliveReached);
-
-        } catch (EOFException eof) {
-            // ignore
+            BinRpcMessage rpcMessage = new BinRpcMessage(request, requestLength, true, config.getEncoding());
+            logger.trace("Event BinRpcMessage: {}", rpcMessage);
+            byte[] returnValue = rpcResponseHandler.handleMethodCall(rpcMessage.getMethodName(),
+                    rpcMessage.getResponseData());
+            response = returnValue == null ? null : ByteBuffer.wrap(returnValue);
         } catch (Exception e) {
             logger.warn("{}", e.getMessage(), e);
-        } finally {
-            try {
-                socket.close();
-            } catch (IOException ioe) {
-                // ignore
+            failed = true;
+        }
+        request = null;
+        if (buffer.length > MAX_REUSED_BUFFER_LENGTH) {
+            buffer = EMPTY_BUFFER;
+        }
+        networkService.requestHandled(this);
+    }
+
+    /**
+     * Reads the available bytes, the method call is handled as soon as the message is complete.
+     */
+    private void read() throws IOException {
+        if (message == null) {
+            if (channel.read(header) < 0) {
+                throw new EOFException();
             }
+            if (header.hasRemaining()) {
+                return;
+            }
+            byte[] headerBytes = header.array();
+            BinRpcMessage.validateBinXSignature(headerBytes);
+            int length = BinRpcMessage.getMessageLength(headerBytes);
+            if (length > MAX_MESSAGE_LENGTH) {
+                throw new IOException("Message length " + length + " exceeds the maximum of " + MAX_MESSAGE_LENGTH);
+            }
+            if (buffer.length < 8 + length) {
+                buffer = new byte[Math.max(8 + length, Math.min(2 * buffer.length, MAX_REUSED_BUFFER_LENGTH))];
+            }
+            System.arraycopy(headerBytes, 0, buffer, 0, 8);
+            message = ByteBuffer.wrap(buffer, 8, length);
+            requestLength = 8 + length;
+            header.clear();
+        }
+        if (message.hasRemaining() && channel.read(message) < 0) {
+            throw new EOFException("Connection closed while reading message payload");
+        }
+        if (!message.hasRemaining()) {
+            request = buffer;
+            message = null;
+            key.interestOps(0);
+            networkService.execute(this);
+        }
+    }
+
+    private void write() throws IOException {
+        channel.write(response);
+        if (response.hasRemaining()) {
+            key.interestOps(SelectionKey.OP_WRITE);
+        } else {
+            response = null;
+            finishRequest();
+        }
+    }
+
+    /**
+     * Waits for the next message or closes the socket, if it has been open for too long.
+     */
+    private void finishRequest() {
+        boolean isMaxAliveReached = System.currentTimeMillis() - created > (config.getSocketMaxAlive() * 1000);
+        if (isMaxAliveReached) {
+            close();
+        } else {
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private void close() {
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ioe) {
+            // ignore
         }
     }
 }
@@ -24,6 +24,8 @@ import org.slf4j.LoggerFactory;
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcServer implements RpcServer {
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
     private final Logger logger = LoggerFactory.getLogger(BinRpcServer.class);
 
     private Thread networkServiceThread;
@@ -46,19 +48,26 @@ public class BinRpcServer implements RpcServer {
         networkServiceThread.start();
     }
 
+    /**
+     * Stops the server and waits until its port has been released, so the server can be started again right away.
+     */
     @Override
     public void shutdown() {
         if (networkService != null) {
             logger.debug("Stopping BIN-RPC server");
-            try {
-                if (networkServiceThread != null) {
-                    networkServiceThread.interrupt();
-                }
-            } catch (Exception e) {
-                logger.error("{}", e.getMessage(), e);
-            }
             networkService.shutdown();
             networkService = null;
+            if (networkServiceThread != null) {
+                try {
+                    networkServiceThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+                    if (networkServiceThread.isAlive()) {
+                        logger.warn("BIN-RPC server did not stop within {} ms", SHUTDOWN_TIMEOUT_MILLIS);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                networkServiceThread = null;
+            }
         }
     }
 }
@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.client.RpcClient;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmGatewayInfo;
+import org.openhab.binding.homematic.internal.model.HmInterface;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.core.OpenHAB;
+
+/**
+ * Tests that the metadata of the devices of several interfaces is fetched in parallel, but the devices are only
+ * reported to the gateway adapter by the loading thread.
+ *
+ * @author agent - Initial contribution
+ */
+@SuppressWarnings("null")
+public class AbstractHomematicGatewayTest {
+
+    private @TempDir Path tempDir;
+    private String userDataFolder;
+
+    private final HomematicGatewayAdapter gatewayAdapter = mock(HomematicGatewayAdapter.class);
+    private final List<Thread> reportingThreads = new CopyOnWriteArrayList<>();
+    private final List<String> reportedDevices = new CopyOnWriteArrayList<>();
+    private final AtomicInteger concurrentReports = new AtomicInteger();
+    private final AtomicInteger maxConcurrentReports = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        userDataFolder = System.getProperty(OpenHAB.USERDATA_DIR_PROG_ARGUMENT);
+        System.setProperty(OpenHAB.USERDATA_DIR_PROG_ARGUMENT, tempDir.toString());
+        doAnswer(invocation -> {
+            maxConcurrentReports.accumulateAndGet(concurrentReports.incrementAndGet(), Math::max);
+            reportingThreads.add(Thread.currentThread());
+            reportedDevices.add(invocation.<HmDevice> getArgument(0).getAddress());
+            Thread.sleep(10);
+            concurrentReports.decrementAndGet();
+            return null;
+        }).when(gatewayAdapter).onDeviceLoaded(any());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (userDataFolder != null) {
+            System.setProperty(OpenHAB.USERDATA_DIR_PROG_ARGUMENT, userDataFolder);
+        } else {
+            System.clearProperty(OpenHAB.USERDATA_DIR_PROG_ARGUMENT);
+        }
+    }
+
+    @Test
+    public void interfacesAreFetchedInParallelAndReportedByOneThread() throws IOException {
+        TestGateway gateway = new TestGateway(gatewayAdapter);
+        gateway.initialize();
+
+        gateway.loadAllDeviceMetadata();
+
+        // both interfaces have been fetched at the same time
+        assertThat(gateway.fetchingThreads.size(), is(2));
+        assertThat(gateway.barrierFailures.get(), is(0));
+        // but all devices have been reported by the loading thread, one after another
+        assertThat(reportedDevices, hasItems("RF0", "RF1", "HMIP0", "HMIP1", HmDevice.ADDRESS_GATEWAY_EXTRAS));
+        assertThat(reportedDevices.size(), is(5));
+        assertThat(maxConcurrentReports.get(), is(1));
+        for (Thread thread : reportingThreads) {
+            assertThat(thread, is(sameInstance(Thread.currentThread())));
+        }
+    }
+
+    private static class TestGateway extends AbstractHomematicGateway {
+        private final CyclicBarrier interfacesFetching = new CyclicBarrier(2);
+        private final Set<Thread> fetchingThreads = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger barrierFailures = new AtomicInteger();
+        private final RpcClient<?> rpcClient = mock(RpcClient.class);
+
+        TestGateway(HomematicGatewayAdapter gatewayAdapter) throws IOException {
+            super("test", createConfig(), gatewayAdapter, mock(HttpClient.class));
+            when(rpcClient.listDevices(HmInterface.RF)).thenReturn(createDevices("RF", HmInterface.RF));
+            when(rpcClient.listDevices(HmInterface.HMIP)).thenReturn(createDevices("HMIP", HmInterface.HMIP));
+        }
+
+        private static HomematicConfig createConfig() {
+            HmGatewayInfo gatewayInfo = new HmGatewayInfo();
+            gatewayInfo.setId(HmGatewayInfo.ID_CCU);
+            gatewayInfo.setType("CCU3");
+            gatewayInfo.setFirmware("3.55.10");
+            gatewayInfo.setRfInterface(true);
+            gatewayInfo.setHmipInterface(true);
+            HomematicConfig config = new HomematicConfig();
+            config.setGatewayInfo(gatewayInfo);
+            return config;
+        }
+
+        private static Collection<HmDevice> createDevices(String prefix, HmInterface hmInterface) {
+            List<HmDevice> devices = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                HmDevice device = new HmDevice(prefix + i, hmInterface, "HM-TEST-" + prefix, "test", null, "1.0");
+                device.addChannel(new HmChannel("TEST", 1));
+                devices.add(device);
+            }
+            return devices;
+        }
+
+        @Override
+        public RpcClient<?> getRpcClient(HmInterface hmInterface) throws IOException {
+            return rpcClient;
+        }
+
+        @Override
+        protected synchronized void startClients() {
+        }
+
+        @Override
+        protected synchronized void startServers() {
+        }
+
+        @Override
+        protected void addChannelDatapoints(HmChannel channel, HmParamsetType paramsetType) throws IOException {
+            fetchingThreads.add(Thread.currentThread());
+            if (paramsetType == HmParamsetType.MASTER && channel.getDevice().getAddress().endsWith("0")) {
+                // the first device of each interface waits until the other interface is fetched as well
+                try {
+                    interfacesFetching.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                    barrierFailures.incrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        protected void loadVariables(HmChannel channel) {
+        }
+
+        @Override
+        protected void loadScripts(HmChannel channel) {
+        }
+
+        @Override
+        protected void loadDeviceNames(Collection<HmDevice> devices) {
+        }
+
+        @Override
+        protected void setVariable(HmDatapoint dp, Object value) {
+        }
+
+        @Override
+        protected void executeScript(HmDatapoint dp) {
+        }
+    }
+}
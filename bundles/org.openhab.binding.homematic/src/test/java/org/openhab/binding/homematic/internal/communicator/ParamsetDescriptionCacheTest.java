@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.openhab.binding.homematic.test.util.DimmerHelper.createDimmerHmChannel;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+
+/**
+ * Tests for {@link ParamsetDescriptionCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ParamsetDescriptionCacheTest {
+
+    private static final String GATEWAY = "CCU:3.55.10";
+
+    private @TempDir Path tempDir;
+    private File file;
+    private HmChannel channel;
+
+    @BeforeEach
+    public void setup() {
+        file = tempDir.resolve("homematic").resolve("paramsets-test.cache").toFile();
+        channel = createDimmerHmChannel();
+
+        HmDatapoint level = new HmDatapoint("LEVEL", "Level", HmValueType.FLOAT, 0.5, false, HmParamsetType.VALUES);
+        level.setMinValue(0.0);
+        level.setMaxValue(1.01);
+        level.setDefaultValue(0.0);
+        level.setUnit("100%");
+        level.setReadable(true);
+        channel.addDatapoint(level);
+
+        HmDatapoint direction = new HmDatapoint("DIRECTION", null, HmValueType.ENUM, 0, true, HmParamsetType.VALUES);
+        direction.setOptions(new String[] { "NONE", "UP", "DOWN", "UNDEFINED" });
+        direction.setMinValue(0);
+        direction.setMaxValue(3);
+        channel.addDatapoint(direction);
+
+        HmDatapoint virtual = new HmDatapoint("ON_TIME_AUTOMATIC", null, HmValueType.FLOAT, null, false,
+                HmParamsetType.VALUES);
+        virtual.setVirtual(true);
+        channel.addDatapoint(virtual);
+    }
+
+    @Test
+    public void datapointsAreRestoredFromTheFile() {
+        String channelId = ParamsetDescriptionCache.getChannelId(channel);
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(file);
+        cache.load(GATEWAY);
+        cache.put(channelId, channel.getDatapoints());
+        cache.save();
+
+        ParamsetDescriptionCache restored = new ParamsetDescriptionCache(file);
+        restored.load(GATEWAY);
+
+        Collection<HmDatapoint> datapoints = restored.get(channelId);
+        assertThat(datapoints, is(notNullValue()));
+        assertThat(datapoints.size(), is(2));
+        HmDatapoint level = find(datapoints, "LEVEL");
+        assertThat(level.getType(), is(HmValueType.FLOAT));
+        assertThat(level.getParamsetType(), is(HmParamsetType.VALUES));
+        assertThat(level.getMaxValue(), is(1.01));
+        assertThat(level.getDefaultValue(), is(0.0));
+        assertThat(level.getUnit(), is("100%"));
+        assertThat(level.getDescription(), is("Level"));
+        assertThat(level.isReadable(), is(true));
+        assertThat(level.getValue(), is(nullValue()));
+
+        HmDatapoint direction = find(datapoints, "DIRECTION");
+        assertThat(direction.isReadOnly(), is(true));
+        assertThat(direction.getMaxValue(), is(3));
+        assertThat(direction.getOptions(), is(new String[] { "NONE", "UP", "DOWN", "UNDEFINED" }));
+        assertThat(direction.getDescription(), is(nullValue()));
+    }
+
+    @Test
+    public void cacheIsDiscardedWhenTheGatewayHasChanged() {
+        String channelId = ParamsetDescriptionCache.getChannelId(channel);
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(file);
+        cache.load(GATEWAY);
+        cache.put(channelId, channel.getDatapoints());
+        cache.save();
+
+        ParamsetDescriptionCache restored = new ParamsetDescriptionCache(file);
+        restored.load("CCU:3.57.5");
+
+        assertThat(restored.get(channelId), is(nullValue()));
+        assertThat(restored.size(), is(0));
+    }
+
+    private HmDatapoint find(Collection<HmDatapoint> datapoints, String name) {
+        List<HmDatapoint> matches = new ArrayList<>();
+        for (HmDatapoint dp : datapoints) {
+            if (name.equals(dp.getName())) {
+                matches.add(dp);
+            }
+        }
+        assertThat(matches.size(), is(1));
+        return matches.get(0);
+    }
+}
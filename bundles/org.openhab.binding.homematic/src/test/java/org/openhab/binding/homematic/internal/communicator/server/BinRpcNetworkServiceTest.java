@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+import org.openhab.core.test.java.JavaTest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests the {@link BinRpcNetworkService} with a stub gateway, which keeps more connections open than the thread pool
+ * has threads and sends its messages in fragments. The round trip times of the events are measured.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcNetworkServiceTest extends JavaTest {
+    private static final int CONNECTIONS = 8;
+    private static final int EVENTS_PER_CONNECTION = 50;
+    // more than the threads of the RPC thread pool
+    private static final int IDLE_CONNECTIONS = 16;
+    private static final long MAX_ROUND_TRIP_MILLIS = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(BinRpcNetworkServiceTest.class);
+    private final AtomicInteger events = new AtomicInteger();
+    private final List<Long> roundTripNanos = new CopyOnWriteArrayList<>();
+    private HomematicConfig config;
+    private BinRpcServer server;
+    private RpcEventListener listener;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        config = new HomematicConfig();
+        config.setBindAddress("127.0.0.1");
+        try (ServerSocket socket = new ServerSocket(0)) {
+            config.setBinCallbackPort(socket.getLocalPort());
+        }
+        listener = new RpcEventListener() {
+            @Override
+            public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+                events.incrementAndGet();
+            }
+
+            @Override
+            public void newDevices(List<String> adresses) {
+            }
+
+            @Override
+            public void deleteDevices(List<String> addresses) {
+            }
+        };
+        server = new BinRpcServer(listener, config);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.shutdown();
+    }
+
+    @Test
+    public void eventsOfAllConnectionsAreHandled() throws Exception {
+        ExecutorService gateway = Executors.newFixedThreadPool(CONNECTIONS);
+        try {
+            List<Future<Integer>> connections = new ArrayList<>();
+            for (int i = 0; i < CONNECTIONS; i++) {
+                String address = "NEQ000000" + i + ":1";
+                connections.add(gateway.submit(() -> sendEvents(address)));
+            }
+            for (Future<Integer> connection : connections) {
+                assertThat(connection.get(30, TimeUnit.SECONDS), is(EVENTS_PER_CONNECTION));
+            }
+        } finally {
+            gateway.shutdownNow();
+        }
+        assertThat(events.get(), is(CONNECTIONS * EVENTS_PER_CONNECTION));
+        logRoundTrips("concurrent connections");
+    }
+
+    @Test
+    public void idleConnectionsDoNotDelayEvents() throws Exception {
+        List<Socket> idleConnections = new ArrayList<>();
+        try {
+            for (int i = 0; i < IDLE_CONNECTIONS; i++) {
+                idleConnections.add(new Socket("127.0.0.1", config.getBinCallbackPort()));
+            }
+
+            assertThat(sendEvents("NEQ0000000:1"), is(EVENTS_PER_CONNECTION));
+        } finally {
+            for (Socket socket : idleConnections) {
+                socket.close();
+            }
+        }
+        long maxRoundTripMillis = logRoundTrips("idle connections");
+        assertThat(maxRoundTripMillis < MAX_ROUND_TRIP_MILLIS, is(true));
+    }
+
+    @Test
+    public void serverIsRestartedOnTheSamePort() throws Exception {
+        assertThat(sendEvents("NEQ0000000:1"), is(EVENTS_PER_CONNECTION));
+
+        server.shutdown();
+        server = new BinRpcServer(listener, config);
+        server.start();
+
+        assertThat(sendEvents("NEQ0000000:1"), is(EVENTS_PER_CONNECTION));
+        assertThat(events.get(), is(2 * EVENTS_PER_CONNECTION));
+    }
+
+    /**
+     * Logs the measured round trip times of the events.
+     *
+     * @return the maximum round trip time in milliseconds
+     */
+    private long logRoundTrips(String scenario) {
+        List<Long> sorted = new ArrayList<>(roundTripNanos);
+        Collections.sort(sorted);
+        long median = sorted.get(sorted.size() / 2) / 1000;
+        long p99 = sorted.get(sorted.size() * 99 / 100) / 1000;
+        long max = sorted.get(sorted.size() - 1) / 1000;
+        logger.info("BIN-RPC round trips with {}: {} events, median {} us, 99th percentile {} us, max {} us", scenario,
+                sorted.size(), median, p99, max);
+        return max / 1000;
+    }
+
+    /**
+     * Sends the events over one connection like the gateway, every message is split in two writes.
+     */
+    private int sendEvents(String address) throws IOException {
+        int responses = 0;
+        try (Socket socket = new Socket("127.0.0.1", config.getBinCallbackPort())) {
+            socket.setSoTimeout(10000);
+            socket.setTcpNoDelay(true);
+            OutputStream out = socket.getOutputStream();
+            InputStream in = socket.getInputStream();
+            for (int i = 0; i < EVENTS_PER_CONNECTION; i++) {
+                BinRpcMessage event = new BinRpcMessage("event", config.getEncoding());
+                event.addArg("openhab-test");
+                event.addArg(address);
+                event.addArg("LEVEL");
+                event.addArg(i / 100.0);
+                byte[] message = event.createMessage();
+                long start = System.nanoTime();
+                out.write(message, 0, 5);
+                out.flush();
+                out.write(message, 5, message.length - 5);
+                out.flush();
+
+                BinRpcMessage response = new BinRpcMessage(in, false, config.getEncoding());
+                roundTripNanos.add(System.nanoTime() - start);
+                assertThat(response.getResponseData().length, is(1));
+                responses++;
+            }
+        }
+        return responses;
+    }
+}
@@ -72,6 +72,9 @@ public class IpCameraBindingConstants {
     public static final String CONFIG_IPADDRESS = "ipAddress";
     public static final String CONFIG_ONVIF_PORT = "onvifPort";
 
+    // List of all Binding Config items
+    public static final String CONFIG_EVENT_LOOP_THREADS = "eventLoopThreads";
+
     // List of all Channel ids
     public static final String CHANNEL_POLL_IMAGE = "pollImage";
     public static final String CHANNEL_RECORDING_GIF = "recordingGif";
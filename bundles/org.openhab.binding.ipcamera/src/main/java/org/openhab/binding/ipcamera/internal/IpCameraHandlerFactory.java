@@ -14,6 +14,8 @@ package org.openhab.binding.ipcamera.internal;
 
 import static org.openhab.binding.ipcamera.internal.IpCameraBindingConstants.*;
 
+import java.util.Map;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.ipcamera.internal.handler.IpCameraGroupHandler;
@@ -26,6 +28,7 @@ import org.openhab.core.thing.binding.ThingHandler;
 import org.openhab.core.thing.binding.ThingHandlerFactory;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 
 /**
@@ -40,12 +43,29 @@ public class IpCameraHandlerFactory extends BaseThingHandlerFactory {
     private final @Nullable String openhabIpAddress;
     private final GroupTracker groupTracker = new GroupTracker();
     private final IpCameraDynamicStateDescriptionProvider stateDescriptionProvider;
+    private final SharedEventLoopGroup eventLoopGroup;
 
     @Activate
     public IpCameraHandlerFactory(final @Reference NetworkAddressService networkAddressService,
-            final @Reference IpCameraDynamicStateDescriptionProvider stateDescriptionProvider) {
+            final @Reference IpCameraDynamicStateDescriptionProvider stateDescriptionProvider,
+            Map<String, Object> config) {
         openhabIpAddress = networkAddressService.getPrimaryIpv4HostAddress();
         this.stateDescriptionProvider = stateDescriptionProvider;
+        int eventLoopThreads = 0;
+        Object value = config.get(CONFIG_EVENT_LOOP_THREADS);
+        if (value != null) {
+            try {
+                eventLoopThreads = Integer.parseInt(value.toString());
+            } catch (NumberFormatException e) {
+                // use the default
+            }
+        }
+        eventLoopGroup = new SharedEventLoopGroup(eventLoopThreads);
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        eventLoopGroup.shutdown();
     }
 
     @Override
@@ -61,9 +81,10 @@ public class IpCameraHandlerFactory extends BaseThingHandlerFactory {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (SUPPORTED_THING_TYPES.contains(thingTypeUID)) {
-            return new IpCameraHandler(thing, openhabIpAddress, groupTracker, stateDescriptionProvider);
+            return new IpCameraHandler(thing, openhabIpAddress, groupTracker, stateDescriptionProvider,
+                    eventLoopGroup.getGroup());
         } else if (GROUP_SUPPORTED_THING_TYPES.contains(thingTypeUID)) {
-            return new IpCameraGroupHandler(thing, openhabIpAddress, groupTracker);
+            return new IpCameraGroupHandler(thing, openhabIpAddress, groupTracker, eventLoopGroup.getGroup());
         }
         return null;
     }
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.FastThreadLocalThread;
+import io.netty.util.concurrent.ScheduledFuture;
+
+/**
+ * The {@link SharedEventLoopGroup} holds the Netty event loops which are used by the channels of all cameras and
+ * groups, instead of every handler running its own event loops.
+ *
+ * Every minute each event loop is asked to run a task, the time until the task runs is its latency. A high latency
+ * means that the event loops are too busy and more threads should be configured.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SharedEventLoopGroup {
+    private static final long LATENCY_CHECK_INTERVAL_SECONDS = 60;
+
+    private final Logger logger = LoggerFactory.getLogger(SharedEventLoopGroup.class);
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final AtomicLong lastLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final NioEventLoopGroup group;
+    private final ScheduledFuture<?> latencyCheck;
+
+    /**
+     * @param threads number of event loop threads, 0 for the number of available processors
+     */
+    public SharedEventLoopGroup(int threads) {
+        int nThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        group = new NioEventLoopGroup(nThreads, new EventLoopThreadFactory());
+        latencyCheck = group.scheduleAtFixedRate(this::checkLatency, LATENCY_CHECK_INTERVAL_SECONDS,
+                LATENCY_CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        logger.debug("Created shared event loop group with {} threads", nThreads);
+    }
+
+    public EventLoopGroup getGroup() {
+        return group;
+    }
+
+    /**
+     * @return the number of running event loop threads, threads are only started when channels are registered
+     */
+    public int getThreadCount() {
+        return threadCount.get();
+    }
+
+    /**
+     * @return the highest latency of all event loops of the last check in milliseconds
+     */
+    public long getLastLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastLatencyNanos.get());
+    }
+
+    /**
+     * @return the highest latency of all event loops since the group has been created in milliseconds
+     */
+    public long getMaxLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get());
+    }
+
+    public void shutdown() {
+        latencyCheck.cancel(false);
+        group.shutdownGracefully(0, 8, TimeUnit.SECONDS);
+        logger.debug("Shut down shared event loop group, threads: {}, max latency: {} ms", getThreadCount(),
+                getMaxLatencyMillis());
+    }
+
+    private void checkLatency() {
+        logger.trace("Event loop threads: {}, latency of last check: {} ms, max latency: {} ms", getThreadCount(),
+                getLastLatencyMillis(), getMaxLatencyMillis());
+        lastLatencyNanos.set(0);
+        for (EventExecutor executor : group) {
+            long submitted = System.nanoTime();
+            executor.execute(() -> {
+                long latency = System.nanoTime() - submitted;
+                lastLatencyNanos.accumulateAndGet(latency, Math::max);
+                maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            });
+        }
+    }
+
+    private class EventLoopThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new FastThreadLocalThread(() -> {
+                threadCount.incrementAndGet();
+                try {
+                    runnable.run();
+                } finally {
+                    threadCount.decrementAndGet();
+                }
+            }, "OH-binding-ipcamera-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
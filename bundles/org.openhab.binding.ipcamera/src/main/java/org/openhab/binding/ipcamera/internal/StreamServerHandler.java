@@ -26,6 +26,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
@@ -57,7 +59,8 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
     private IpCameraHandler ipCameraHandler;
     private boolean handlingMjpeg = false; // used to remove ctx from group when handler is removed.
     private boolean handlingSnapshotStream = false; // used to remove ctx from group when handler is removed.
-    private byte[] incomingJpeg = new byte[0];
+    private static final int MAX_CONTENT_COMPONENTS = 1024;
+    private @Nullable CompositeByteBuf incomingJpeg;
     private String whiteList = "";
     private int recievedBytes = 0;
     private boolean updateSnapshot = false;
@@ -176,24 +179,28 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
             }
             if (msg instanceof HttpContent) {
                 HttpContent content = (HttpContent) msg;
-                if (recievedBytes == 0) {
-                    incomingJpeg = new byte[content.content().readableBytes()];
-                    content.content().getBytes(0, incomingJpeg, 0, content.content().readableBytes());
-                } else {
-                    byte[] temp = incomingJpeg;
-                    incomingJpeg = new byte[recievedBytes + content.content().readableBytes()];
-                    System.arraycopy(temp, 0, incomingJpeg, 0, temp.length);
-                    content.content().getBytes(0, incomingJpeg, temp.length, content.content().readableBytes());
+                CompositeByteBuf localJpeg = incomingJpeg;
+                if (localJpeg == null) {
+                    localJpeg = ctx.alloc().compositeBuffer(MAX_CONTENT_COMPONENTS);
+                    incomingJpeg = localJpeg;
                 }
-                recievedBytes = incomingJpeg.length;
+                // collect the content without copying it
+                localJpeg.addComponent(true, content.content().retain());
+                recievedBytes = localJpeg.readableBytes();
                 if (content instanceof LastHttpContent) {
+                    incomingJpeg = null;
                     if (updateSnapshot) {
-                        ipCameraHandler.processSnapshot(incomingJpeg);
+                        ipCameraHandler.processSnapshot(ByteBufUtil.getBytes(localJpeg));
+                        localJpeg.release();
                     } else if (onvifEvent) {
-                        ipCameraHandler.onvifCamera.eventRecieved(new String(incomingJpeg, StandardCharsets.UTF_8));
+                        ipCameraHandler.onvifCamera.eventRecieved(localJpeg.toString(StandardCharsets.UTF_8));
+                        localJpeg.release();
                     } else { // handles the snapshots that make up mjpeg from rtsp to ffmpeg conversions.
                         if (recievedBytes > 1000) {
-                            ipCameraHandler.sendMjpegFrame(incomingJpeg, ipCameraHandler.mjpegChannelGroup);
+                            // the frame takes over the content
+                            ipCameraHandler.sendMjpegFrame(localJpeg, ipCameraHandler.mjpegChannelGroup);
+                        } else {
+                            localJpeg.release();
                         }
                     }
                     recievedBytes = 0;
@@ -208,7 +215,7 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
         HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
         ipCameraHandler.lockCurrentSnapshot.lock();
         try {
-            ByteBuf snapshotData = Unpooled.copiedBuffer(ipCameraHandler.currentSnapshot);
+            ByteBuf snapshotData = Unpooled.wrappedBuffer(ipCameraHandler.currentSnapshot);
             response.headers().add(HttpHeaderNames.CONTENT_TYPE, contentType);
             response.headers().set(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE);
             response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
@@ -280,6 +287,11 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
 
     @Override
     public void handlerRemoved(@Nullable ChannelHandlerContext ctx) {
+        CompositeByteBuf localJpeg = incomingJpeg;
+        if (localJpeg != null) {
+            localJpeg.release();
+            incomingJpeg = null;
+        }
         if (ctx == null) {
             return;
         }
@@ -49,12 +49,14 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.concurrent.GlobalEventExecutor;
 
 /**
  * The {@link IpCameraGroupHandler} is responsible for finding cameras that are part of this group and displaying a
@@ -69,7 +71,8 @@ public class IpCameraGroupHandler extends BaseThingHandler {
     public GroupConfig groupConfig;
     private BigDecimal pollTimeInSeconds = new BigDecimal(2);
     public ArrayList<IpCameraHandler> cameraOrder = new ArrayList<IpCameraHandler>(2);
-    private EventLoopGroup serversLoopGroup = new NioEventLoopGroup();
+    private final EventLoopGroup eventLoopGroup;
+    private final ChannelGroup serverChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     private final ScheduledExecutorService pollCameraGroup = Executors.newSingleThreadScheduledExecutor();
     private @Nullable ScheduledFuture<?> pollCameraGroupJob = null;
     private @Nullable ServerBootstrap serverBootstrap;
@@ -86,8 +89,10 @@ public class IpCameraGroupHandler extends BaseThingHandler {
     private int discontinuitySequence = 0;
     private GroupTracker groupTracker;
 
-    public IpCameraGroupHandler(Thing thing, @Nullable String openhabIpAddress, GroupTracker groupTracker) {
+    public IpCameraGroupHandler(Thing thing, @Nullable String openhabIpAddress, GroupTracker groupTracker,
+            EventLoopGroup eventLoopGroup) {
         super(thing);
+        this.eventLoopGroup = eventLoopGroup;
         groupConfig = getConfigAs(GroupConfig.class);
         if (openhabIpAddress != null) {
             hostIp = openhabIpAddress;
@@ -187,20 +192,21 @@ public class IpCameraGroupHandler extends BaseThingHandler {
     @SuppressWarnings("null")
     public void startStreamServer(boolean start) {
         if (!start) {
-            serversLoopGroup.shutdownGracefully(8, 8, TimeUnit.SECONDS);
+            // the event loops are shared, so only the channels of this server are closed
+            serverChannels.close();
             serverBootstrap = null;
         } else {
             if (serverBootstrap == null) {
                 try {
-                    serversLoopGroup = new NioEventLoopGroup();
                     serverBootstrap = new ServerBootstrap();
-                    serverBootstrap.group(serversLoopGroup);
+                    serverBootstrap.group(eventLoopGroup);
                     serverBootstrap.channel(NioServerSocketChannel.class);
                     // IP "0.0.0.0" will bind the server to all network connections//
                     serverBootstrap.localAddress(new InetSocketAddress("0.0.0.0", serverPort));
                     serverBootstrap.childHandler(new ChannelInitializer<SocketChannel>() {
                         @Override
                         protected void initChannel(SocketChannel socketChannel) throws Exception {
+                            serverChannels.add(socketChannel);
                             socketChannel.pipeline().addLast("idleStateHandler", new IdleStateHandler(0, 25, 0));
                             socketChannel.pipeline().addLast("HttpServerCodec", new HttpServerCodec());
                             socketChannel.pipeline().addLast("ChunkedWriteHandler", new ChunkedWriteHandler());
@@ -210,6 +216,7 @@ public class IpCameraGroupHandler extends BaseThingHandler {
                     });
                     serverFuture = serverBootstrap.bind().sync();
                     serverFuture.await(4000);
+                    serverChannels.add(serverFuture.channel());
                     logger.info("IpCamera file server for a group of cameras has started on port {} for all NIC's.",
                             serverPort);
                     updateState(CHANNEL_MJPEG_URL,
@@ -23,10 +23,10 @@ import java.net.InetSocketAddress;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -78,6 +78,8 @@ import org.slf4j.LoggerFactory;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelDuplexHandler;
@@ -89,7 +91,6 @@ import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
@@ -125,6 +126,8 @@ import io.netty.util.concurrent.GlobalEventExecutor;
 
 @NonNullByDefault
 public class IpCameraHandler extends BaseThingHandler {
+    private static final byte[] MJPEG_FRAME_FOOTER = "\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_SNAPSHOT_COMPONENTS = 1024;
     public final Logger logger = LoggerFactory.getLogger(getClass());
     public final IpCameraDynamicStateDescriptionProvider stateDescriptionProvider;
     private ScheduledExecutorService threadPool = Executors.newScheduledThreadPool(4);
@@ -151,8 +154,8 @@ public class IpCameraHandler extends BaseThingHandler {
     private @Nullable Bootstrap mainBootstrap;
     private @Nullable ServerBootstrap serverBootstrap;
 
-    private EventLoopGroup mainEventLoopGroup = new NioEventLoopGroup();
-    private EventLoopGroup serversLoopGroup = new NioEventLoopGroup();
+    private final EventLoopGroup eventLoopGroup;
+    private final ChannelGroup serverChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     private FullHttpRequest putRequestWithBody = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, new HttpMethod("PUT"),
             "");
     private String gifFilename = "ipcamera";
@@ -163,7 +166,8 @@ public class IpCameraHandler extends BaseThingHandler {
     private String mp4Filename = "ipcamera";
     private int mp4RecordTime;
     private int gifRecordTime = 5;
-    private LinkedList<byte[]> fifoSnapshotBuffer = new LinkedList<byte[]>();
+    // snapshots are never modified once received, so the pre-roll only keeps references
+    private final ArrayDeque<byte[]> fifoSnapshotBuffer = new ArrayDeque<>();
     private int snapCount;
     private boolean updateImageChannel = false;
     private boolean updateAutoFps = false;
@@ -201,9 +205,9 @@ public class IpCameraHandler extends BaseThingHandler {
 
     // These methods handle the response from all camera brands, nothing specific to 1 brand.
     private class CommonCameraHandler extends ChannelDuplexHandler {
-        private int bytesToRecieve = 0;
         private int bytesAlreadyRecieved = 0;
-        private byte[] incomingJpeg = new byte[0];
+        // the received content is collected without copying it, until the snapshot is complete
+        private @Nullable CompositeByteBuf incomingJpeg;
         private String incomingMessage = "";
         private String contentType = "empty";
         private Object reply = new Object();
@@ -231,9 +235,6 @@ public class IpCameraHandler extends BaseThingHandler {
                                     case "content-type":
                                         contentType = response.headers().getAsString(name);
                                         break;
-                                    case "content-length":
-                                        bytesToRecieve = Integer.parseInt(response.headers().getAsString(name));
-                                        break;
                                     case "connection":
                                         if (response.headers().getAsString(name).contains("keep-alive")) {
                                             closeConnection = false;
@@ -257,11 +258,8 @@ public class IpCameraHandler extends BaseThingHandler {
                                     }
                                 }
                             } else if (contentType.contains("image/jp")) {
-                                if (bytesToRecieve == 0) {
-                                    bytesToRecieve = 768000; // 0.768 Mbyte when no Content-Length is sent
-                                    logger.debug("Camera has no Content-Length header, we have to guess how much RAM.");
-                                }
-                                incomingJpeg = new byte[bytesToRecieve];
+                                releaseIncomingJpeg();
+                                incomingJpeg = ctx.alloc().compositeBuffer(MAX_SNAPSHOT_COMPONENTS);
                             }
                         }
                     }
@@ -275,17 +273,22 @@ public class IpCameraHandler extends BaseThingHandler {
                         HttpContent content = (HttpContent) msg;
                         // Found some cameras use Content-Type: image/jpg instead of image/jpeg
                         if (contentType.contains("image/jp")) {
-                            for (int i = 0; i < content.content().capacity(); i++) {
-                                incomingJpeg[bytesAlreadyRecieved++] = content.content().getByte(i);
+                            CompositeByteBuf localJpeg = incomingJpeg;
+                            if (localJpeg == null) {
+                                return;
                             }
+                            bytesAlreadyRecieved += content.content().readableBytes();
+                            localJpeg.addComponent(true, content.content().retain());
                             if (content instanceof LastHttpContent) {
-                                processSnapshot(incomingJpeg);
+                                // the only copy of the image, it is shared by all users of the snapshot
+                                byte[] snapshot = ByteBufUtil.getBytes(localJpeg);
+                                releaseIncomingJpeg();
+                                processSnapshot(snapshot);
                                 // testing next line and if works need to do a full cleanup of this function.
                                 closeConnection = true;
                                 if (closeConnection) {
                                     ctx.close();
                                 } else {
-                                    bytesToRecieve = 0;
                                     bytesAlreadyRecieved = 0;
                                 }
                             }
@@ -308,7 +311,6 @@ public class IpCameraHandler extends BaseThingHandler {
                                 if (bytesAlreadyRecieved != 0) {
                                     reply = incomingMessage;
                                     incomingMessage = "";
-                                    bytesToRecieve = 0;
                                     bytesAlreadyRecieved = 0;
                                     super.channelRead(ctx, reply);
                                 }
@@ -344,6 +346,15 @@ public class IpCameraHandler extends BaseThingHandler {
 
         @Override
         public void handlerRemoved(@Nullable ChannelHandlerContext ctx) {
+            releaseIncomingJpeg();
+        }
+
+        private void releaseIncomingJpeg() {
+            CompositeByteBuf localJpeg = incomingJpeg;
+            if (localJpeg != null) {
+                localJpeg.release();
+                incomingJpeg = null;
+            }
         }
 
         @Override
@@ -351,13 +362,8 @@ public class IpCameraHandler extends BaseThingHandler {
             if (cause == null || ctx == null) {
                 return;
             }
-            if (cause instanceof ArrayIndexOutOfBoundsException) {
-                logger.debug("Camera sent {} bytes when the content-length header was {}.", bytesAlreadyRecieved,
-                        bytesToRecieve);
-            } else {
-                logger.warn("!!!! Camera possibly closed the channel on the binding, cause reported is: {}",
-                        cause.getMessage());
-            }
+            logger.warn("!!!! Camera possibly closed the channel on the binding, cause reported is: {}",
+                    cause.getMessage());
             ctx.close();
         }
 
@@ -395,9 +401,10 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     public IpCameraHandler(Thing thing, @Nullable String ipAddress, GroupTracker groupTracker,
-            IpCameraDynamicStateDescriptionProvider stateDescriptionProvider) {
+            IpCameraDynamicStateDescriptionProvider stateDescriptionProvider, EventLoopGroup eventLoopGroup) {
         super(thing);
         this.stateDescriptionProvider = stateDescriptionProvider;
+        this.eventLoopGroup = eventLoopGroup;
         if (ipAddress != null) {
             hostIp = ipAddress;
         } else {
@@ -503,7 +510,7 @@ public class IpCameraHandler extends BaseThingHandler {
 
         if (mainBootstrap == null) {
             mainBootstrap = new Bootstrap();
-            mainBootstrap.group(mainEventLoopGroup);
+            mainBootstrap.group(eventLoopGroup);
             mainBootstrap.channel(NioSocketChannel.class);
             mainBootstrap.option(ChannelOption.SO_KEEPALIVE, true);
             mainBootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 4500);
@@ -655,8 +662,13 @@ public class IpCameraHandler extends BaseThingHandler {
         }
     }
 
+    public EventLoopGroup getEventLoopGroup() {
+        return eventLoopGroup;
+    }
+
     public void stopStreamServer() {
-        serversLoopGroup.shutdownGracefully();
+        // the event loops are shared, so only the channels of this server are closed
+        serverChannels.close();
         serverBootstrap = null;
     }
 
@@ -664,15 +676,15 @@ public class IpCameraHandler extends BaseThingHandler {
     public void startStreamServer() {
         if (serverBootstrap == null) {
             try {
-                serversLoopGroup = new NioEventLoopGroup();
                 serverBootstrap = new ServerBootstrap();
-                serverBootstrap.group(serversLoopGroup);
+                serverBootstrap.group(eventLoopGroup);
                 serverBootstrap.channel(NioServerSocketChannel.class);
                 // IP "0.0.0.0" will bind the server to all network connections//
                 serverBootstrap.localAddress(new InetSocketAddress("0.0.0.0", cameraConfig.getServerPort()));
                 serverBootstrap.childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     protected void initChannel(SocketChannel socketChannel) throws Exception {
+                        serverChannels.add(socketChannel);
                         socketChannel.pipeline().addLast("idleStateHandler", new IdleStateHandler(0, 60, 0));
                         socketChannel.pipeline().addLast("HttpServerCodec", new HttpServerCodec());
                         socketChannel.pipeline().addLast("ChunkedWriteHandler", new ChunkedWriteHandler());
@@ -681,6 +693,7 @@ public class IpCameraHandler extends BaseThingHandler {
                 });
                 serverFuture = serverBootstrap.bind().sync();
                 serverFuture.await(4000);
+                serverChannels.add(serverFuture.channel());
                 logger.debug("File server for camera at {} has started on port {} for all NIC's.", cameraConfig.getIp(),
                         cameraConfig.getServerPort());
                 updateState(CHANNEL_MJPEG_URL,
@@ -829,16 +842,30 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     public void sendMjpegFrame(byte[] jpg, ChannelGroup channelGroup) {
+        if (channelGroup.isEmpty()) {
+            return;
+        }
+        sendMjpegFrame(Unpooled.wrappedBuffer(jpg), channelGroup);
+    }
+
+    /**
+     * Sends a frame to all channels of the group. The frame is assembled from the image without copying it, and all
+     * channels write duplicates of the same frame.
+     *
+     * @param jpg the image, the frame takes over its reference
+     */
+    public void sendMjpegFrame(ByteBuf jpg, ChannelGroup channelGroup) {
+        if (channelGroup.isEmpty()) {
+            jpg.release();
+            return;
+        }
         final String boundary = "thisMjpegStream";
-        ByteBuf imageByteBuf = Unpooled.copiedBuffer(jpg);
-        int length = imageByteBuf.readableBytes();
+        int length = jpg.readableBytes();
         String header = "--" + boundary + "\r\n" + "content-type: image/jpeg" + "\r\n" + "content-length: " + length
                 + "\r\n\r\n";
-        ByteBuf headerBbuf = Unpooled.copiedBuffer(header, 0, header.length(), StandardCharsets.UTF_8);
-        ByteBuf footerBbuf = Unpooled.copiedBuffer("\r\n", 0, 2, StandardCharsets.UTF_8);
-        streamToGroup(headerBbuf, channelGroup, false);
-        streamToGroup(imageByteBuf, channelGroup, false);
-        streamToGroup(footerBbuf, channelGroup, true);
+        ByteBuf frame = Unpooled.wrappedBuffer(Unpooled.copiedBuffer(header, StandardCharsets.US_ASCII), jpg,
+                Unpooled.wrappedBuffer(MJPEG_FRAME_FOOTER));
+        streamToGroup(frame, channelGroup, true);
     }
 
     public void streamToGroup(Object msg, ChannelGroup channelGroup, boolean flush) {
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.ipcamera.internal.GroupTracker;
+import org.openhab.binding.ipcamera.internal.IpCameraDynamicStateDescriptionProvider;
+import org.openhab.core.thing.Thing;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.concurrent.GlobalEventExecutor;
+
+/**
+ * Tests that MJPEG frames are assembled around the image without copying it and are shared by all stream clients.
+ *
+ * @author agent - Initial contribution
+ */
+@SuppressWarnings("null")
+public class IpCameraHandlerTest {
+    private static final String IMAGE = "not really a jpeg";
+    private static final String FRAME = "--thisMjpegStream\r\ncontent-type: image/jpeg\r\ncontent-length: "
+            + IMAGE.length() + "\r\n\r\n" + IMAGE + "\r\n";
+
+    private final ChannelGroup channelGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    private IpCameraHandler handler;
+
+    @BeforeEach
+    public void setUp() {
+        handler = new IpCameraHandler(mock(Thing.class), "127.0.0.1", new GroupTracker(),
+                mock(IpCameraDynamicStateDescriptionProvider.class), mock(EventLoopGroup.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        channelGroup.close();
+    }
+
+    @Test
+    public void frameIsSentToAllClients() {
+        EmbeddedChannel first = new EmbeddedChannel();
+        EmbeddedChannel second = new EmbeddedChannel();
+        channelGroup.add(first);
+        channelGroup.add(second);
+        ByteBuf image = Unpooled.copiedBuffer(IMAGE, StandardCharsets.US_ASCII);
+
+        handler.sendMjpegFrame(image, channelGroup);
+
+        ByteBuf firstFrame = first.readOutbound();
+        ByteBuf secondFrame = second.readOutbound();
+        assertThat(firstFrame.toString(StandardCharsets.US_ASCII), is(FRAME));
+        assertThat(secondFrame.toString(StandardCharsets.US_ASCII), is(FRAME));
+        // both clients write duplicates of one frame, which references the image instead of copying it
+        assertThat(firstFrame.refCnt(), is(2));
+        assertThat(image.refCnt(), is(1));
+
+        firstFrame.release();
+        secondFrame.release();
+        assertThat(image.refCnt(), is(0));
+    }
+
+    @Test
+    public void frameOfByteArrayIsSent() {
+        EmbeddedChannel client = new EmbeddedChannel();
+        channelGroup.add(client);
+
+        handler.sendMjpegFrame(IMAGE.getBytes(StandardCharsets.US_ASCII), channelGroup);
+
+        ByteBuf frame = client.readOutbound();
+        assertThat(frame.toString(StandardCharsets.US_ASCII), is(FRAME));
+        frame.release();
+    }
+
+    @Test
+    public void imageIsReleasedWithoutClients() {
+        ByteBuf image = Unpooled.copiedBuffer(IMAGE, StandardCharsets.US_ASCII);
+
+        handler.sendMjpegFrame(image, channelGroup);
+
+        assertThat(image.refCnt(), is(0));
+    }
+}
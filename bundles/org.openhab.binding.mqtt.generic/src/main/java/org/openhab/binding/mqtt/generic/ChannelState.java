@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.generic;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.IllegalFormatException;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -31,6 +32,7 @@ import org.openhab.core.io.transport.mqtt.MqttMessageSubscriber;
 import org.openhab.core.library.types.StringType;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.types.Command;
+import org.openhab.core.types.State;
 import org.openhab.core.types.TypeParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,6 +65,10 @@ public class ChannelState implements MqttMessageSubscriber {
     private CompletableFuture<@Nullable Void> future = CompletableFuture.completedFuture(null);
     private final Object futureLock = new Object();
 
+    // last payload handled by the fast path and the resulting state
+    private byte @Nullable [] lastPayload;
+    private @Nullable State lastPayloadState;
+
     /**
      * Creates a new channel state.
      *
@@ -153,6 +159,31 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
+        if (transformationsIn.isEmpty() && !config.trigger) {
+            // Fast path: repeated payload or a payload the value can parse without a String
+            if (lastPayloadState != null && lastPayloadState == cachedValue.getChannelState()
+                    && Arrays.equals(lastPayload, payload)) {
+                publishCachedValue(channelStateUpdateListener);
+                return;
+            }
+            Command command = cachedValue.parseCommand(payload);
+            if (command != null) {
+                try {
+                    cachedValue.update(command);
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    logger.warn("Command '{}' not supported by type '{}': {}", command,
+                            cachedValue.getClass().getSimpleName(), e.getMessage());
+                    receivedOrTimeout();
+                    return;
+                }
+                lastPayload = payload.clone();
+                lastPayloadState = cachedValue.getChannelState();
+                publishCachedValue(channelStateUpdateListener);
+                return;
+            }
+        }
+        lastPayloadState = null;
+
         // String value: Apply transformations
         String strValue = new String(payload, StandardCharsets.UTF_8);
         for (ChannelStateTransformation t : transformationsIn) {
@@ -198,6 +229,10 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
+        publishCachedValue(channelStateUpdateListener);
+    }
+
+    private void publishCachedValue(ChannelStateUpdateListener channelStateUpdateListener) {
         if (config.postCommand) {
             channelStateUpdateListener.postChannelCommand(channelUID, (Command) cachedValue.getChannelState());
         } else {
@@ -13,11 +13,14 @@
 package org.openhab.binding.mqtt.generic.tools;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -25,47 +28,95 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 
 /**
- * Collects objects over time until a specified delay passed by.
+ * Collects objects over time until a specified delay passed by without a new object.
  * Then call the user back with a list of accumulated objects and start over again.
  *
+ * A batch is delivered at the latest after the maximum latency even if objects keep arriving, and immediately when it
+ * reaches the maximum batch size. Adding an object doesn't lock and doesn't reschedule the timer, the timer checks
+ * for new objects when it expires instead.
+ *
  * @author David Graeff - Initial contribution
  *
  * @param <T> Any object
  */
 @NonNullByDefault
 public class DelayedBatchProcessing<T> implements Consumer<T> {
+    public static final int DEFAULT_MAX_LATENCY_FACTOR = 10;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
     private final int delay;
+    private final long maxLatency;
+    private final int maxBatchSize;
     private final Consumer<List<T>> consumer;
-    private final List<T> queue = Collections.synchronizedList(new ArrayList<>());
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
     private final ScheduledExecutorService executor;
     protected final AtomicReference<@Nullable ScheduledFuture<?>> futureRef = new AtomicReference<>();
 
+    private volatile long batchStart;
+    private volatile long lastAccept;
+
+    // statistics
+    private final AtomicLong deliveredBatches = new AtomicLong();
+    private final AtomicLong deliveredObjects = new AtomicLong();
+
     /**
-     * Creates a {@link DelayedBatchProcessing}.
+     * Creates a {@link DelayedBatchProcessing} with a maximum latency of {@link #DEFAULT_MAX_LATENCY_FACTOR} times
+     * the delay and a maximum batch size of {@link #DEFAULT_MAX_BATCH_SIZE}.
      *
      * @param delay A delay in milliseconds
      * @param consumer A consumer of the list of collected objects
      * @param executor A scheduled executor service
      */
     public DelayedBatchProcessing(int delay, Consumer<List<T>> consumer, ScheduledExecutorService executor) {
+        this(delay, (long) delay * DEFAULT_MAX_LATENCY_FACTOR, DEFAULT_MAX_BATCH_SIZE, consumer, executor);
+    }
+
+    /**
+     * Creates a {@link DelayedBatchProcessing}.
+     *
+     * @param delay A delay in milliseconds
+     * @param maxLatency The maximum time in milliseconds between the first object of a batch and its delivery
+     * @param maxBatchSize The number of objects which are delivered without further delay
+     * @param consumer A consumer of the list of collected objects
+     * @param executor A scheduled executor service
+     */
+    public DelayedBatchProcessing(int delay, long maxLatency, int maxBatchSize, Consumer<List<T>> consumer,
+            ScheduledExecutorService executor) {
         this.delay = delay;
+        this.maxLatency = Math.max(delay, maxLatency);
+        this.maxBatchSize = maxBatchSize;
         this.consumer = consumer;
         this.executor = executor;
         if (delay <= 0) {
             throw new IllegalArgumentException("Delay need to be greater than 0!");
         }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Maximum batch size need to be greater than 0!");
+        }
     }
 
     /**
-     * Add new object to the batch process list. Every time a new object is received,
-     * the delay timer is rescheduled.
+     * Add new object to the batch process list. The batch is delivered when no new object has been received
+     * for the delay, after the maximum latency or when the maximum batch size is reached.
      *
      * @param t An object
      */
     @Override
     public void accept(T t) {
+        long now = System.nanoTime();
+        lastAccept = now;
         queue.add(t);
-        cancel(futureRef.getAndSet(executor.schedule(this::run, delay, TimeUnit.MILLISECONDS)));
+        if (queueSize.incrementAndGet() == maxBatchSize) {
+            executor.execute(this::forceProcessNow);
+        } else if (futureRef.get() == null) {
+            batchStart = now;
+            ScheduledFuture<?> future = executor.schedule(this::timerExpired, delay, TimeUnit.MILLISECONDS);
+            if (!futureRef.compareAndSet(null, future)) {
+                // armed by another thread in the meantime
+                cancel(future);
+            }
+        }
     }
 
     /**
@@ -75,12 +126,7 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
      */
     public List<T> join() {
         cancel(futureRef.getAndSet(null));
-        List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
-        }
-        return lqueue;
+        return drain();
     }
 
     /**
@@ -99,18 +145,61 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
         run();
     }
 
-    private void run() {
-        List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
+    /**
+     * Return the number of delivered batches.
+     */
+    public long getDeliveredBatches() {
+        return deliveredBatches.get();
+    }
+
+    /**
+     * Return the number of objects delivered in all batches.
+     */
+    public long getDeliveredObjects() {
+        return deliveredObjects.get();
+    }
+
+    /**
+     * Return the number of objects waiting for delivery.
+     */
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    private void timerExpired() {
+        long now = System.nanoTime();
+        long quietRemaining = lastAccept + TimeUnit.MILLISECONDS.toNanos(delay) - now;
+        long latencyRemaining = batchStart + TimeUnit.MILLISECONDS.toNanos(maxLatency) - now;
+        long remaining = Math.min(quietRemaining, latencyRemaining);
+        if (remaining > 0) {
+            // objects arrived after the timer has been scheduled
+            futureRef.set(executor.schedule(this::timerExpired, TimeUnit.NANOSECONDS.toMillis(remaining) + 1,
+                    TimeUnit.MILLISECONDS));
+            return;
         }
+        futureRef.set(null);
+        run();
+    }
 
+    private void run() {
+        List<T> lqueue = drain();
         if (!lqueue.isEmpty()) {
+            deliveredBatches.incrementAndGet();
+            deliveredObjects.addAndGet(lqueue.size());
             consumer.accept(lqueue);
         }
     }
 
+    private List<T> drain() {
+        List<T> lqueue = new ArrayList<>();
+        T t;
+        while ((t = queue.poll()) != null) {
+            lqueue.add(t);
+        }
+        queueSize.addAndGet(-lqueue.size());
+        return lqueue;
+    }
+
     private static void cancel(@Nullable ScheduledFuture<?> future) {
         if (future != null) {
             future.cancel(false);
@@ -133,6 +133,12 @@ public class NumberValue extends Value {
         }
     }
 
+    @Override
+    public @Nullable Command parseCommand(byte[] payload) {
+        BigDecimal value = parseDecimal(payload);
+        return value == null ? null : new DecimalType(value);
+    }
+
     @Override
     public StateDescriptionFragmentBuilder createStateDescription(boolean readOnly) {
         StateDescriptionFragmentBuilder builder = super.createStateDescription(readOnly);
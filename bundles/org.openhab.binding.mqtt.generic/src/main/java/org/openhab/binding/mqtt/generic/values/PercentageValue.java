@@ -152,6 +152,12 @@ public class PercentageValue extends Value {
         return new DecimalType(value).format(formatPattern);
     }
 
+    @Override
+    public @Nullable Command parseCommand(byte[] payload) {
+        BigDecimal value = parseDecimal(payload);
+        return value == null ? null : new DecimalType(value);
+    }
+
     @Override
     public StateDescriptionFragmentBuilder createStateDescription(boolean readOnly) {
         return super.createStateDescription(readOnly).withMaximum(max).withMinimum(min).withStep(step)
@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.generic.values;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.net.URLConnection;
 import java.util.List;
 
@@ -136,6 +137,49 @@ public abstract class Value {
         return null;
     }
 
+    /**
+     * Parses an untransformed MQTT payload without decoding it to a String first. This is a fast path for the
+     * most common payloads, values return {@code null} for everything else and the payload is parsed by
+     * {@link org.openhab.core.types.TypeParser} with {@link #getSupportedCommandTypes()} then.
+     *
+     * The returned command must be the same {@link #update(Command)} would get from the slow path and must be
+     * absolute, so that the resulting state doesn't depend on the previous state.
+     *
+     * @param payload The MQTT payload
+     * @return A command or {@code null} if the payload is not recognized
+     */
+    public @Nullable Command parseCommand(byte[] payload) {
+        return null;
+    }
+
+    /**
+     * Parses a plain decimal number like {@code -12.5} from ASCII bytes.
+     *
+     * @return The number or {@code null} if the payload has another format
+     */
+    protected static @Nullable BigDecimal parseDecimal(byte[] payload) {
+        int length = payload.length;
+        if (length == 0 || length > 64) {
+            return null;
+        }
+        int i = payload[0] == '-' || payload[0] == '+' ? 1 : 0;
+        int digits = 0;
+        boolean point = false;
+        char[] chars = new char[length];
+        for (int j = 0; j < length; j++) {
+            byte b = payload[j];
+            if (b >= '0' && b <= '9') {
+                digits++;
+            } else if (b == '.' && !point && j >= i) {
+                point = true;
+            } else if (j >= i) {
+                return null;
+            }
+            chars[j] = (char) b;
+        }
+        return digits == 0 ? null : new BigDecimal(chars);
+    }
+
     /**
      * Updates the internal value state with the given binary payload.
      *
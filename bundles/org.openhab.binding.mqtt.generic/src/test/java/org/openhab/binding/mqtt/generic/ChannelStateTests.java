@@ -46,10 +46,12 @@ import org.openhab.binding.mqtt.generic.values.DateTimeValue;
 import org.openhab.binding.mqtt.generic.values.ImageValue;
 import org.openhab.binding.mqtt.generic.values.LocationValue;
 import org.openhab.binding.mqtt.generic.values.NumberValue;
+import org.openhab.binding.mqtt.generic.values.OnOffValue;
 import org.openhab.binding.mqtt.generic.values.PercentageValue;
 import org.openhab.binding.mqtt.generic.values.TextValue;
 import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.RawType;
 import org.openhab.core.library.types.StringType;
 import org.openhab.core.thing.ChannelUID;
@@ -207,6 +209,40 @@ public class ChannelStateTests {
         assertThat(value.getMQTTpublishValue("%03.0f"), is("010"));
     }
 
+    @Test
+    public void receiveRepeatedPayloadTest() {
+        NumberValue value = new NumberValue(null, null, new BigDecimal(10), null);
+        ChannelState c = spy(new ChannelState(config, channelUID, value, channelStateUpdateListener));
+        c.start(connection, mock(ScheduledExecutorService.class), 100);
+
+        c.processMessage("state", "15".getBytes());
+        c.processMessage("state", "15".getBytes());
+        assertThat(value.getChannelState().toString(), is("15"));
+
+        // a relative command changes the cached value, so the same payload has to be applied again
+        c.processMessage("state", "INCREASE".getBytes());
+        c.processMessage("state", "15".getBytes());
+        assertThat(value.getChannelState().toString(), is("15"));
+
+        verify(channelStateUpdateListener, times(4)).updateChannelState(eq(channelUID), any());
+    }
+
+    @Test
+    public void receiveOnOffFastPathTest() {
+        OnOffValue value = new OnOffValue("1", "0");
+        ChannelState c = spy(new ChannelState(config, channelUID, value, channelStateUpdateListener));
+        c.start(connection, mock(ScheduledExecutorService.class), 100);
+
+        c.processMessage("state", "1".getBytes());
+        assertThat(value.getChannelState(), is(OnOffType.ON));
+
+        c.processMessage("state", "OFF".getBytes());
+        assertThat(value.getChannelState(), is(OnOffType.OFF));
+
+        c.processMessage("state", "1".getBytes());
+        assertThat(value.getChannelState(), is(OnOffType.ON));
+    }
+
     @Test
     public void receiveRGBColorTest() {
         ColorValue value = new ColorValue(ColorMode.RGB, "FON", "FOFF", 10);
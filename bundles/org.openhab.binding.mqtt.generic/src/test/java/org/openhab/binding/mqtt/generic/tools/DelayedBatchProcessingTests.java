@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link DelayedBatchProcessing} class.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class DelayedBatchProcessingTests {
+
+    private ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1);
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = new ScheduledThreadPoolExecutor(1);
+        batches.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void objectsAreDeliveredAfterDelay() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        DelayedBatchProcessing<Integer> processing = new DelayedBatchProcessing<>(50, batch -> {
+            batches.add(batch);
+            delivered.countDown();
+        }, scheduler);
+
+        for (int i = 0; i < 100; i++) {
+            processing.accept(i);
+        }
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertThat(batches.size(), is(1));
+        assertThat(batches.get(0).size(), is(100));
+        assertThat(processing.getDeliveredObjects(), is(100L));
+        assertThat(processing.getQueueSize(), is(0));
+    }
+
+    @Test
+    public void fullBatchIsDeliveredImmediately() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        DelayedBatchProcessing<Integer> processing = new DelayedBatchProcessing<>(60000, 60000, 10, batch -> {
+            batches.add(batch);
+            delivered.countDown();
+        }, scheduler);
+
+        for (int i = 0; i < 10; i++) {
+            processing.accept(i);
+        }
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertThat(batches.get(0).size(), is(10));
+    }
+
+    @Test
+    public void continuousArrivalsAreDeliveredAfterMaxLatency() throws InterruptedException {
+        DelayedBatchProcessing<Integer> processing = new DelayedBatchProcessing<>(100, 300, 100000, batches::add,
+                scheduler);
+
+        // a new object every 10 ms would postpone the delivery forever without the latency cap
+        long end = System.currentTimeMillis() + 1000;
+        int i = 0;
+        while (System.currentTimeMillis() < end) {
+            processing.accept(i++);
+            Thread.sleep(10);
+        }
+
+        assertTrue(batches.size() >= 2, "batches delivered while objects keep arriving");
+        List<Integer> all = new ArrayList<>();
+        batches.forEach(all::addAll);
+        all.addAll(processing.join());
+        assertThat(all.size(), is(i));
+    }
+}
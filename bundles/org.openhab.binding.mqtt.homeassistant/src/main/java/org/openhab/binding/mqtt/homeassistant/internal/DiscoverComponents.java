@@ -14,8 +14,10 @@ package org.openhab.binding.mqtt.homeassistant.internal;
 
 import java.lang.ref.WeakReference;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -58,19 +60,33 @@ public class DiscoverComponents implements MqttMessageSubscriber {
     protected @NonNullByDefault({}) ComponentDiscovered discoveredListener;
     private int discoverTime;
     private Set<String> topics = new HashSet<>();
+    /** hash of the latest configuration received per component, older ones are discarded after parsing */
+    private final Map<HaID, Integer> latestConfigHash = new ConcurrentHashMap<>();
 
     /**
      * Implement this to get notified of new components
      */
     public static interface ComponentDiscovered {
         void componentDiscovered(HaID homeAssistantTopicID, AbstractComponent<?> component);
+
+        /**
+         * Called before a configuration is parsed. If the component is already known with the same configuration,
+         * it doesn't need to be parsed again.
+         *
+         * @param homeAssistantTopicID The component
+         * @param configHash The hash code of the configuration JSON
+         * @return true if the component is known with this configuration, it is not parsed and reported then
+         */
+        default boolean isKnownComponent(HaID homeAssistantTopicID, int configHash) {
+            return false;
+        }
     }
 
     /**
      * Create a new discovery object.
      *
      * @param thingUID The Thing UID to perform the discovery for.
-     * @param scheduler A scheduler for timeouts
+     * @param scheduler A scheduler for timeouts and for parsing the component configurations
      * @param channelStateUpdateListener Channel update listener. Usually the handler.
      */
     public DiscoverComponents(ThingUID thingUID, ScheduledExecutorService scheduler,
@@ -93,18 +109,41 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         HaID haID = new HaID(topic);
         String config = new String(payload);
 
-        AbstractComponent<?> component = null;
+        if (config.length() == 0) {
+            logger.debug("Configuration of HomeAssistant thing {} invalid: {}", haID.objectID, config);
+            return;
+        }
 
-        if (config.length() > 0) {
-            component = CFactory.createComponent(thingUID, haID, config, updateListener, tracker, scheduler, gson,
-                    transformationServiceProvider);
+        int configHash = config.hashCode();
+        ComponentDiscovered listener = discoveredListener;
+        if (listener != null && listener.isKnownComponent(haID, configHash)) {
+            // a changed configuration still being parsed is outdated now
+            latestConfigHash.remove(haID);
+            logger.trace("Configuration of HomeAssistant thing {} component {} unchanged", haID.objectID,
+                    haID.component);
+            return;
+        }
+
+        // Parse in the thread pool, so that many configurations are parsed in parallel
+        latestConfigHash.put(haID, configHash);
+        scheduler.execute(() -> parseComponent(haID, config, configHash));
+    }
+
+    private void parseComponent(HaID haID, String config, int configHash) {
+        AbstractComponent<?> component = CFactory.createComponent(thingUID, haID, config, updateListener, tracker,
+                scheduler, gson, transformationServiceProvider);
+        if (!latestConfigHash.remove(haID, configHash)) {
+            logger.trace("Configuration of HomeAssistant thing {} component {} has been replaced", haID.objectID,
+                    haID.component);
+            return;
         }
         if (component != null) {
             component.setConfigSeen();
 
             logger.trace("Found HomeAssistant thing {} component {}", haID.objectID, haID.component);
-            if (discoveredListener != null) {
-                discoveredListener.componentDiscovered(haID, component);
+            ComponentDiscovered listener = discoveredListener;
+            if (listener != null) {
+                listener.componentDiscovered(haID, component);
             }
         } else {
             logger.debug("Configuration of HomeAssistant thing {} invalid: {}", haID.objectID, config);
@@ -15,11 +15,13 @@ package org.openhab.binding.mqtt.homeassistant.internal.handler;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -89,6 +91,8 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
 
     private final Gson gson;
     protected final Map<String, AbstractComponent<?>> haComponents = new HashMap<>();
+    /** the components of {@link #haComponents} by topic ID, guarded by haComponents */
+    private final Map<HaID, AbstractComponent<?>> haComponentsByHaID = new HashMap<>();
 
     protected HandlerConfiguration config = new HandlerConfiguration();
     private Set<HaID> discoveryHomeAssistantIDs = new HashSet<>();
@@ -131,6 +135,9 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         }
         discoveryHomeAssistantIDs.addAll(HaID.fromConfig(config));
 
+        // Parse the component configurations of the channels in the thread pool, so that many components are
+        // restored in parallel
+        Map<String, CompletableFuture<@Nullable AbstractComponent<?>>> restoring = new LinkedHashMap<>();
         for (Channel channel : thing.getChannels()) {
             final String groupID = channel.getUID().getGroupId();
             if (groupID == null) {
@@ -145,6 +152,9 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
                 component.addChannelTypes(channelTypeProvider);
                 continue;
             }
+            if (restoring.containsKey(groupID)) {
+                continue;
+            }
 
             HaID haID = HaID.fromConfig(config.basetopic, channel.getConfiguration());
             discoveryHomeAssistantIDs.add(haID);
@@ -152,13 +162,25 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
             String channelConfigurationJSON = (String) channel.getConfiguration().get("config");
             if (channelConfigurationJSON == null) {
                 logger.warn("Provided channel does not have a 'config' configuration key!");
-            } else {
-                component = CFactory.createComponent(thingUID, haID, channelConfigurationJSON, this, this, scheduler,
-                        gson, transformationServiceProvider);
+                logger.warn("Could not restore component {}", thing);
+                continue;
+            }
+            restoring.put(groupID,
+                    CompletableFuture.supplyAsync(() -> CFactory.createComponent(thingUID, haID,
+                            channelConfigurationJSON, this, this, scheduler, gson, transformationServiceProvider),
+                            scheduler));
+        }
+        for (CompletableFuture<@Nullable AbstractComponent<?>> future : restoring.values()) {
+            @Nullable
+            AbstractComponent<?> component;
+            try {
+                component = future.join();
+            } catch (CompletionException e) {
+                logger.warn("Failed to restore component of {}", thing.getUID(), e.getCause());
+                component = null;
             }
-
             if (component != null) {
-                haComponents.put(component.uid().getId(), component);
+                putComponent(component);
                 component.addChannelTypes(channelTypeProvider);
             } else {
                 logger.warn("Could not restore component {}", thing);
@@ -242,6 +264,29 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         return componentChannel.getState();
     }
 
+    /**
+     * Callback of {@link DiscoverComponents}. Components restored from the channel configurations of the Thing or
+     * discovered before don't need to be parsed again if their configuration is unchanged.
+     */
+    @Override
+    public boolean isKnownComponent(HaID homeAssistantTopicID, int configHash) {
+        synchronized (haComponents) {
+            AbstractComponent<?> known = haComponentsByHaID.get(homeAssistantTopicID);
+            if (known != null && known.getConfigHash() == configHash) {
+                known.setConfigSeen();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private void putComponent(AbstractComponent<?> component) {
+        synchronized (haComponents) {
+            haComponents.put(component.uid().getId(), component);
+            haComponentsByHaID.put(component.getHaID(), component);
+        }
+    }
+
     /**
      * Callback of {@link DiscoverComponents}. Add to a delayed batch processor.
      */
@@ -280,7 +325,7 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
                 // Add channel and group types to the types registry
                 discovered.addChannelTypes(channelTypeProvider);
                 // Add component to the component map
-                haComponents.put(discovered.uid().getId(), discovered);
+                putComponent(discovered);
                 // Start component / Subscribe to channel topics
                 discovered.start(connection, scheduler, 0).exceptionally(e -> {
                     logger.warn("Failed to start component {}", discovered.uid(), e);
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.mqtt.generic.AvailabilityTracker;
+import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
+import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
+import org.openhab.core.thing.ThingUID;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Tests which configurations {@link DiscoverComponents} parses and reports. The parse tasks are collected and run by
+ * the tests, so their order can be controlled.
+ *
+ * @author agent - Initial contribution
+ */
+public class DiscoverComponentsTests {
+    private static final String TOPIC = "homeassistant/switch/node/name/config";
+    private static final HaID HA_ID = new HaID(TOPIC);
+    private static final String CONFIG_A = "{\"name\":\"A\",\"state_topic\":\"a/state\",\"command_topic\":\"a/set\"}";
+    private static final String CONFIG_B = "{\"name\":\"B\",\"state_topic\":\"b/state\",\"command_topic\":\"b/set\"}";
+    private static final String CONFIG_C = "{\"name\":\"C\",\"state_topic\":\"c/state\",\"command_topic\":\"c/set\"}";
+
+    private final List<Runnable> parseTasks = new ArrayList<>();
+    private final List<AbstractComponent<?>> discovered = new ArrayList<>();
+    private Integer knownConfigHash;
+    private DiscoverComponents discover;
+
+    @BeforeEach
+    public void setUp() {
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        doAnswer(invocation -> parseTasks.add(invocation.getArgument(0))).when(scheduler).execute(any());
+        Gson gson = new GsonBuilder().registerTypeAdapterFactory(new ChannelConfigurationTypeAdapterFactory())
+                .create();
+
+        discover = new DiscoverComponents(new ThingUID("mqtt:homeassistant:broker:thing"), scheduler,
+                mock(ChannelStateUpdateListener.class), mock(AvailabilityTracker.class), gson,
+                mock(TransformationServiceProvider.class));
+        discover.discoveredListener = new DiscoverComponents.ComponentDiscovered() {
+            @Override
+            public void componentDiscovered(HaID homeAssistantTopicID, AbstractComponent<?> component) {
+                discovered.add(component);
+            }
+
+            @Override
+            public boolean isKnownComponent(HaID homeAssistantTopicID, int configHash) {
+                return HA_ID.equals(homeAssistantTopicID) && knownConfigHash != null
+                        && knownConfigHash == configHash;
+            }
+        };
+    }
+
+    @Test
+    public void newConfigIsParsed() {
+        receive(CONFIG_A);
+        runParseTasks();
+
+        assertThat(discovered.size(), is(1));
+        assertThat(discovered.get(0).getConfigHash(), is(CONFIG_A.hashCode()));
+    }
+
+    @Test
+    public void unchangedConfigIsSkipped() {
+        knownConfigHash = CONFIG_A.hashCode();
+
+        receive(CONFIG_A);
+
+        assertThat(parseTasks.size(), is(0));
+        assertThat(discovered.size(), is(0));
+    }
+
+    @Test
+    public void changedConfigIsParsedAgain() {
+        knownConfigHash = CONFIG_A.hashCode();
+
+        receive(CONFIG_B);
+        runParseTasks();
+
+        assertThat(discovered.size(), is(1));
+        assertThat(discovered.get(0).getConfigHash(), is(CONFIG_B.hashCode()));
+    }
+
+    @Test
+    public void onlyLatestConfigIsReported() {
+        receive(CONFIG_B);
+        receive(CONFIG_C);
+        runParseTasks();
+
+        assertThat(discovered.size(), is(1));
+        assertThat(discovered.get(0).getConfigHash(), is(CONFIG_C.hashCode()));
+    }
+
+    @Test
+    public void pendingConfigIsDiscardedWhenKnownConfigReturns() {
+        knownConfigHash = CONFIG_A.hashCode();
+
+        receive(CONFIG_B);
+        receive(CONFIG_A);
+        runParseTasks();
+
+        assertThat(discovered.size(), is(0));
+    }
+
+    private void receive(String config) {
+        discover.processMessage(TOPIC, config.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void runParseTasks() {
+        List<Runnable> tasks = new ArrayList<>(parseTasks);
+        parseTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,259 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.shelly.internal.coap;
+
+import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.COIOT_TAG_GENERIC;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotSensor;
+
+/**
+ * The {@link ShellyCoIoTStatusParser} reads the sensor list of a CoIoT status message (/cit/s) directly from the
+ * payload, e.g. {"G":[[0,112,0],[0,111,"open"]]}
+ *
+ * Some firmware releases send malformed JSON with missing or duplicate separators between the sensor entries, those
+ * are skipped, so the payload doesn't need to be fixed before it can be parsed.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ShellyCoIoTStatusParser {
+    private final String payload;
+    private int pos;
+
+    private ShellyCoIoTStatusParser(String payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * Parse the sensor list of a status message
+     *
+     * @param payload CoIoT status payload
+     * @return list of sensor values, empty if the payload contains no sensor list
+     * @throws IllegalArgumentException if the payload is malformed
+     */
+    public static List<CoIotSensor> parse(String payload) throws IllegalArgumentException {
+        return new ShellyCoIoTStatusParser(payload).parseStatus();
+    }
+
+    private List<CoIotSensor> parseStatus() {
+        List<CoIotSensor> sensors = new ArrayList<>();
+        expect('{');
+        while (skipSeparators() != '}') {
+            String name = readString();
+            skipWhitespace();
+            expect(':');
+            if (COIOT_TAG_GENERIC.equals(name)) {
+                readSensorList(sensors);
+            } else {
+                skipValue();
+            }
+        }
+        return sensors;
+    }
+
+    private void readSensorList(List<CoIotSensor> sensors) {
+        skipWhitespace();
+        expect('[');
+        while (skipSeparators() != ']') {
+            expect('[');
+            sensors.add(readSensor());
+        }
+        pos++;
+    }
+
+    /**
+     * Read one sensor entry like [0,112,1.5], the opening bracket has already been consumed
+     */
+    private CoIotSensor readSensor() {
+        CoIotSensor sensor = new CoIotSensor();
+        int index = 0;
+        while (skipSeparators() != ']') {
+            switch (index++) {
+                case 0: // channel, always 0
+                    skipValue();
+                    break;
+                case 1:
+                    sensor.id = Integer.toString(Integer.parseInt(readNumber()));
+                    break;
+                case 2:
+                    readSensorValue(sensor);
+                    break;
+                default:
+                    skipValue();
+            }
+        }
+        pos++;
+        if (index < 2) {
+            throw new IllegalArgumentException("Sensor entry without id at position " + pos);
+        }
+        return sensor;
+    }
+
+    private void readSensorValue(CoIotSensor sensor) {
+        char c = current();
+        if (c == '"') {
+            sensor.valueStr = readString();
+            sensor.value = -1;
+        } else if (c == '[') {
+            pos++;
+            sensor.valueArray = new ArrayList<>();
+            while (skipSeparators() != ']') {
+                if (current() == '"') {
+                    sensor.valueArray.add(readString());
+                } else {
+                    skipValue();
+                }
+            }
+            pos++;
+        } else if (c == '-' || Character.isDigit(c)) {
+            sensor.value = Double.parseDouble(readNumber());
+            sensor.valueStr = "";
+        } else {
+            skipValue();
+        }
+    }
+
+    private void skipValue() {
+        skipWhitespace();
+        char c = current();
+        if (c == '"') {
+            readString();
+        } else if (c == '[' || c == '{') {
+            char close = c == '[' ? ']' : '}';
+            pos++;
+            while (skipSeparators() != close) {
+                if (c == '{') {
+                    readString();
+                    skipWhitespace();
+                    expect(':');
+                }
+                skipValue();
+            }
+            pos++;
+        } else {
+            // number or literal
+            int start = pos;
+            while (pos < payload.length() && ",]} \t\r\n".indexOf(payload.charAt(pos)) < 0) {
+                pos++;
+            }
+            if (pos == start) {
+                throw new IllegalArgumentException("Unexpected '" + c + "' at position " + pos);
+            }
+        }
+    }
+
+    private String readNumber() {
+        skipWhitespace();
+        int start = pos;
+        while (pos < payload.length() && "+-.eE0123456789".indexOf(payload.charAt(pos)) >= 0) {
+            pos++;
+        }
+        if (pos == start) {
+            throw new IllegalArgumentException("Number expected at position " + pos);
+        }
+        return payload.substring(start, pos);
+    }
+
+    private String readString() {
+        skipWhitespace();
+        expect('"');
+        int start = pos;
+        @Nullable
+        StringBuilder sb = null;
+        while (true) {
+            char c = current();
+            pos++;
+            if (c == '"') {
+                return sb == null ? payload.substring(start, pos - 1) : sb.toString();
+            }
+            if (c == '\\') {
+                if (sb == null) {
+                    sb = new StringBuilder(payload.substring(start, pos - 1));
+                }
+                char escaped = current();
+                pos++;
+                switch (escaped) {
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        if (pos + 4 > payload.length()) {
+                            throw new IllegalArgumentException("Incomplete escape sequence at position " + pos);
+                        }
+                        sb.append((char) Integer.parseInt(payload.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default:
+                        sb.append(escaped);
+                }
+            } else if (sb != null) {
+                sb.append(c);
+            }
+        }
+    }
+
+    /**
+     * Skip whitespace and any number of commas, the malformed payloads lack or duplicate them
+     *
+     * @return the next character
+     */
+    private char skipSeparators() {
+        while (true) {
+            char c = current();
+            if (c == ',' || Character.isWhitespace(c)) {
+                pos++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < payload.length() && Character.isWhitespace(payload.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private void expect(char expected) {
+        skipWhitespace();
+        if (current() != expected) {
+            throw new IllegalArgumentException(
+                    "Expected '" + expected + "' but found '" + current() + "' at position " + pos);
+        }
+        pos++;
+    }
+
+    private char current() {
+        if (pos >= payload.length()) {
+            throw new IllegalArgumentException("Unexpected end of payload");
+        }
+        return payload.charAt(pos);
+    }
+}
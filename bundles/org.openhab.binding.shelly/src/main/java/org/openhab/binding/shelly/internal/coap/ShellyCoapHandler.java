@@ -36,9 +36,7 @@ import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotDescrBlk;
 import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotDescrSen;
 import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotDevDescrTypeAdapter;
 import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotDevDescription;
-import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotGenericSensorList;
 import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotSensor;
-import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotSensorTypeAdapter;
 import org.openhab.binding.shelly.internal.config.ShellyThingConfiguration;
 import org.openhab.binding.shelly.internal.handler.ShellyBaseHandler;
 import org.openhab.core.types.State;
@@ -88,7 +86,6 @@ public class ShellyCoapHandler implements ShellyCoapListener {
         this.coiot = new ShellyCoIoTVersion1(thingName, thingHandler, blkMap, sensorMap); // Default
 
         gsonBuilder.registerTypeAdapter(CoIotDevDescription.class, new CoIotDevDescrTypeAdapter());
-        gsonBuilder.registerTypeAdapter(CoIotGenericSensorList.class, new CoIotSensorTypeAdapter());
         gson = gsonBuilder.create();
         profile = thingHandler.getProfile();
     }
@@ -110,7 +107,7 @@ public class ShellyCoapHandler implements ShellyCoapListener {
             }
 
             logger.debug("{}: Starting CoAP Listener", thingName);
-            coapServer.start(config.localIp, this);
+            coapServer.start(config.localIp, config.deviceIp, this);
             statusClient = new CoapClient(completeUrl(config.deviceIp, COLOIT_URI_DEVSTATUS))
                     .setTimeout((long) SHELLY_API_TIMEOUT_MS).useNONs().setEndpoint(coapServer.getEndpoint());
             discover();
@@ -134,10 +131,6 @@ public class ShellyCoapHandler implements ShellyCoapListener {
         if (response == null) {
             return; // other device instance
         }
-        String ip = response.getSourceContext().getPeerAddress().toString();
-        if (!ip.contains(config.deviceIp)) {
-            return;
-        }
 
         String payload = "";
         String devId = "";
@@ -214,11 +207,9 @@ public class ShellyCoapHandler implements ShellyCoapListener {
                     return;
                 }
 
-                // fixed malformed JSON :-(
-                payload = fixJSON(payload);
-
                 if (uri.equalsIgnoreCase(COLOIT_URI_DEVDESC) || (uri.isEmpty() && payload.contains(COIOT_TAG_BLK))) {
-                    handleDeviceDescription(devId, payload);
+                    // fixed malformed JSON :-(
+                    handleDeviceDescription(devId, fixJSON(payload));
                 } else if (uri.equalsIgnoreCase(COLOIT_URI_DEVSTATUS)
                         || (uri.isEmpty() && payload.contains(COIOT_TAG_GENERIC))) {
                     handleStatusUpdate(devId, payload, serial);
@@ -366,14 +357,8 @@ public class ShellyCoapHandler implements ShellyCoapListener {
             handleDeviceDescription(devId, savedDescr);
         }
 
-        // Parse Json,
-        CoIotGenericSensorList list = gson.fromJson(fixJSON(payload), CoIotGenericSensorList.class);
-        if (list.generic == null) {
-            logger.debug("{}: Sensor list has invalid format! Payload: {}", devId, payload);
-            return;
-        }
-
-        List<CoIotSensor> sensorUpdates = list.generic;
+        // Parse sensor list, the parser skips the separators the malformed payloads are lacking
+        List<CoIotSensor> sensorUpdates = ShellyCoIoTStatusParser.parse(payload);
         Map<String, State> updates = new TreeMap<String, State>();
         logger.debug("{}: {} CoAP sensor updates received", thingName, sensorUpdates.size());
         int failed = 0;
@@ -117,15 +117,6 @@ public class ShellyCoapJSonDTO {
         public List<Object> valueArray;
     }
 
-    public static class CoIotGenericSensorList {
-        @SerializedName("G")
-        public List<CoIotSensor> generic;
-
-        public CoIotGenericSensorList() {
-            generic = new ArrayList<>();
-        }
-    }
-
     protected static class CoIotDevDescrTypeAdapter extends TypeAdapter<CoIotDevDescription> {
         @Override
         public CoIotDevDescription read(final JsonReader in) throws IOException {
@@ -263,69 +254,4 @@ public class ShellyCoapJSonDTO {
             out.endObject();
         }
     }
-
-    protected static class CoIotSensorTypeAdapter extends TypeAdapter<CoIotGenericSensorList> {
-        @Override
-        public CoIotGenericSensorList read(final JsonReader in) throws IOException {
-            CoIotGenericSensorList list = new CoIotGenericSensorList();
-
-            in.beginObject();
-            String generic = in.nextName();
-            if (generic.equals(COIOT_TAG_GENERIC)) {
-                in.beginArray();
-                while (in.hasNext()) {
-                    CoIotSensor sensor = new CoIotSensor();
-                    in.beginArray();
-                    in.nextInt(); // alway 0
-                    sensor.id = Integer.toString(in.nextInt());
-                    JsonToken token = in.peek();
-                    if (token == JsonToken.STRING) {
-                        // handle as string
-                        sensor.valueStr = in.nextString();
-                        sensor.value = -1;
-                    } else if (token == JsonToken.NUMBER) {
-                        // handle as double
-                        sensor.value = in.nextDouble();
-                        sensor.valueStr = "";
-                    } else if (token == JsonToken.BEGIN_ARRAY) {
-                        sensor.valueArray = new ArrayList<>();
-                        in.beginArray();
-                        while (in.hasNext()) {
-                            if (in.peek() == JsonToken.STRING) {
-                                sensor.valueArray.add(in.nextString());
-                            } else {
-                                // skip
-                                in.nextNull();
-                            }
-                        }
-                        in.endArray();
-                    }
-                    in.endArray();
-                    list.generic.add(sensor);
-                }
-                in.endArray();
-            }
-            in.endObject();
-
-            return list;
-        }
-
-        @Override
-        public void write(final JsonWriter out, final CoIotGenericSensorList o) throws IOException {
-            CoIotGenericSensorList sensors = o;
-            out.beginObject();
-            if (sensors != null) {
-                out.name(COIOT_TAG_GENERIC).beginArray();
-                for (int i = 0; i < sensors.generic.size(); i++) {
-                    out.beginArray();
-                    out.value(0);
-                    out.value(sensors.generic.get(i).id);
-                    out.value(sensors.generic.get(i).value);
-                    out.endArray();
-                }
-                out.endArray();
-            }
-            out.endObject();
-        }
-    }
 }
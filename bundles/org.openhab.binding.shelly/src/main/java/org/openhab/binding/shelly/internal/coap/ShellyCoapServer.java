@@ -17,7 +17,10 @@ import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.COIOT_P
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.eclipse.californium.core.CoapResource;
 import org.eclipse.californium.core.CoapServer;
@@ -39,6 +42,9 @@ import org.slf4j.LoggerFactory;
 /**
  * The {@link ShellyCoapServer} implements the UDP listener and status event processor (for /cit/s messages)
  *
+ * Each listener is registered for the IP address of its device, a received message is only forwarded to the listeners
+ * of the sending device.
+ *
  * @author Markus Michels - Initial contribution
  */
 @NonNullByDefault
@@ -50,6 +56,7 @@ public class ShellyCoapServer {
     private @Nullable UdpMulticastConnector statusConnector;
     private final CoapServer server = new CoapServer(NetworkConfig.getStandard(), COIOT_PORT);;
     private final Set<ShellyCoapListener> coapListeners = new ConcurrentHashSet<>();
+    private final Map<String, Set<ShellyCoapListener>> listenersByAddress = new ConcurrentHashMap<>();
 
     protected class ShellyStatusListener extends CoapResource {
         private ShellyCoapServer listener;
@@ -76,7 +83,8 @@ public class ShellyCoapServer {
         }
     }
 
-    public synchronized void start(String localIp, ShellyCoapListener listener) throws UnknownHostException {
+    public synchronized void start(String localIp, String deviceIp, ShellyCoapListener listener)
+            throws UnknownHostException {
         if (!started) {
             logger.debug("Initializing CoIoT listener (local IP={}:{})", localIp, COIOT_PORT);
             NetworkConfig nc = NetworkConfig.getStandard();
@@ -97,10 +105,24 @@ public class ShellyCoapServer {
         if (!coapListeners.contains(listener)) {
             coapListeners.add(listener);
         }
+        String deviceAddress = InetAddress.getByName(deviceIp).getHostAddress();
+        Set<ShellyCoapListener> listeners = listenersByAddress.computeIfAbsent(deviceAddress,
+                address -> new CopyOnWriteArraySet<>());
+        if (listeners.add(listener) && listeners.size() > 1) {
+            logger.debug("CoIoT messages from {} are forwarded to {} listeners", deviceAddress, listeners.size());
+        }
     }
 
     protected void processResponse(Response response) {
-        coapListeners.forEach(listener -> listener.processResponse(response));
+        InetSocketAddress peer = response.getSourceContext().getPeerAddress();
+        Set<ShellyCoapListener> listeners = listenersByAddress.get(peer.getAddress().getHostAddress());
+        if (listeners != null && !listeners.isEmpty()) {
+            for (ShellyCoapListener listener : listeners) {
+                listener.processResponse(response);
+            }
+        } else {
+            logger.trace("CoIoT message from unknown device {} skipped", peer);
+        }
     }
 
     public static Response createResponse(Request request) {
@@ -121,8 +143,11 @@ public class ShellyCoapServer {
     /**
      * Cancel pending requests and shutdown the client
      */
-    public void stop(ShellyCoapListener listener) {
+    public synchronized void stop(ShellyCoapListener listener) {
         coapListeners.remove(listener);
+        // other listeners of the same device keep receiving its messages
+        listenersByAddress.values().forEach(listeners -> listeners.remove(listener));
+        listenersByAddress.values().removeIf(Set::isEmpty);
         if (coapListeners.isEmpty()) {
             stop();
         }
@@ -134,6 +159,7 @@ public class ShellyCoapServer {
             server.stop();
             statusEndpoint.stop();
             coapListeners.clear();
+            listenersByAddress.clear();
             started = false;
             logger.debug("CoAP Listener stopped");
         }
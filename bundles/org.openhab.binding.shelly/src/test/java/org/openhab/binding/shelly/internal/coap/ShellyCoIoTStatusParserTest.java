@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.shelly.internal.coap;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.COIOT_TAG_GENERIC;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.CoIotSensor;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Tests the {@link ShellyCoIoTStatusParser} against the results of the Gson type adapter it replaced, which parsed the
+ * payload after it had been fixed with {@link ShellyCoapHandler}'s fixJSON().
+ *
+ * @author agent - Initial contribution
+ */
+public class ShellyCoIoTStatusParserTest {
+    private static final String STATUS = "{\"G\":[[0,9103,11],[0,1101,1],[0,4104,-12.5],[0,4105,1.25E2],"
+            + "[0,3108,\"open\"],[0,5101,[\"S\",null,\"L\"]]]}";
+
+    @Test
+    public void wellFormedPayloadIsParsed() throws IOException {
+        List<CoIotSensor> sensors = assertParsedAsBefore(STATUS);
+
+        assertThat(sensors.size(), is(6));
+        assertThat(sensors.get(0).id, is("9103"));
+        assertThat(sensors.get(0).value, is(11.0));
+        assertThat(sensors.get(2).value, is(-12.5));
+        assertThat(sensors.get(3).value, is(125.0));
+    }
+
+    @Test
+    public void missingSeparatorsAreSkipped() throws IOException {
+        String payload = STATUS.replace("],[", "][");
+        List<CoIotSensor> sensors = assertParsedAsBefore(payload);
+
+        assertThat(sensors.size(), is(6));
+        assertSameSensors(sensors, ShellyCoIoTStatusParser.parse(STATUS));
+    }
+
+    @Test
+    public void duplicateSeparatorsAreSkipped() throws IOException {
+        String payload = STATUS.replace("],[", "],,[");
+        List<CoIotSensor> sensors = assertParsedAsBefore(payload);
+
+        assertThat(sensors.size(), is(6));
+        assertSameSensors(sensors, ShellyCoIoTStatusParser.parse(STATUS));
+    }
+
+    @Test
+    public void stringValueIsParsed() throws IOException {
+        CoIotSensor sensor = assertParsedAsBefore("{\"G\":[[0,3108,\"open\"]]}").get(0);
+
+        assertThat(sensor.valueStr, is("open"));
+        assertThat(sensor.value, is(-1.0));
+        assertThat(sensor.valueArray, is(nullValue()));
+    }
+
+    @Test
+    public void arrayValueIsParsed() throws IOException {
+        CoIotSensor sensor = assertParsedAsBefore("{\"G\":[[0,5101,[\"S\",null,\"L\"]]]}").get(0);
+
+        assertThat(sensor.valueArray, is(List.<Object> of("S", "L")));
+        assertThat(sensor.valueStr, is(nullValue()));
+    }
+
+    @Test
+    public void escapedStringIsParsed() throws IOException {
+        CoIotSensor sensor = assertParsedAsBefore("{\"G\":[[0,3108,\"say \\\"hi\\\"\\n\\u00e9\\\\\"]]}").get(0);
+
+        assertThat(sensor.valueStr, is("say \"hi\"\n\u00e9\\"));
+    }
+
+    @Test
+    public void whitespaceIsSkipped() throws IOException {
+        assertParsedAsBefore("{ \"G\" : [ [ 0 , 1101 , 1 ] , [ 0 , 3108 , \"open\" ] ] }");
+    }
+
+    @Test
+    public void truncatedPayloadIsRejected() {
+        for (int length : new int[] { 1, 6, 12, 20, STATUS.length() - 1 }) {
+            String payload = STATUS.substring(0, length);
+            assertThrows(IOException.class, () -> parseWithTypeAdapter(payload));
+            assertThrows(IllegalArgumentException.class, () -> ShellyCoIoTStatusParser.parse(payload));
+        }
+    }
+
+    @Test
+    public void entryWithoutIdIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ShellyCoIoTStatusParser.parse("{\"G\":[[0]]}"));
+    }
+
+    private List<CoIotSensor> assertParsedAsBefore(String payload) throws IOException {
+        List<CoIotSensor> sensors = ShellyCoIoTStatusParser.parse(payload);
+        assertSameSensors(sensors, parseWithTypeAdapter(fixJSON(payload)));
+        return sensors;
+    }
+
+    private void assertSameSensors(List<CoIotSensor> actual, List<CoIotSensor> expected) {
+        assertThat(actual.size(), is(expected.size()));
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(actual.get(i).id, is(expected.get(i).id));
+            assertThat(actual.get(i).value, is(expected.get(i).value));
+            assertThat(actual.get(i).valueStr, is(expected.get(i).valueStr));
+            assertThat(actual.get(i).valueArray, is(expected.get(i).valueArray));
+        }
+    }
+
+    /**
+     * Same as ShellyCoapHandler.fixJSON(), which was applied to the status payload before it was parsed with Gson
+     */
+    private static String fixJSON(String payload) {
+        String json = payload;
+        json = json.replace("}{", "},{");
+        json = json.replace("][", "],[");
+        json = json.replace("],,[", "],[");
+        return json;
+    }
+
+    /**
+     * The former CoIotSensorTypeAdapter, reading the payload the same way Gson did (lenient)
+     */
+    private static List<CoIotSensor> parseWithTypeAdapter(String payload) throws IOException {
+        List<CoIotSensor> list = new ArrayList<>();
+        JsonReader in = new JsonReader(new StringReader(payload));
+        in.setLenient(true);
+
+        in.beginObject();
+        String generic = in.nextName();
+        if (generic.equals(COIOT_TAG_GENERIC)) {
+            in.beginArray();
+            while (in.hasNext()) {
+                CoIotSensor sensor = new CoIotSensor();
+                in.beginArray();
+                in.nextInt(); // alway 0
+                sensor.id = Integer.toString(in.nextInt());
+                JsonToken token = in.peek();
+                if (token == JsonToken.STRING) {
+                    sensor.valueStr = in.nextString();
+                    sensor.value = -1;
+                } else if (token == JsonToken.NUMBER) {
+                    sensor.value = in.nextDouble();
+                    sensor.valueStr = "";
+                } else if (token == JsonToken.BEGIN_ARRAY) {
+                    sensor.valueArray = new ArrayList<>();
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        if (in.peek() == JsonToken.STRING) {
+                            sensor.valueArray.add(in.nextString());
+                        } else {
+                            in.nextNull();
+                        }
+                    }
+                    in.endArray();
+                }
+                in.endArray();
+                list.add(sensor);
+            }
+            in.endArray();
+        }
+        in.endObject();
+        return list;
+    }
+}
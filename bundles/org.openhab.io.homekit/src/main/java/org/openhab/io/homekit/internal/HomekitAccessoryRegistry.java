@@ -13,25 +13,44 @@
 package org.openhab.io.homekit.internal;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+
+import javax.json.JsonObject;
+import javax.json.JsonValue;
 
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.homekit.internal.accessories.HomekitAccessoryFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.github.hapjava.accessories.HomekitAccessory;
+import io.github.hapjava.characteristics.Characteristic;
 import io.github.hapjava.server.impl.HomekitRoot;
+import io.github.hapjava.services.Service;
 
 /**
  * Stores the created HomekitAccessories. GroupedAccessories are also held here
  * in a pre-created pending state until all required characteristics are found.
  *
+ * For every accessory a signature of the structure seen by HomeKit controllers (services, characteristics and their
+ * metadata, without values) and a signature of the item configuration it has been created from are kept. Accessories
+ * are only replaced if one of them has changed, but only the structure is part of the accessory database hash, so the
+ * configuration revision is only changed if the accessory database has changed.
+ *
  * @author Andy Lintner - Initial contribution
  */
 class HomekitAccessoryRegistry {
     private @Nullable HomekitRoot bridge;
     private final Map<String, HomekitAccessory> createdAccessories = new HashMap<>();
+    private final Map<String, String> signatures = new HashMap<>();
+    private final Map<String, String> configurationSignatures = new HashMap<>();
     private int configurationRevision = 1;
     private final Logger logger = LoggerFactory.getLogger(HomekitAccessoryRegistry.class);
 
@@ -59,6 +78,8 @@ class HomekitAccessoryRegistry {
     public synchronized void remove(String itemName) {
         if (createdAccessories.containsKey(itemName)) {
             HomekitAccessory accessory = createdAccessories.remove(itemName);
+            signatures.remove(itemName);
+            configurationSignatures.remove(itemName);
             logger.trace("Removed accessory {} for taggedItem {}", accessory, itemName);
             final HomekitRoot bridge = this.bridge;
             if (bridge != null) {
@@ -93,12 +114,102 @@ class HomekitAccessoryRegistry {
 
     public synchronized void addRootAccessory(String itemName, HomekitAccessory accessory) {
         createdAccessories.put(itemName, accessory);
+        signatures.put(itemName, getSignature(accessory));
+        configurationSignatures.put(itemName, HomekitAccessoryFactory.getConfigurationSignature(accessory));
+        final HomekitRoot bridge = this.bridge;
+        if (bridge != null) {
+            bridge.addAccessory(accessory);
+        }
+    }
+
+    /**
+     * Replaces the accessory of an item. If the accessory is structurally unchanged and may keep its items, the
+     * existing accessory is kept and the bridge is not touched.
+     *
+     * @param itemName name of the root item
+     * @param accessory new accessory or null if the item is not an accessory anymore
+     * @param itemsReplaced true if item instances the existing accessory refers to have been replaced
+     */
+    public synchronized void replaceRootAccessory(String itemName, @Nullable HomekitAccessory accessory,
+            boolean itemsReplaced) {
+        if (accessory == null) {
+            remove(itemName);
+            return;
+        }
+        String signature = getSignature(accessory);
+        String configurationSignature = HomekitAccessoryFactory.getConfigurationSignature(accessory);
+        if (!itemsReplaced && createdAccessories.containsKey(itemName) && signature.equals(signatures.get(itemName))
+                && configurationSignature.equals(configurationSignatures.get(itemName))) {
+            logger.trace("Accessory for taggedItem {} is unchanged", itemName);
+            return;
+        }
+        remove(itemName);
+        createdAccessories.put(itemName, accessory);
+        signatures.put(itemName, signature);
+        configurationSignatures.put(itemName, configurationSignature);
         final HomekitRoot bridge = this.bridge;
         if (bridge != null) {
             bridge.addAccessory(accessory);
         }
     }
 
+    /**
+     * @return a hash over the structure signatures of all accessories, which changes whenever the accessory database
+     *         changes
+     */
+    public synchronized String getAccessoryDatabaseHash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Entry<String, String> entry : new TreeMap<>(signatures).entrySet()) {
+                digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            StringBuilder hash = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String getSignature(HomekitAccessory accessory) {
+        StringBuilder signature = new StringBuilder();
+        signature.append(accessory.getClass().getName()).append('/').append(accessory.getId()).append('/')
+                .append(accessory.getName().getNow(""));
+        for (Service service : accessory.getServices()) {
+            signature.append("\n").append(service.getType());
+            for (Characteristic characteristic : service.getCharacteristics()) {
+                signature.append("\n ").append(getSignature(characteristic));
+            }
+        }
+        return signature.toString();
+    }
+
+    private static String getSignature(Characteristic characteristic) {
+        JsonObject json;
+        try {
+            json = characteristic.toJson(0).getNow(null);
+        } catch (CompletionException e) {
+            json = null;
+        }
+        if (json == null) {
+            return characteristic.getClass().getName();
+        }
+        StringBuilder signature = new StringBuilder();
+        for (Entry<String, JsonValue> entry : json.entrySet()) {
+            // the value changes with the item state, but is not part of the accessory database
+            if (!"value".equals(entry.getKey())) {
+                signature.append(entry.getKey()).append('=').append(entry.getValue()).append(';');
+            }
+        }
+        return signature.toString();
+    }
+
     public Map<String, HomekitAccessory> getAllAccessories() {
         return this.createdAccessories;
     }
@@ -14,6 +14,7 @@ package org.openhab.io.homekit.internal;
 
 import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -53,6 +54,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private final Logger logger = LoggerFactory.getLogger(HomekitChangeListener.class);
     private final static String REVISION_CONFIG = "revision";
     private final static String ACCESSORY_COUNT = "accessory_count";
+    private final static String ACCESSORY_DATABASE_HASH = "accessory_database_hash";
     private final ItemRegistry itemRegistry;
     private final HomekitAccessoryRegistry accessoryRegistry = new HomekitAccessoryRegistry();
     private final MetadataRegistry metadataRegistry;
@@ -63,6 +65,8 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private int lastAccessoryCount;
 
     private final Set<String> pendingUpdates = new HashSet<>();
+    /** names of the pending updates whose accessories may refer to replaced item instances */
+    private final Set<String> pendingReplacements = new HashSet<>();
 
     private final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
@@ -89,7 +93,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
             @Override
             public void added(final Metadata metadata) {
                 try {
-                    markDirty(itemRegistry.getItem(metadata.getUID().getItemName()));
+                    markDirty(itemRegistry.getItem(metadata.getUID().getItemName()), false);
                 } catch (ItemNotFoundException e) {
                     logger.debug("Could not found item for metadata {}", metadata);
                 }
@@ -98,7 +102,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
             @Override
             public void removed(final Metadata metadata) {
                 try {
-                    markDirty(itemRegistry.getItem(metadata.getUID().getItemName()));
+                    markDirty(itemRegistry.getItem(metadata.getUID().getItemName()), false);
                 } catch (ItemNotFoundException e) {
                     logger.debug("Could not found item for metadata {}", metadata);
                 }
@@ -107,9 +111,9 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
             @Override
             public void updated(final Metadata metadata, final Metadata e1) {
                 try {
-                    markDirty(itemRegistry.getItem(metadata.getUID().getItemName()));
+                    markDirty(itemRegistry.getItem(metadata.getUID().getItemName()), false);
                     if (!metadata.getUID().getItemName().equals(e1.getUID().getItemName())) {
-                        markDirty(itemRegistry.getItem(e1.getUID().getItemName()));
+                        markDirty(itemRegistry.getItem(e1.getUID().getItemName()), false);
                     }
                 } catch (ItemNotFoundException e) {
                     logger.debug("Could not found item for metadata {}", metadata);
@@ -118,7 +122,8 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         };
         itemRegistry.addRegistryChangeListener(this);
         metadataRegistry.addRegistryChangeListener(metadataChangeListener);
-        itemRegistry.getItems().forEach(this::createRootAccessories);
+        itemRegistry.getItems().forEach(item -> createRootAccessories(item)
+                .forEach(accessory -> accessoryRegistry.addRootAccessory(item.getName(), accessory)));
         initialiseRevision();
         logger.info("Created {} HomeKit items.", accessoryRegistry.getAllAccessories().size());
     }
@@ -150,7 +155,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     @Override
     public synchronized void added(Item item) {
-        markDirty(item);
+        markDirty(item, true);
     }
 
     @Override
@@ -163,23 +168,30 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
      * accessory update can be applied.
      *
      * @param item The item that has been changed or removed.
+     * @param replaced True if the item instance has been replaced, false if only its metadata has changed.
      */
-    private synchronized void markDirty(Item item) {
+    private synchronized void markDirty(Item item, boolean replaced) {
         logger.trace("Mark dirty item {}", item.getName());
         pendingUpdates.add(item.getName());
+        if (replaced) {
+            pendingReplacements.add(item.getName());
+        }
         /*
          * If findMyAccessoryGroups fails because the accessory group has already been deleted, then we can count on a
          * later update telling us that the accessory group was removed.
          */
         for (Item accessoryGroup : HomekitAccessoryFactory.getAccessoryGroups(item, itemRegistry, metadataRegistry)) {
             pendingUpdates.add(accessoryGroup.getName());
+            if (replaced) {
+                pendingReplacements.add(accessoryGroup.getName());
+            }
         }
         applyUpdatesDebouncer.call();
     }
 
     @Override
     public synchronized void removed(Item item) {
-        markDirty(item);
+        markDirty(item, true);
     }
 
     private Optional<Item> getItemOptional(String name) {
@@ -197,25 +209,58 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
                 lastAccessoryCount);
         storage.put(REVISION_CONFIG, "" + newRevision);
         storage.put(ACCESSORY_COUNT, "" + lastAccessoryCount);
+        storage.put(ACCESSORY_DATABASE_HASH, accessoryRegistry.getAccessoryDatabaseHash());
     }
 
-    private synchronized void applyUpdates() {
-        logger.trace("apply updates");
-        for (final String name : pendingUpdates) {
-            accessoryRegistry.remove(name);
-            logger.trace(" add items {}", name);
-            getItemOptional(name).ifPresent(this::createRootAccessories);
-        }
-        if (!pendingUpdates.isEmpty()) {
+    /**
+     * Makes a new configuration revision if the accessory database differs from the one of the last revision, which
+     * is also compared across restarts.
+     */
+    public void updateConfigurationRevision() {
+        final String hash = accessoryRegistry.getAccessoryDatabaseHash();
+        if (hash.equals(storage.get(ACCESSORY_DATABASE_HASH))) {
+            logger.trace("accessory database unchanged, keep configuration revision {}",
+                    accessoryRegistry.getConfigurationRevision());
+        } else {
             makeNewConfigurationRevision();
+        }
+    }
+
+    private void applyUpdates() {
+        final Set<String> updates;
+        final Set<String> replacements;
+        // take the pending updates, so that item changes are not blocked while the accessories are created
+        synchronized (this) {
+            updates = new HashSet<>(pendingUpdates);
+            replacements = new HashSet<>(pendingReplacements);
             pendingUpdates.clear();
+            pendingReplacements.clear();
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+        logger.trace("apply updates");
+        synchronized (accessoryRegistry) {
+            for (final String name : updates) {
+                logger.trace(" update items {}", name);
+                final List<HomekitAccessory> accessories = getItemOptional(name).map(this::createRootAccessories)
+                        .orElse(List.of());
+                if (accessories.size() <= 1) {
+                    accessoryRegistry.replaceRootAccessory(name, accessories.isEmpty() ? null : accessories.get(0),
+                            replacements.contains(name));
+                } else {
+                    accessoryRegistry.remove(name);
+                    accessories.forEach(accessory -> accessoryRegistry.addRootAccessory(name, accessory));
+                }
+            }
+            updateConfigurationRevision();
         }
     }
 
     @Override
     public void updated(Item oldElement, Item element) {
-        markDirty(oldElement);
-        markDirty(element);
+        markDirty(oldElement, true);
+        markDirty(element, true);
     }
 
     public int getLastAccessoryCount() {
@@ -280,26 +325,30 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
      * Switch light "Light" (gLight) {homekit="Lighting.OnState"}
      *
      * @param item openHAB item
+     * @return the created accessories
      */
-    private void createRootAccessories(Item item) {
+    private List<HomekitAccessory> createRootAccessories(Item item) {
         final List<Entry<HomekitAccessoryType, HomekitCharacteristicType>> accessoryTypes = HomekitAccessoryFactory
                 .getAccessoryTypes(item, metadataRegistry);
         final List<GroupItem> groups = HomekitAccessoryFactory.getAccessoryGroups(item, itemRegistry, metadataRegistry);
+        final List<HomekitAccessory> accessories = new ArrayList<>();
         if (!accessoryTypes.isEmpty()
                 && (groups.isEmpty() || groups.stream().noneMatch(g -> g.getBaseItem() == null))) {
             logger.trace("Item {} is a HomeKit accessory of types {}", item.getName(), accessoryTypes);
             final HomekitOHItemProxy itemProxy = new HomekitOHItemProxy(item);
             accessoryTypes.forEach(rootAccessory -> createRootAccessory(new HomekitTaggedItem(itemProxy,
-                    rootAccessory.getKey(), HomekitAccessoryFactory.getItemConfiguration(item, metadataRegistry))));
+                    rootAccessory.getKey(), HomekitAccessoryFactory.getItemConfiguration(item, metadataRegistry)))
+                            .ifPresent(accessories::add));
         }
+        return accessories;
     }
 
-    private void createRootAccessory(HomekitTaggedItem taggedItem) {
+    private Optional<HomekitAccessory> createRootAccessory(HomekitTaggedItem taggedItem) {
         try {
-            accessoryRegistry.addRootAccessory(taggedItem.getName(),
-                    HomekitAccessoryFactory.create(taggedItem, metadataRegistry, updater, settings));
+            return Optional.of(HomekitAccessoryFactory.create(taggedItem, metadataRegistry, updater, settings));
         } catch (HomekitException e) {
             logger.warn("Could not add device {}: {}", taggedItem.getItem().getUID(), e.getMessage());
+            return Optional.empty();
         }
     }
 }
@@ -141,6 +141,7 @@ public class HomekitImpl implements Homekit {
                     bridge.start();
                 }, settings.startDelay, TimeUnit.SECONDS);
             } else { // start bridge immediately.
+                changeListener.updateConfigurationRevision();
                 bridge.start();
             }
         } else {
@@ -113,6 +113,10 @@ abstract class AbstractHomekitAccessoryImpl implements HomekitAccessory {
         return accessory;
     }
 
+    List<HomekitTaggedItem> getCharacteristics() {
+        return characteristics;
+    }
+
     public Collection<Service> getServices() {
         return this.services;
     }
@@ -208,6 +208,35 @@ public class HomekitAccessoryFactory {
         return metadata != null ? metadata.getConfiguration() : null;
     }
 
+    /**
+     * return the HomeKit configuration an accessory has been created from, i.e. the tags and the metadata
+     * configuration of its root item and of its characteristic items. Configuration like "inverted" changes the
+     * behaviour of the accessory without changing the services seen by HomeKit.
+     *
+     * @param accessory HomeKit accessory
+     * @return configuration signature, empty if the accessory has not been created by this factory
+     */
+    public static String getConfigurationSignature(HomekitAccessory accessory) {
+        if (!(accessory instanceof AbstractHomekitAccessoryImpl)) {
+            return "";
+        }
+        final AbstractHomekitAccessoryImpl accessoryImpl = (AbstractHomekitAccessoryImpl) accessory;
+        final StringBuilder signature = new StringBuilder();
+        appendConfigurationSignature(signature, accessoryImpl.getRootAccessory());
+        accessoryImpl.getCharacteristics().forEach(c -> appendConfigurationSignature(signature, c));
+        return signature.toString();
+    }
+
+    private static void appendConfigurationSignature(StringBuilder signature, HomekitTaggedItem taggedItem) {
+        signature.append(taggedItem.getName()).append('/').append(taggedItem.getAccessoryType().getTag()).append('/')
+                .append(taggedItem.getCharacteristicType().getTag());
+        final @Nullable Map<String, Object> configuration = taggedItem.getConfiguration();
+        if (configuration != null) {
+            signature.append('/').append(new TreeMap<>(configuration));
+        }
+        signature.append('\n');
+    }
+
     /**
      * return list of HomeKit relevant groups linked to an accessory
      * 
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.items.SwitchItem;
+import org.openhab.io.homekit.internal.accessories.HomekitSwitchImpl;
+
+import io.github.hapjava.accessories.HomekitAccessory;
+
+/**
+ * Tests when {@link HomekitAccessoryRegistry#replaceRootAccessory} keeps the existing accessory and when it replaces
+ * it.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class HomekitAccessoryRegistryTest {
+    private static final String ITEM_NAME = "Switch1";
+
+    private final HomekitAccessoryRegistry registry = new HomekitAccessoryRegistry();
+    private final HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater();
+    private final HomekitSettings settings = new HomekitSettings();
+    private final SwitchItem item = new SwitchItem(ITEM_NAME);
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        item.setLabel("Switch");
+        registry.addRootAccessory(ITEM_NAME, createSwitch(null));
+    }
+
+    @Test
+    public void unchangedAccessoryIsKept() throws Exception {
+        HomekitAccessory existing = registry.getAllAccessories().get(ITEM_NAME);
+        String hash = registry.getAccessoryDatabaseHash();
+
+        registry.replaceRootAccessory(ITEM_NAME, createSwitch(null), false);
+
+        assertThat(registry.getAllAccessories().get(ITEM_NAME), is(sameInstance(existing)));
+        assertThat(registry.getAccessoryDatabaseHash(), is(hash));
+    }
+
+    @Test
+    public void accessoryWithChangedConfigurationIsReplaced() throws Exception {
+        String hash = registry.getAccessoryDatabaseHash();
+        HomekitAccessory changed = createSwitch(Map.of(HomekitTaggedItem.INVERTED, "true"));
+
+        registry.replaceRootAccessory(ITEM_NAME, changed, false);
+
+        assertThat(registry.getAllAccessories().get(ITEM_NAME), is(sameInstance(changed)));
+        // inverting the item doesn't change the accessory database
+        assertThat(registry.getAccessoryDatabaseHash(), is(hash));
+    }
+
+    @Test
+    public void accessoryWithChangedStructureIsReplaced() throws Exception {
+        String hash = registry.getAccessoryDatabaseHash();
+        item.setLabel("Renamed Switch");
+        HomekitAccessory changed = createSwitch(null);
+
+        registry.replaceRootAccessory(ITEM_NAME, changed, false);
+
+        assertThat(registry.getAllAccessories().get(ITEM_NAME), is(sameInstance(changed)));
+        assertThat(registry.getAccessoryDatabaseHash(), is(not(hash)));
+    }
+
+    @Test
+    public void accessoryWithReplacedItemsIsReplaced() throws Exception {
+        String hash = registry.getAccessoryDatabaseHash();
+        HomekitAccessory replacement = createSwitch(null);
+
+        registry.replaceRootAccessory(ITEM_NAME, replacement, true);
+
+        assertThat(registry.getAllAccessories().get(ITEM_NAME), is(sameInstance(replacement)));
+        // the structure is unchanged, so HomeKit controllers don't need to reload the accessory database
+        assertThat(registry.getAccessoryDatabaseHash(), is(hash));
+    }
+
+    @Test
+    public void accessoryIsRemovedWithoutReplacement() {
+        String hash = registry.getAccessoryDatabaseHash();
+
+        registry.replaceRootAccessory(ITEM_NAME, null, false);
+
+        assertThat(registry.getAllAccessories().containsKey(ITEM_NAME), is(false));
+        assertThat(registry.getAccessoryDatabaseHash(), is(not(hash)));
+    }
+
+    private HomekitAccessory createSwitch(@Nullable Map<String, Object> configuration) throws Exception {
+        HomekitOHItemProxy proxyItem = new HomekitOHItemProxy(item);
+        HomekitTaggedItem accessory = new HomekitTaggedItem(proxyItem, HomekitAccessoryType.SWITCH, configuration);
+        HomekitTaggedItem onState = new HomekitTaggedItem(proxyItem, HomekitAccessoryType.SWITCH,
+                HomekitCharacteristicType.ON_STATE, configuration);
+        return new HomekitSwitchImpl(accessory, List.of(onState), updater, settings);
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal.rest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.items.GenericItem;
+import org.openhab.core.types.Command;
+import org.openhab.core.types.State;
+import org.openhab.io.hueemulation.internal.dto.HueLightEntry;
+import org.openhab.io.hueemulation.internal.dto.changerequest.HueStateChange;
+
+import com.google.gson.Gson;
+
+/**
+ * Caches the rendered JSON of the lights, which are polled every few seconds by some clients.
+ *
+ * The JSON of a light is derived from its item state and label and from the last hue state change. Those are
+ * remembered with the rendered JSON and a light is only serialized again if one of them has changed. The
+ * response for all lights is only assembled again if a light has been rendered again or lights have been added or
+ * removed.
+ *
+ * Only lights are cached. Groups, sensors and the full configuration ({@code /api/{username}}) are serialized on every
+ * request: the state of a group is derived from its member items and the full configuration contains all other
+ * resources, so neither has a small set of inputs that could be compared as cheaply as those of a light.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class LightsJsonCache {
+    /**
+     * The rendered JSON of all lights with an entity tag
+     */
+    static class Snapshot {
+        final byte[] json;
+        final String etag;
+        private final List<RenderedLight> lights;
+
+        Snapshot(byte[] json, List<RenderedLight> lights) {
+            this.json = json;
+            this.lights = lights;
+            CRC32 crc = new CRC32();
+            crc.update(json);
+            this.etag = Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(json.length);
+        }
+    }
+
+    private static class RenderedLight {
+        final String id;
+        final String json;
+        final HueLightEntry light;
+        final GenericItem item;
+        final State state;
+        final @Nullable String label;
+        final String name;
+        final @Nullable Command lastCommand;
+        final @Nullable HueStateChange lastHueChange;
+
+        RenderedLight(String id, String json, HueLightEntry light, GenericItem item, State state) {
+            this.id = id;
+            this.json = json;
+            this.light = light;
+            this.item = item;
+            this.state = state;
+            this.label = item.getLabel();
+            this.name = light.name;
+            this.lastCommand = light.lastCommand;
+            this.lastHueChange = light.lastHueChange;
+        }
+
+        boolean isUpToDate(String id, HueLightEntry light, State state) {
+            return this.id.equals(id) && this.light == light && item == light.item && this.state.equals(state)
+                    && Objects.equals(label, light.item.getLabel()) && name.equals(light.name)
+                    && Objects.equals(lastCommand, light.lastCommand) && lastHueChange == light.lastHueChange;
+        }
+    }
+
+    private final Map<String, RenderedLight> renderedLights = new HashMap<>();
+    private @Nullable Snapshot snapshot;
+    private int renderCount;
+
+    /**
+     * @return the JSON object of all lights by their hue ID, as rendered by {@link Gson#toJson(Object)}
+     */
+    synchronized Snapshot getAllLights(Gson gson, Map<String, HueLightEntry> lights) {
+        List<RenderedLight> current = new ArrayList<>(lights.size());
+        for (Map.Entry<String, HueLightEntry> entry : lights.entrySet()) {
+            current.add(render(gson, entry.getKey(), entry.getValue()));
+        }
+
+        Snapshot snapshot = this.snapshot;
+        if (snapshot != null && isSame(snapshot.lights, current)) {
+            return snapshot;
+        }
+
+        StringBuilder json = new StringBuilder("{");
+        for (RenderedLight light : current) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append(gson.toJson(light.id)).append(':').append(light.json);
+        }
+        json.append('}');
+
+        // forget removed lights
+        if (renderedLights.size() > current.size()) {
+            renderedLights.clear();
+            current.forEach(light -> renderedLights.put(light.id, light));
+        }
+
+        snapshot = new Snapshot(json.toString().getBytes(StandardCharsets.UTF_8), current);
+        this.snapshot = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * @return the JSON object of one light, as rendered by {@link Gson#toJson(Object)}
+     */
+    synchronized String getLight(Gson gson, String id, HueLightEntry light) {
+        return render(gson, id, light).json;
+    }
+
+    /**
+     * @return the number of lights that have been serialized since the creation of the cache
+     */
+    synchronized int getRenderCount() {
+        return renderCount;
+    }
+
+    private RenderedLight render(Gson gson, String id, HueLightEntry light) {
+        GenericItem item = light.item;
+        State state = item.getState();
+        RenderedLight rendered = renderedLights.get(id);
+        if (rendered == null || !rendered.isUpToDate(id, light, state)) {
+            rendered = new RenderedLight(id, gson.toJson(light), light, item, state);
+            renderedLights.put(id, rendered);
+            renderCount++;
+        }
+        return rendered;
+    }
+
+    private static boolean isSame(List<RenderedLight> a, List<RenderedLight> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
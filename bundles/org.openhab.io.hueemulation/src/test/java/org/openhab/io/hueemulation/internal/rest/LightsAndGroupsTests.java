@@ -21,6 +21,8 @@ import static org.mockito.Mockito.verify;
 import java.io.IOException;
 
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -335,6 +337,33 @@ public class LightsAndGroupsTests {
         assertThat(body, containsString("color"));
     }
 
+    @Test
+    public void allLightsAreServedFromCacheUntilAStateChanges() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get();
+        assertEquals(200, response.getStatus());
+        String body = response.readEntity(String.class);
+        EntityTag etag = response.getEntityTag();
+        int renderCount = subject.lightsJsonCache.getRenderCount();
+
+        // Same content without serializing the lights again
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get();
+        assertThat(response.readEntity(String.class), is(body));
+        assertThat(subject.lightsJsonCache.getRenderCount(), is(renderCount));
+
+        // Unchanged content is not sent again
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag.toString()).get();
+        assertEquals(304, response.getStatus());
+
+        // Only the changed light is serialized again
+        cs.ds.lights.get("1").item.setState(OnOffType.ON);
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag.toString()).get();
+        assertEquals(200, response.getStatus());
+        assertThat(response.readEntity(String.class), is(cs.gson.toJson(cs.ds.lights)));
+        assertThat(subject.lightsJsonCache.getRenderCount(), is(renderCount + 1));
+    }
+
     private boolean assertHueValue(ItemCommandEvent ce, int hueValue) {
         assertThat(((HSBType) ce.getItemCommand()).getHue().intValue(), is(hueValue * 360 / HueStateColorBulb.MAX_HUE));
         return true;
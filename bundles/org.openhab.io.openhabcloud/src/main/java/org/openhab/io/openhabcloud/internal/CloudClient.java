@@ -19,6 +19,7 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -31,15 +32,18 @@ import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.api.Request;
 import org.eclipse.jetty.client.api.Request.FailureListener;
 import org.eclipse.jetty.client.api.Response;
-import org.eclipse.jetty.client.api.Response.ContentListener;
+import org.eclipse.jetty.client.api.Response.AsyncContentListener;
 import org.eclipse.jetty.client.api.Response.HeadersListener;
 import org.eclipse.jetty.client.api.Result;
 import org.eclipse.jetty.client.util.BytesContentProvider;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.io.ByteBufferPool;
 import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.URIUtil;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -53,6 +57,7 @@ import io.socket.client.Manager;
 import io.socket.client.Socket;
 import io.socket.emitter.Emitter;
 import io.socket.engineio.client.Transport;
+import io.socket.thread.EventThread;
 
 /**
  * This class provides communication between openHAB and the openHAB Cloud service.
@@ -70,6 +75,17 @@ public class CloudClient {
      */
     private final Logger logger = LoggerFactory.getLogger(CloudClient.class);
 
+    /*
+     * Size of the chunks in which response content is sent to the openHAB Cloud
+     */
+    private static final int RESPONSE_CHUNK_SIZE = 64 * 1024;
+
+    /*
+     * Amount of response content which may be waiting to be written to the openHAB Cloud connection, before the
+     * responses of local openHAB are not read any further
+     */
+    private static final long MAX_PENDING_RESPONSE_BYTES = 4 * 1024 * 1024;
+
     /*
      * This variable holds base URL for the openHAB Cloud connections
      */
@@ -100,6 +116,11 @@ public class CloudClient {
      */
     private final Map<Integer, Request> runningRequests = new ConcurrentHashMap<>();
 
+    /*
+     * This variable limits the response content which is waiting to be written to the openHAB Cloud connection
+     */
+    private final ResponseFlowControl responseFlowControl = new ResponseFlowControl(MAX_PENDING_RESPONSE_BYTES);
+
     /*
      * This variable indicates if connection to the openHAB Cloud is currently in an established state
      */
@@ -180,6 +201,14 @@ public class CloudClient {
                         headers.put("remoteaccess", List.of(((Boolean) remoteAccessEnabled).toString()));
                     }
                 });
+                transport.on(Transport.EVENT_DRAIN, new Emitter.Listener() {
+                    @Override
+                    public void call(Object... args) {
+                        logger.trace("Transport.EVENT_DRAIN, {} responses suspended",
+                                responseFlowControl.getSuspendedResponses());
+                        responseFlowControl.written();
+                    }
+                });
             }
         });
         socket.on(Socket.EVENT_CONNECT, new Emitter.Listener() {
@@ -242,8 +271,10 @@ public class CloudClient {
         logger.info("Disconnected from the openHAB Cloud service (UUID = {}, base URL = {})", this.uuid,
                 this.localBaseUrl);
         isConnected = false;
-        // And clean up the list of running requests
+        // And abort the running requests, their responses can't be delivered anymore
+        runningRequests.values().forEach(request -> request.abort(new IOException("openHAB Cloud disconnected")));
         runningRequests.clear();
+        responseFlowControl.reset();
     }
 
     /**
@@ -323,17 +354,18 @@ public class CloudClient {
                 request.method(HttpMethod.GET);
             } else if (requestMethod.equals("POST")) {
                 request.method(HttpMethod.POST);
-                request.content(new BytesContentProvider(requestBody.getBytes()));
+                request.content(new BytesContentProvider(requestBody.getBytes(StandardCharsets.UTF_8)));
             } else if (requestMethod.equals("PUT")) {
                 request.method(HttpMethod.PUT);
-                request.content(new BytesContentProvider(requestBody.getBytes()));
+                request.content(new BytesContentProvider(requestBody.getBytes(StandardCharsets.UTF_8)));
             } else {
                 // TODO: Reject unsupported methods
                 logger.warn("Unsupported request method {}", requestMethod);
                 return;
             }
             ResponseListener listener = new ResponseListener(requestId);
-            request.onResponseHeaders(listener).onResponseContent(listener).onRequestFailure(listener).send(listener);
+            request.onResponseHeaders(listener).onResponseContentAsync(listener).onRequestFailure(listener)
+                    .send(listener);
             // If successfully submitted request to http client, add it to the list of currently
             // running requests to be able to cancel it if needed
             runningRequests.put(requestId, request);
@@ -513,14 +545,19 @@ public class CloudClient {
     }
 
     /*
-     * An internal class which forwards response headers and data back to the openHAB Cloud
+     * An internal class which forwards response headers and data back to the openHAB Cloud.
+     * The content of responses with a known length is collected in a pooled buffer and sent in chunks of
+     * RESPONSE_CHUNK_SIZE. Other responses may be streams (e.g. server-sent events), their content is sent as soon as
+     * it is received.
      */
     private class ResponseListener
-            implements Response.CompleteListener, HeadersListener, ContentListener, FailureListener {
+            implements Response.CompleteListener, HeadersListener, AsyncContentListener, FailureListener {
 
         private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
         private int mRequestId;
         private boolean mHeadersSent = false;
+        private @Nullable ByteBuffer mContentBuffer;
+        private boolean mStreaming = true;
 
         public ResponseListener(int requestId) {
             mRequestId = requestId;
@@ -540,6 +577,13 @@ public class CloudClient {
 
         @Override
         public void onComplete(Result result) {
+            // Send the rest of the content and return the buffer
+            sendContent();
+            ByteBuffer contentBuffer = mContentBuffer;
+            if (contentBuffer != null) {
+                jettyClient.getByteBufferPool().release(contentBuffer);
+                mContentBuffer = null;
+            }
             // Remove this request from list of running requests
             runningRequests.remove(mRequestId);
             if ((result != null && result.isFailed())
@@ -585,21 +629,57 @@ public class CloudClient {
         }
 
         @Override
-        public void onContent(Response response, ByteBuffer content) {
+        public void onContent(Response response, ByteBuffer content, Callback callback) {
             logger.debug("Jetty received response content of size {}", String.valueOf(content.remaining()));
+            ByteBuffer contentBuffer = mContentBuffer;
+            if (contentBuffer == null) {
+                ByteBufferPool bufferPool = jettyClient.getByteBufferPool();
+                contentBuffer = bufferPool.acquire(RESPONSE_CHUNK_SIZE, false);
+                BufferUtil.clear(contentBuffer);
+                mContentBuffer = contentBuffer;
+            }
+            while (content.hasRemaining()) {
+                BufferUtil.append(contentBuffer, content);
+                if (BufferUtil.isFull(contentBuffer)) {
+                    sendContent();
+                }
+            }
+            if (mStreaming) {
+                sendContent();
+            }
+            // Continue reading the response, unless too much content is waiting to be written
+            responseFlowControl.resume(callback);
+        }
+
+        /**
+         * Sends the collected content to the openHAB Cloud. The content is reserved before it is emitted and emitted
+         * on the thread of the Socket.IO client, so it is known with which batch of the transport it is written.
+         */
+        private void sendContent() {
+            ByteBuffer contentBuffer = mContentBuffer;
+            if (contentBuffer == null || !contentBuffer.hasRemaining()) {
+                return;
+            }
+            int size = contentBuffer.remaining();
             JSONObject responseJson = new JSONObject();
             try {
                 responseJson.put("id", mRequestId);
-                responseJson.put("body", BufferUtil.toArray(content));
-                socket.emit("responseContentBinary", responseJson);
-                logger.debug("Sent content to request {}", mRequestId);
+                responseJson.put("body", BufferUtil.toArray(contentBuffer));
+                responseFlowControl.reserve(size);
+                EventThread.exec(() -> {
+                    responseFlowControl.queued(size);
+                    socket.emit("responseContentBinary", responseJson);
+                });
+                logger.debug("Sent content of size {} to request {}", size, mRequestId);
             } catch (JSONException e) {
                 logger.debug("{}", e.getMessage());
             }
+            BufferUtil.clear(contentBuffer);
         }
 
         @Override
         public void onHeaders(Response response) {
+            mStreaming = response.getHeaders().getLongField(HttpHeader.CONTENT_LENGTH.asString()) < 0;
             if (!mHeadersSent) {
                 logger.debug("Jetty finished receiving response header");
                 JSONObject responseJson = new JSONObject();
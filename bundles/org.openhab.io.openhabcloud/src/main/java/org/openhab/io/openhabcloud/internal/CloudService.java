@@ -23,10 +23,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.HttpClient;
 import org.openhab.core.OpenHAB;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.events.Event;
 import org.openhab.core.events.EventFilter;
@@ -73,6 +75,9 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     private static final String CFG_EXPOSE = "expose";
     private static final String CFG_BASE_URL = "baseURL";
     private static final String CFG_MODE = "mode";
+    private static final String CFG_UPDATE_WINDOW = "updateWindow";
+    private static final String CFG_ITEM_UPDATE_INTERVAL = "itemUpdateInterval";
+    private static final long DEFAULT_UPDATE_WINDOW = 0;
     private static final String SECRET_FILE_NAME = "openhabcloud" + File.separator + "secret";
     private static final String DEFAULT_URL = "https://myopenhab.org/";
     private static final int DEFAULT_LOCAL_OPENHAB_MAX_CONCURRENT_REQUESTS = 200;
@@ -85,6 +90,8 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
     public static String clientVersion = null;
     private CloudClient cloudClient;
+    private ItemUpdateCoalescer itemUpdates;
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(HTTPCLIENT_NAME);
     private String cloudBaseUrl = null;
     private final HttpClient httpClient;
     protected final ItemRegistry itemRegistry;
@@ -185,6 +192,7 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     @Deactivate
     protected void deactivate() {
         logger.debug("openHAB Cloud connector deactivated");
+        itemUpdates.stop();
         cloudClient.shutdown();
         try {
             httpClient.stop();
@@ -228,6 +236,9 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
         logger.debug("UUID = {}, secret = {}", InstanceUUID.get(), getSecret());
 
+        if (itemUpdates != null) {
+            itemUpdates.stop();
+        }
         if (cloudClient != null) {
             cloudClient.shutdown();
         }
@@ -246,9 +257,26 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
         cloudClient.setOpenHABVersion(OpenHAB.getVersion());
         cloudClient.connect();
         cloudClient.setListener(this);
+        CloudClient client = cloudClient;
+        itemUpdates = new ItemUpdateCoalescer(scheduler, getLong(config, CFG_UPDATE_WINDOW, DEFAULT_UPDATE_WINDOW),
+                getLong(config, CFG_ITEM_UPDATE_INTERVAL, 0), client::sendItemUpdate);
         NotificationAction.cloudService = this;
     }
 
+    private long getLong(Map<String, ?> config, String key, long defaultValue) {
+        Object value = config.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        } else if (value != null) {
+            try {
+                return Long.parseLong(value.toString());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value '{}' for '{}', using {}", value, key, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
     @Override
     public String getActionClassName() {
         return NotificationAction.class.getCanonicalName();
@@ -366,7 +394,7 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     public void receive(Event event) {
         ItemStateEvent ise = (ItemStateEvent) event;
         if (exposedItems != null && exposedItems.contains(ise.getItemName())) {
-            cloudClient.sendItemUpdate(ise.getItemName(), ise.getItemState().toString());
+            itemUpdates.update(ise.getItemName(), ise.getItemState().toString());
         }
     }
 }
@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects item updates for the openHAB Cloud and only sends the latest state of every item once per window.
+ * Additionally an item is not sent more often than once per minimum interval, later states wait for the next window
+ * then. States which are replaced by a newer state before they are sent are counted as dropped.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ItemUpdateCoalescer {
+    private final Logger logger = LoggerFactory.getLogger(ItemUpdateCoalescer.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final long windowMillis;
+    private final long minItemIntervalMillis;
+    private final BiConsumer<String, String> sender;
+
+    private final Map<String, String> pendingStates = new LinkedHashMap<>();
+    private final Map<String, Long> lastSent = new HashMap<>();
+    private @Nullable ScheduledFuture<?> flushJob;
+    private long flushDue;
+    private long flushGeneration;
+    private boolean stopped;
+
+    private long sentUpdates;
+    private long droppedUpdates;
+
+    /**
+     * @param scheduler Scheduler for sending the collected updates
+     * @param windowMillis Time in milliseconds to collect updates, 0 sends updates immediately
+     * @param minItemIntervalMillis Minimum time in milliseconds between two updates of the same item, 0 to disable
+     * @param sender Sends the state (second argument) of an item (first argument)
+     */
+    public ItemUpdateCoalescer(ScheduledExecutorService scheduler, long windowMillis, long minItemIntervalMillis,
+            BiConsumer<String, String> sender) {
+        this.scheduler = scheduler;
+        this.windowMillis = windowMillis;
+        this.minItemIntervalMillis = minItemIntervalMillis;
+        this.sender = sender;
+    }
+
+    /**
+     * Adds an item update. Replaces a pending update of the same item.
+     */
+    public void update(String itemName, String itemState) {
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (windowMillis > 0 || pendingStates.containsKey(itemName) || isRateLimited(itemName, now)) {
+                if (pendingStates.put(itemName, itemState) != null) {
+                    droppedUpdates++;
+                }
+                scheduleFlush(getDueTime(itemName, now), now);
+                return;
+            }
+            lastSent.put(itemName, now);
+            sentUpdates++;
+        }
+        sender.accept(itemName, itemState);
+    }
+
+    /**
+     * Stops the coalescer, pending updates are discarded.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        ScheduledFuture<?> flushJob = this.flushJob;
+        if (flushJob != null) {
+            flushJob.cancel(false);
+            this.flushJob = null;
+        }
+        droppedUpdates += pendingStates.size();
+        pendingStates.clear();
+        logger.debug("Item updates sent: {}, dropped: {}", sentUpdates, droppedUpdates);
+    }
+
+    /**
+     * @return the number of item updates sent to the cloud
+     */
+    public synchronized long getSentUpdates() {
+        return sentUpdates;
+    }
+
+    /**
+     * @return the number of item updates that have been replaced by a newer state before being sent
+     */
+    public synchronized long getDroppedUpdates() {
+        return droppedUpdates;
+    }
+
+    /**
+     * Returns the time a pending item is due: after the window, but not before it may be sent again
+     */
+    private long getDueTime(String itemName, long now) {
+        Long last = lastSent.get(itemName);
+        long itemDue = minItemIntervalMillis > 0 && last != null ? last + minItemIntervalMillis : now;
+        return Math.max(now + windowMillis, itemDue);
+    }
+
+    /**
+     * Schedules the flush for the given due time, unless it is already scheduled earlier. A later flush is replaced,
+     * so an item doesn't wait for a rate limited one.
+     */
+    private void scheduleFlush(long due, long now) {
+        ScheduledFuture<?> flushJob = this.flushJob;
+        if (flushJob != null) {
+            if (due >= flushDue) {
+                return;
+            }
+            flushJob.cancel(false);
+        }
+        long generation = ++flushGeneration;
+        flushDue = due;
+        this.flushJob = scheduler.schedule(() -> flush(generation), Math.max(due - now, 1), TimeUnit.MILLISECONDS);
+    }
+
+    private void flush(long generation) {
+        Map<String, String> batch = new LinkedHashMap<>();
+        synchronized (this) {
+            // a replaced job may already be running, the job replacing it sends the updates then
+            if (stopped || generation != flushGeneration) {
+                return;
+            }
+            flushJob = null;
+            long now = System.currentTimeMillis();
+            for (Iterator<Entry<String, String>> it = pendingStates.entrySet().iterator(); it.hasNext();) {
+                Entry<String, String> entry = it.next();
+                if (!isRateLimited(entry.getKey(), now)) {
+                    batch.put(entry.getKey(), entry.getValue());
+                    lastSent.put(entry.getKey(), now);
+                    it.remove();
+                }
+            }
+            sentUpdates += batch.size();
+            if (!pendingStates.isEmpty()) {
+                long due = Long.MAX_VALUE;
+                for (String itemName : pendingStates.keySet()) {
+                    due = Math.min(due, getDueTime(itemName, now));
+                }
+                scheduleFlush(due, now);
+            }
+        }
+        logger.trace("Sending {} coalesced item updates", batch.size());
+        batch.forEach(sender);
+    }
+
+    private boolean isRateLimited(String itemName, long now) {
+        Long last = lastSent.get(itemName);
+        return minItemIntervalMillis > 0 && last != null && now - last < minItemIntervalMillis;
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.util.Callback;
+
+/**
+ * Limits the amount of proxied response content which has been handed to the Socket.IO client, but not yet been
+ * written to the openHAB Cloud connection. Once the limit is exceeded, the responses of local openHAB are not read
+ * any further until enough content has been written.
+ *
+ * Content is reserved before it is emitted, so content of concurrent responses is accounted before the transport can
+ * report it as written. The transport writes the queued packets in batches and reports every written batch: content
+ * queued while no batch is being written is part of the next batch, content queued while a batch is being written
+ * waits for the batch after it. Every report only releases the content of the batch that has been written.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class ResponseFlowControl {
+    private final long maxPendingBytes;
+    private final List<Callback> suspendedResponses = new ArrayList<>();
+    // reserved content, which has not been written yet
+    private long pendingBytes;
+    // content in the batch that is being written
+    private long writingBytes;
+    // content queued while a batch is being written
+    private long waitingBytes;
+    private boolean writing;
+
+    ResponseFlowControl(long maxPendingBytes) {
+        this.maxPendingBytes = maxPendingBytes;
+    }
+
+    /**
+     * Accounts content before it is emitted.
+     *
+     * @param bytes number of bytes that will be emitted to the socket
+     */
+    synchronized void reserve(int bytes) {
+        pendingBytes += bytes;
+    }
+
+    /**
+     * Accounts reserved content that is queued to be written by the transport. Must be called on the thread of the
+     * Socket.IO client right before the content is emitted, so the batch it is written with is known.
+     *
+     * @param bytes number of reserved bytes that are emitted
+     */
+    synchronized void queued(int bytes) {
+        if (writing) {
+            waitingBytes += bytes;
+        } else {
+            writingBytes += bytes;
+            writing = bytes > 0;
+        }
+    }
+
+    /**
+     * Resumes reading a response, unless too much content is pending.
+     *
+     * @param callback callback of the response content, which is completed when more content may be read
+     */
+    void resume(Callback callback) {
+        synchronized (this) {
+            if (pendingBytes > maxPendingBytes) {
+                suspendedResponses.add(callback);
+                return;
+            }
+        }
+        callback.succeeded();
+    }
+
+    /**
+     * Called when the transport has written a batch of queued content.
+     */
+    void written() {
+        List<Callback> resumed;
+        synchronized (this) {
+            pendingBytes = Math.max(0, pendingBytes - writingBytes);
+            // the content waiting for the written batch is written next
+            writingBytes = waitingBytes;
+            waitingBytes = 0;
+            writing = writingBytes > 0;
+            resumed = resumable();
+        }
+        resumed.forEach(Callback::succeeded);
+    }
+
+    /**
+     * Called when the transport has been closed, its content will not be written anymore.
+     */
+    void reset() {
+        List<Callback> resumed;
+        synchronized (this) {
+            pendingBytes = 0;
+            writingBytes = 0;
+            waitingBytes = 0;
+            writing = false;
+            resumed = resumable();
+        }
+        resumed.forEach(Callback::succeeded);
+    }
+
+    synchronized long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    synchronized int getSuspendedResponses() {
+        return suspendedResponses.size();
+    }
+
+    private List<Callback> resumable() {
+        if (pendingBytes > maxPendingBytes) {
+            return List.of();
+        }
+        List<Callback> resumed = new ArrayList<>(suspendedResponses);
+        suspendedResponses.clear();
+        return resumed;
+    }
+}
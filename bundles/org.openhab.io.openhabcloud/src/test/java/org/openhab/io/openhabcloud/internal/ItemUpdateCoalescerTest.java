@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link ItemUpdateCoalescer} with a scheduler whose jobs are run by the tests.
+ *
+ * @author agent - Initial contribution
+ */
+@SuppressWarnings("null")
+public class ItemUpdateCoalescerTest {
+
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private final ScheduledFuture<?> future = mock(ScheduledFuture.class);
+    private final List<Runnable> jobs = new ArrayList<>();
+    private final List<Long> delays = new ArrayList<>();
+    private final List<String> sent = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        doAnswer(invocation -> {
+            jobs.add(invocation.getArgument(0));
+            delays.add(invocation.getArgument(1));
+            return future;
+        }).when(scheduler).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void updatesAreSentImmediatelyWithoutWindow() {
+        ItemUpdateCoalescer coalescer = create(0, 0);
+        coalescer.update("A", "1");
+        coalescer.update("A", "2");
+
+        assertThat(sent, contains("A=1", "A=2"));
+        assertThat(jobs, is(empty()));
+        assertThat(coalescer.getSentUpdates(), is(2L));
+        assertThat(coalescer.getDroppedUpdates(), is(0L));
+    }
+
+    @Test
+    public void latestStateWithinWindowIsSent() {
+        ItemUpdateCoalescer coalescer = create(500, 0);
+        coalescer.update("A", "1");
+        coalescer.update("B", "1");
+        coalescer.update("A", "2");
+
+        assertThat(sent, is(empty()));
+        assertThat(delays, contains(500L));
+
+        runJobs();
+
+        assertThat(sent, contains("A=2", "B=1"));
+        assertThat(coalescer.getSentUpdates(), is(2L));
+        assertThat(coalescer.getDroppedUpdates(), is(1L));
+    }
+
+    @Test
+    public void nextWindowIsScheduledForLaterUpdates() {
+        ItemUpdateCoalescer coalescer = create(500, 0);
+        coalescer.update("A", "1");
+        runJobs();
+        coalescer.update("A", "2");
+        runJobs();
+
+        assertThat(sent, contains("A=1", "A=2"));
+        assertThat(delays, contains(500L, 500L));
+    }
+
+    @Test
+    public void rateLimitedItemWaitsForInterval() {
+        ItemUpdateCoalescer coalescer = create(0, 60000);
+        coalescer.update("A", "1");
+        coalescer.update("A", "2");
+        coalescer.update("A", "3");
+        coalescer.update("B", "1");
+
+        // only A is limited, B is still sent immediately
+        assertThat(sent, contains("A=1", "B=1"));
+        assertThat(delays.size(), is(1));
+        assertThat(delays.get(0), is(both(greaterThan(0L)).and(lessThanOrEqualTo(60000L))));
+        assertThat(coalescer.getDroppedUpdates(), is(1L));
+
+        // the interval has not passed yet, so the job is scheduled again
+        runJobs();
+        assertThat(sent, contains("A=1", "B=1"));
+        assertThat(delays.size(), is(2));
+    }
+
+    @Test
+    public void updateIsNotDelayedByRateLimitedItem() {
+        ItemUpdateCoalescer coalescer = create(500, 60000);
+        coalescer.update("A", "1");
+        runJobs();
+        assertThat(sent, contains("A=1"));
+
+        // A waits for its interval, B must only wait for the window
+        coalescer.update("A", "2");
+        assertThat(delays.get(1), is(both(greaterThan(500L)).and(lessThanOrEqualTo(60000L))));
+        coalescer.update("B", "1");
+        assertThat(delays.size(), is(3));
+        assertThat(delays.get(2), is(500L));
+        verify(future).cancel(false);
+
+        // the replaced job doesn't send anything, A is scheduled again after B has been sent
+        runJobs();
+        assertThat(sent, contains("A=1", "B=1"));
+        assertThat(delays.size(), is(4));
+        assertThat(delays.get(3), is(greaterThan(500L)));
+
+        // a later item replaces the job of A again
+        coalescer.update("C", "1");
+        assertThat(delays.size(), is(5));
+        assertThat(delays.get(4), is(500L));
+        runJobs();
+        assertThat(sent, contains("A=1", "B=1", "C=1"));
+        assertThat(coalescer.getSentUpdates(), is(3L));
+    }
+
+    @Test
+    public void pendingUpdatesAreDiscardedOnStop() {
+        ItemUpdateCoalescer coalescer = create(500, 0);
+        coalescer.update("A", "1");
+        coalescer.stop();
+        coalescer.update("A", "2");
+        runJobs();
+
+        verify(future).cancel(false);
+        assertThat(sent, is(empty()));
+        assertThat(coalescer.getDroppedUpdates(), is(1L));
+    }
+
+    private ItemUpdateCoalescer create(long windowMillis, long minItemIntervalMillis) {
+        return new ItemUpdateCoalescer(scheduler, windowMillis, minItemIntervalMillis,
+                (itemName, itemState) -> sent.add(itemName + "=" + itemState));
+    }
+
+    private void runJobs() {
+        List<Runnable> toRun = new ArrayList<>(jobs);
+        jobs.clear();
+        toRun.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+
+import org.eclipse.jetty.util.Callback;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the accounting of the {@link ResponseFlowControl}.
+ *
+ * @author agent - Initial contribution
+ */
+@SuppressWarnings("null")
+public class ResponseFlowControlTest {
+
+    private final ResponseFlowControl flowControl = new ResponseFlowControl(100);
+
+    @Test
+    public void responseIsResumedBelowLimit() {
+        Callback callback = mock(Callback.class);
+        flowControl.reserve(100);
+        flowControl.resume(callback);
+
+        verify(callback).succeeded();
+        assertThat(flowControl.getSuspendedResponses(), is(0));
+    }
+
+    @Test
+    public void reservedContentSuspendsResponseBeforeItIsEmitted() {
+        Callback callback = mock(Callback.class);
+        flowControl.reserve(60);
+        flowControl.reserve(60);
+        flowControl.resume(callback);
+
+        verify(callback, never()).succeeded();
+        assertThat(flowControl.getSuspendedResponses(), is(1));
+
+        // content which has not been queued yet is not released by a written batch
+        flowControl.written();
+        verify(callback, never()).succeeded();
+        assertThat(flowControl.getPendingBytes(), is(120L));
+    }
+
+    @Test
+    public void writtenBatchOnlyReleasesItsContent() {
+        Callback callback = mock(Callback.class);
+        flowControl.reserve(80);
+        flowControl.queued(80);
+        // queued while the first batch is being written
+        flowControl.reserve(70);
+        flowControl.queued(70);
+        flowControl.resume(callback);
+        verify(callback, never()).succeeded();
+
+        flowControl.written();
+        assertThat(flowControl.getPendingBytes(), is(70L));
+        verify(callback).succeeded();
+
+        flowControl.written();
+        assertThat(flowControl.getPendingBytes(), is(0L));
+    }
+
+    @Test
+    public void responseStaysSuspendedWhileAboveLimit() {
+        Callback callback = mock(Callback.class);
+        flowControl.reserve(90);
+        flowControl.queued(90);
+        flowControl.reserve(50);
+        flowControl.queued(50);
+        flowControl.reserve(60);
+        flowControl.resume(callback);
+
+        flowControl.written();
+        assertThat(flowControl.getPendingBytes(), is(110L));
+        verify(callback, never()).succeeded();
+
+        flowControl.queued(60);
+        flowControl.written();
+        assertThat(flowControl.getPendingBytes(), is(60L));
+        verify(callback).succeeded();
+    }
+
+    @Test
+    public void resetReleasesEverything() {
+        Callback callback = mock(Callback.class);
+        flowControl.reserve(150);
+        flowControl.queued(150);
+        flowControl.resume(callback);
+
+        flowControl.reset();
+
+        assertThat(flowControl.getPendingBytes(), is(0L));
+        verify(callback).succeeded();
+        // content emitted before the reset is not released twice
+        flowControl.queued(40);
+        flowControl.written();
+        assertThat(flowControl.getPendingBytes(), is(0L));
+    }
+}
@@ -12,6 +12,9 @@
  */
 package org.openhab.persistence.influxdb;
 
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Collections;
@@ -19,14 +22,26 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.OpenHAB;
+import org.openhab.core.common.NamedThreadFactory;
 import org.openhab.core.config.core.ConfigurableService;
+import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
+import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.items.MetadataRegistry;
+import org.openhab.core.library.items.DimmerItem;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.items.RollershutterItem;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.PersistenceItemInfo;
@@ -35,7 +50,9 @@ import org.openhab.core.persistence.QueryablePersistenceService;
 import org.openhab.core.persistence.strategy.PersistenceStrategy;
 import org.openhab.core.types.State;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
+import org.openhab.persistence.influxdb.internal.InfluxDBBatchWriter;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
+import org.openhab.persistence.influxdb.internal.InfluxDBDiskBuffer;
 import org.openhab.persistence.influxdb.internal.InfluxDBHistoricItem;
 import org.openhab.persistence.influxdb.internal.InfluxDBPersistentItemInfo;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
@@ -81,6 +98,8 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
 
     protected static final String CONFIG_URI = "persistence:influxdb";
 
+    private static final Duration MIN_AGGREGATION_WINDOW = Duration.ofSeconds(1);
+
     // External dependencies
     private final ItemRegistry itemRegistry;
     private final MetadataRegistry metadataRegistry;
@@ -91,6 +110,8 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
     // Relax rules because can only be null if component is not active
     private @NonNullByDefault({}) ItemToStorePointCreator itemToStorePointCreator;
     private @NonNullByDefault({}) InfluxDBRepository influxDBRepository;
+    private @NonNullByDefault({}) InfluxDBBatchWriter batchWriter;
+    private @NonNullByDefault({}) ScheduledExecutorService scheduler;
 
     @Activate
     public InfluxDBPersistenceService(final @Reference ItemRegistry itemRegistry,
@@ -110,6 +131,11 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
             itemToStorePointCreator = new ItemToStorePointCreator(configuration, metadataRegistry);
             influxDBRepository = createInfluxDBRepository();
             influxDBRepository.connect();
+            scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory(SERVICE_NAME));
+            batchWriter = new InfluxDBBatchWriter(influxDBRepository, scheduler,
+                    new InfluxDBDiskBuffer(getDiskBufferFile(), configuration.getDiskBufferSize() * 1024L * 1024L),
+                    configuration);
+            batchWriter.start();
         } else {
             logger.error("Cannot load configuration, persistence service wont work");
         }
@@ -122,12 +148,26 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
         return RepositoryFactory.createRepository(configuration);
     }
 
+    // Visible for testing
+    protected Path getDiskBufferFile() {
+        return new File(OpenHAB.getUserDataFolder(), "persistence").toPath().resolve(SERVICE_NAME)
+                .resolve("buffer.dat");
+    }
+
     /**
      * Disconnect from database when service is deactivated
      */
     @Deactivate
     public void deactivate() {
         logger.debug("InfluxDB persistence service deactivated");
+        if (batchWriter != null) {
+            batchWriter.stop();
+            batchWriter = null;
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
         if (influxDBRepository != null) {
             influxDBRepository.disconnect();
             influxDBRepository = null;
@@ -203,7 +243,7 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
             InfluxPoint point = itemToStorePointCreator.convert(item, alias);
             if (point != null) {
                 logger.trace("Storing item {} in InfluxDB point {}", item, point);
-                influxDBRepository.write(point);
+                batchWriter.add(point);
             } else {
                 logger.trace("Ignoring item {} as is cannot be converted to a InfluxDB point", item);
             }
@@ -214,6 +254,49 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
+        return query(filter, configuration.getQueryMaxPoints());
+    }
+
+    /**
+     * Queries historic points of a numeric item reduced by the database to the mean values of about
+     * {@code maxPoints} time windows between begin and end date of the filter, e.g. one per pixel of a chart.
+     * Raw points are returned for other items, for paged filters, for filters without begin date or if windows would
+     * be shorter than {@link #MIN_AGGREGATION_WINDOW}.
+     *
+     * @param filter Filter with the item name and begin date
+     * @param maxPoints Maximum number of points to return
+     * @return Historic points
+     */
+    public Iterable<HistoricItem> query(FilterCriteria filter, int maxPoints) {
+        return executeQuery(filter, calculateAggregationWindow(filter, maxPoints));
+    }
+
+    private @Nullable Duration calculateAggregationWindow(FilterCriteria filter, int maxPoints) {
+        ZonedDateTime beginDate = filter.getBeginDate();
+        String itemName = filter.getItemName();
+        if (maxPoints <= 0 || beginDate == null || itemName == null || filter.getPageSize() != Integer.MAX_VALUE
+                || !isNumericItem(itemName)) {
+            return null;
+        }
+        ZonedDateTime endDate = filter.getEndDate();
+        Duration window = Duration.between(beginDate, endDate != null ? endDate : ZonedDateTime.now())
+                .dividedBy(maxPoints);
+        return window.compareTo(MIN_AGGREGATION_WINDOW) < 0 ? null : window;
+    }
+
+    private boolean isNumericItem(String itemName) {
+        try {
+            Item item = itemRegistry.getItem(itemName);
+            if (item instanceof GroupItem) {
+                item = ((GroupItem) item).getBaseItem();
+            }
+            return item instanceof NumberItem || item instanceof DimmerItem || item instanceof RollershutterItem;
+        } catch (ItemNotFoundException e) {
+            return false;
+        }
+    }
+
+    private Iterable<HistoricItem> executeQuery(FilterCriteria filter, @Nullable Duration aggregationWindow) {
         logger.debug("Got a query for historic points!");
 
         if (influxDBRepository != null && influxDBRepository.isConnected()) {
@@ -223,8 +306,16 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
                     filter.getBeginDate(), filter.getEndDate(), filter.getPageSize(), filter.getPageNumber());
 
             String query = RepositoryFactory.createQueryCreator(configuration).createQuery(filter,
-                    configuration.getRetentionPolicy());
+                    configuration.getRetentionPolicy(), aggregationWindow);
             logger.trace("Query {}", query);
+            if (configuration.getQueryChunkSize() > 0) {
+                // the query is executed for every iteration and rows are converted as they are received
+                final InfluxDBRepository repository = influxDBRepository;
+                return () -> StreamSupport
+                        .stream(Spliterators.spliteratorUnknownSize(repository.queryIterator(query),
+                                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                        .map(this::mapRow2HistoricItem).iterator();
+            }
             List<InfluxRow> results = influxDBRepository.query(query);
             return results.stream().map(this::mapRow2HistoricItem).collect(Collectors.toList());
         } else {
@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Buffers points as line protocol records and writes them in batches through
+ * {@link InfluxDBRepository#write(List)}, independent of the InfluxDB version.
+ *
+ * Points are written every {@code batchInterval} milliseconds or as soon as {@code batchSize} points are pending. If
+ * coalescing is enabled, only the latest point of each series (measurement and tags) within one interval is written.
+ * Records which can't be written are kept in a {@link InfluxDBDiskBuffer} and written before newer records once the
+ * server is reachable again, also after a restart.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBBatchWriter {
+    private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxDBBatchWriter.class);
+
+    private final InfluxDBRepository repository;
+    private final ScheduledExecutorService scheduler;
+    private final InfluxDBDiskBuffer diskBuffer;
+    private final int bufferSize;
+    private final int batchSize;
+    private final long batchInterval;
+    private final boolean coalesce;
+
+    // guarded by pendingLock
+    private final Object pendingLock = new Object();
+    private List<String> pending = new ArrayList<>();
+    private final Map<String, Integer> pendingSeries = new HashMap<>();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private @Nullable ScheduledFuture<?> flushJob;
+    private long retryDelay;
+    private long nextRetry;
+
+    // statistics
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public InfluxDBBatchWriter(InfluxDBRepository repository, ScheduledExecutorService scheduler,
+            InfluxDBDiskBuffer diskBuffer, InfluxDBConfiguration configuration) {
+        this.repository = repository;
+        this.scheduler = scheduler;
+        this.diskBuffer = diskBuffer;
+        this.bufferSize = Math.max(1, configuration.getBufferSize());
+        this.batchSize = Math.max(1, Math.min(configuration.getBatchSize(), bufferSize));
+        this.batchInterval = Math.max(1, configuration.getBatchInterval());
+        this.coalesce = configuration.isCoalesce();
+    }
+
+    public void start() {
+        flushJob = scheduler.scheduleWithFixedDelay(this::flushSafely, batchInterval, batchInterval,
+                TimeUnit.MILLISECONDS);
+        logger.debug("Batch writer started, batchSize={} batchInterval={} coalesce={} bufferSize={}", batchSize,
+                batchInterval, coalesce, bufferSize);
+    }
+
+    /**
+     * Stops the periodic writing and writes all pending points. Points which can't be written are kept in the disk
+     * buffer.
+     */
+    public void stop() {
+        ScheduledFuture<?> job = flushJob;
+        if (job != null) {
+            job.cancel(false);
+            flushJob = null;
+        }
+        nextRetry = 0;
+        flushSafely();
+        logger.debug("Batch writer stopped, written={} coalesced={} dropped={}", getWrittenCount(),
+                getCoalescedCount(), getDroppedCount());
+    }
+
+    /**
+     * Queues a point for writing, never blocks on the database
+     *
+     * @param point Point to write
+     */
+    public void add(InfluxPoint point) {
+        String seriesKey = InfluxDBLineProtocol.seriesKey(point);
+        String line = InfluxDBLineProtocol.toLine(seriesKey, point);
+        if (line == null) {
+            logger.trace("Ignoring point {} without storable value", point);
+            return;
+        }
+        int size;
+        synchronized (pendingLock) {
+            Integer index = coalesce ? pendingSeries.get(seriesKey) : null;
+            if (index != null) {
+                pending.set(index, line);
+                coalescedCount.incrementAndGet();
+                return;
+            }
+            if (pending.size() >= bufferSize) {
+                droppedCount.incrementAndGet();
+                logger.warn("Write buffer is full, point {} is dropped", point);
+                return;
+            }
+            if (coalesce) {
+                pendingSeries.put(seriesKey, pending.size());
+            }
+            pending.add(line);
+            size = pending.size();
+        }
+        if (size >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            scheduler.execute(this::flushSafely);
+        }
+    }
+
+    /**
+     * Writes the disk buffer and all pending points
+     */
+    public synchronized void flush() {
+        flushScheduled.set(false);
+        List<String> lines;
+        synchronized (pendingLock) {
+            lines = pending;
+            pending = new ArrayList<>();
+            pendingSeries.clear();
+        }
+
+        if (System.currentTimeMillis() < nextRetry) {
+            // server has been unreachable recently, don't wait for it again
+            droppedCount.addAndGet(diskBuffer.append(lines));
+            return;
+        }
+
+        boolean success = true;
+        if (!diskBuffer.isEmpty()) {
+            List<String> buffered = diskBuffer.readAll();
+            int written = writeBatches(buffered);
+            if (written == buffered.size()) {
+                diskBuffer.clear();
+                logger.info("Wrote {} points from buffer file {}", written, diskBuffer.getFile());
+            } else {
+                success = false;
+                if (written > 0) {
+                    diskBuffer.replace(buffered.subList(written, buffered.size()));
+                }
+            }
+        }
+        if (success) {
+            int written = writeBatches(lines);
+            success = written == lines.size();
+            lines = lines.subList(written, lines.size());
+        }
+
+        if (success) {
+            retryDelay = 0;
+            nextRetry = 0;
+        } else {
+            droppedCount.addAndGet(diskBuffer.append(lines));
+            retryDelay = Math.min(MAX_RETRY_DELAY_MILLIS, Math.max(batchInterval, retryDelay * 2));
+            nextRetry = System.currentTimeMillis() + retryDelay;
+            logger.debug("Writing to InfluxDB failed, {} bytes buffered in {}, next attempt in {} ms",
+                    diskBuffer.size(), diskBuffer.getFile(), retryDelay);
+        }
+    }
+
+    private int writeBatches(List<String> lines) {
+        int written = 0;
+        while (written < lines.size()) {
+            List<String> batch = lines.subList(written, Math.min(lines.size(), written + batchSize));
+            if (!repository.write(batch)) {
+                break;
+            }
+            written += batch.size();
+            writtenCount.addAndGet(batch.size());
+        }
+        return written;
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // an unhandled exception would stop the scheduled flush job
+            logger.warn("Unexpected exception while writing to InfluxDB", e);
+        }
+    }
+
+    public int getQueueDepth() {
+        synchronized (pendingLock) {
+            return pending.size();
+        }
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+}
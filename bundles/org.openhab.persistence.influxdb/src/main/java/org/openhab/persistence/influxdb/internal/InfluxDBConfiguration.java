@@ -39,6 +39,14 @@ public class InfluxDBConfiguration {
     public static final String ADD_CATEGORY_TAG_PARAM = "addCategoryTag";
     public static final String ADD_LABEL_TAG_PARAM = "addLabelTag";
     public static final String ADD_TYPE_TAG_PARAM = "addTypeTag";
+    public static final String GZIP_PARAM = "gzip";
+    public static final String BATCH_SIZE_PARAM = "batchSize";
+    public static final String BATCH_INTERVAL_PARAM = "batchInterval";
+    public static final String COALESCE_PARAM = "coalesce";
+    public static final String BUFFER_SIZE_PARAM = "bufferSize";
+    public static final String DISK_BUFFER_SIZE_PARAM = "diskBufferSize";
+    public static final String QUERY_CHUNK_SIZE_PARAM = "queryChunkSize";
+    public static final String QUERY_MAX_POINTS_PARAM = "queryMaxPoints";
     public static InfluxDBConfiguration NO_CONFIGURATION = new InfluxDBConfiguration(Collections.emptyMap());
     private final Logger logger = LoggerFactory.getLogger(InfluxDBConfiguration.class);
     private final String url;
@@ -54,6 +62,15 @@ public class InfluxDBConfiguration {
     private final boolean addTypeTag;
     private final boolean addLabelTag;
 
+    private final boolean gzip;
+    private final int batchSize;
+    private final int batchInterval;
+    private final boolean coalesce;
+    private final int bufferSize;
+    private final int diskBufferSize;
+    private final int queryChunkSize;
+    private final int queryMaxPoints;
+
     public InfluxDBConfiguration(Map<String, Object> config) {
         url = (String) config.getOrDefault(URL_PARAM, "http://127.0.0.1:8086");
         user = (String) config.getOrDefault(USER_PARAM, "openhab");
@@ -67,6 +84,15 @@ public class InfluxDBConfiguration {
         addCategoryTag = getConfigBooleanValue(config, ADD_CATEGORY_TAG_PARAM, false);
         addLabelTag = getConfigBooleanValue(config, ADD_LABEL_TAG_PARAM, false);
         addTypeTag = getConfigBooleanValue(config, ADD_TYPE_TAG_PARAM, false);
+
+        gzip = getConfigBooleanValue(config, GZIP_PARAM, false);
+        batchSize = getConfigIntValue(config, BATCH_SIZE_PARAM, 1000);
+        batchInterval = getConfigIntValue(config, BATCH_INTERVAL_PARAM, 1000);
+        coalesce = getConfigBooleanValue(config, COALESCE_PARAM, false);
+        bufferSize = getConfigIntValue(config, BUFFER_SIZE_PARAM, 10000);
+        diskBufferSize = getConfigIntValue(config, DISK_BUFFER_SIZE_PARAM, 10);
+        queryChunkSize = getConfigIntValue(config, QUERY_CHUNK_SIZE_PARAM, 0);
+        queryMaxPoints = getConfigIntValue(config, QUERY_MAX_POINTS_PARAM, 0);
     }
 
     private static boolean getConfigBooleanValue(Map<String, Object> config, String key, boolean defaultValue) {
@@ -80,6 +106,20 @@ public class InfluxDBConfiguration {
         }
     }
 
+    private int getConfigIntValue(Map<String, Object> config, String key, int defaultValue) {
+        Object object = config.get(key);
+        if (object instanceof Number) {
+            return ((Number) object).intValue();
+        } else if (object instanceof String) {
+            try {
+                return Integer.parseInt(((String) object).trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value {} for {}, using {}", object, key, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
     private InfluxDBVersion parseInfluxVersion(@Nullable Object value) {
         try {
             return InfluxDBVersion.valueOf((String) value);
@@ -156,6 +196,47 @@ public class InfluxDBConfiguration {
         return addLabelTag;
     }
 
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getBatchInterval() {
+        return batchInterval;
+    }
+
+    public boolean isCoalesce() {
+        return coalesce;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return Maximum size of the disk buffer in megabytes, 0 if disabled
+     */
+    public int getDiskBufferSize() {
+        return diskBufferSize;
+    }
+
+    /**
+     * @return Number of rows fetched ahead by streamed queries, 0 if query results are fetched completely
+     */
+    public int getQueryChunkSize() {
+        return queryChunkSize;
+    }
+
+    /**
+     * @return Number of time windows numeric query results are reduced to, 0 if raw points are returned
+     */
+    public int getQueryMaxPoints() {
+        return queryMaxPoints;
+    }
+
     public String getUser() {
         return user;
     }
@@ -174,7 +255,10 @@ public class InfluxDBConfiguration {
                 + password.length() + " chars" + '\'' + ", token='" + token.length() + " chars" + '\''
                 + ", databaseName='" + databaseName + '\'' + ", retentionPolicy='" + retentionPolicy + '\''
                 + ", version=" + version + ", replaceUnderscore=" + replaceUnderscore + ", addCategoryTag="
-                + addCategoryTag + ", addTypeTag=" + addTypeTag + ", addLabelTag=" + addLabelTag + '}';
+                + addCategoryTag + ", addTypeTag=" + addTypeTag + ", addLabelTag=" + addLabelTag + ", gzip=" + gzip
+                + ", batchSize=" + batchSize + ", batchInterval=" + batchInterval + ", coalesce=" + coalesce
+                + ", bufferSize=" + bufferSize + ", diskBufferSize=" + diskBufferSize + ", queryChunkSize="
+                + queryChunkSize + ", queryMaxPoints=" + queryMaxPoints + '}';
         return sb;
     }
 
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * File based buffer for line protocol records which couldn't be written to the database. The file survives restarts
+ * and is limited to a maximum size, records which would exceed it are dropped.
+ *
+ * Records are stored length prefixed, so they may contain any character. The class is not thread safe.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBDiskBuffer {
+    private final Logger logger = LoggerFactory.getLogger(InfluxDBDiskBuffer.class);
+
+    private final Path file;
+    private final long maxSize;
+    private long droppedCount;
+
+    /**
+     * @param file Buffer file
+     * @param maxSize Maximum size of the file in bytes, 0 disables the buffer
+     */
+    public InfluxDBDiskBuffer(Path file, long maxSize) {
+        this.file = file;
+        this.maxSize = maxSize;
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public long size() {
+        try {
+            return Files.exists(file) ? Files.size(file) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Appends records to the buffer
+     *
+     * @param lines Records to append
+     * @return Number of records which have been dropped because the buffer is disabled, full or can't be written
+     */
+    public int append(List<String> lines) {
+        if (lines.isEmpty()) {
+            return 0;
+        }
+        if (!isEnabled()) {
+            droppedCount += lines.size();
+            return lines.size();
+        }
+        long size = size();
+        int written = 0;
+        try {
+            Path parent = file.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)))) {
+                for (String line : lines) {
+                    byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                    size += Integer.BYTES + bytes.length;
+                    if (size > maxSize) {
+                        break;
+                    }
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                    written++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot write to buffer file {}: {}", file, e.getMessage());
+        }
+        int dropped = lines.size() - written;
+        if (dropped > 0) {
+            droppedCount += dropped;
+            logger.warn("Buffer file {} is full or not writable, {} points dropped", file, dropped);
+        }
+        return dropped;
+    }
+
+    /**
+     * Reads all buffered records, the buffer is left unchanged
+     *
+     * @return Buffered records in the order they have been appended
+     */
+    public List<String> readAll() {
+        List<String> lines = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return lines;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                lines.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            // a truncated last record after a crash is skipped
+            logger.warn("Cannot read buffer file {} completely: {}", file, e.getMessage());
+        }
+        return lines;
+    }
+
+    /**
+     * Replaces the buffered records
+     *
+     * @param lines New content of the buffer
+     */
+    public void replace(List<String> lines) {
+        if (lines.isEmpty()) {
+            clear();
+            return;
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.deleteIfExists(tmp);
+            InfluxDBDiskBuffer tmpBuffer = new InfluxDBDiskBuffer(tmp, maxSize);
+            droppedCount += tmpBuffer.append(lines);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Cannot replace buffer file {}: {}", file, e.getMessage());
+        }
+    }
+
+    public void clear() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Cannot delete buffer file {}: {}", file, e.getMessage());
+        }
+    }
+
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.FIELD_VALUE_NAME;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Converts an {@link InfluxPoint} to the InfluxDB line protocol, which is understood by InfluxDB 1.X and 2.X, with
+ * millisecond precision timestamps.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBLineProtocol {
+
+    private InfluxDBLineProtocol() {
+    }
+
+    /**
+     * Returns the series key of the point, that is the escaped measurement name followed by its tags ordered by key.
+     *
+     * @param point Point
+     * @return Series key
+     */
+    public static String seriesKey(InfluxPoint point) {
+        StringBuilder sb = new StringBuilder(64);
+        escape(sb, point.getMeasurementName(), false);
+        for (Map.Entry<String, String> tag : new TreeMap<>(point.getTags()).entrySet()) {
+            String value = tag.getValue();
+            if (value == null || value.isEmpty()) {
+                // empty tag values are not allowed by the line protocol
+                continue;
+            }
+            sb.append(',');
+            escape(sb, tag.getKey(), true);
+            sb.append('=');
+            escape(sb, value, true);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Converts the point to a line protocol record
+     *
+     * @param point Point
+     * @return Line protocol record or null if the point has no value which can be stored
+     */
+    public static @Nullable String toLine(InfluxPoint point) {
+        return toLine(seriesKey(point), point);
+    }
+
+    /**
+     * Converts the point to a line protocol record reusing an already calculated series key
+     *
+     * @param seriesKey Series key as returned by {@link #seriesKey(InfluxPoint)}
+     * @param point Point
+     * @return Line protocol record or null if the point has no value which can be stored
+     */
+    public static @Nullable String toLine(String seriesKey, InfluxPoint point) {
+        StringBuilder sb = new StringBuilder(seriesKey.length() + 48);
+        sb.append(seriesKey).append(' ').append(FIELD_VALUE_NAME).append('=');
+        if (!appendValue(sb, point.getValue())) {
+            return null;
+        }
+        sb.append(' ').append(point.getTime().toEpochMilli());
+        return sb.toString();
+    }
+
+    private static boolean appendValue(StringBuilder sb, @Nullable Object value) {
+        if (value instanceof String) {
+            String string = (String) value;
+            sb.append('"');
+            for (int i = 0; i < string.length(); i++) {
+                char c = string.charAt(i);
+                if (c == '"' || c == '\\') {
+                    sb.append('\\');
+                }
+                sb.append(c);
+            }
+            sb.append('"');
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte || value instanceof BigInteger) {
+            sb.append(value).append('i');
+        } else if (value instanceof BigDecimal) {
+            sb.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number) {
+            double d = ((Number) value).doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                return false;
+            }
+            sb.append(BigDecimal.valueOf(d).toPlainString());
+        } else if (value instanceof Boolean) {
+            sb.append(value);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static void escape(StringBuilder sb, String value, boolean escapeEquals) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == ' ' || (escapeEquals && c == '=')) {
+                sb.append('\\');
+            } else if (c == '\n') {
+                // line breaks would end the record
+                sb.append("\\n");
+                continue;
+            }
+            sb.append(c);
+        }
+    }
+}
@@ -12,6 +12,7 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -66,9 +67,19 @@ public interface InfluxDBRepository {
     List<InfluxRow> query(String query);
 
     /**
-     * Write point to database
+     * Executes query and returns the rows as they are received from the server, without keeping the whole result in
+     * memory
      *
-     * @param influxPoint Point to write
+     * @param query Query
+     * @return Iterator over the query results
+     */
+    Iterator<InfluxRow> queryIterator(String query);
+
+    /**
+     * Write line protocol records with millisecond precision to database
+     *
+     * @param lines Records to write, see {@link InfluxDBLineProtocol}
+     * @return True if the records have been written, false if they should be retried later
      */
-    void write(InfluxPoint influxPoint);
+    boolean write(List<String> lines);
 }
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Iterator over the rows of a streamed query. The client thread receiving the response adds rows as they arrive and
+ * is blocked while {@code capacity} rows are waiting to be consumed, so memory use doesn't depend on the size of the
+ * result.
+ *
+ * If the consumer stops iterating, {@link #offer(InfluxRow)} gives up after {@link #TIMEOUT_SECONDS} and the producer
+ * cancels the query.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxRowIterator implements Iterator<InfluxRow> {
+    static final long TIMEOUT_SECONDS = 60;
+
+    private static final Object END = new Object();
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxRowIterator.class);
+
+    private final BlockingQueue<Object> queue;
+    private volatile boolean cancelled;
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private volatile @Nullable Throwable error;
+    private @Nullable InfluxRow next;
+    private boolean finished;
+
+    public InfluxRowIterator(int capacity) {
+        queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    /**
+     * Adds a row, called by the producer
+     *
+     * @return False if the consumer has given up, the producer should cancel the query then
+     */
+    public boolean offer(InfluxRow row) {
+        if (cancelled) {
+            return false;
+        }
+        try {
+            if (queue.offer(row, TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                return true;
+            }
+            logger.debug("Query result hasn't been consumed within {} seconds, cancelling query", TIMEOUT_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        cancel();
+        return false;
+    }
+
+    /**
+     * Marks the end of the result, called by the producer. Only the first call has an effect, so it doesn't matter if
+     * the client signals the end more than once, e.g. after an error.
+     */
+    public void complete() {
+        if (completed.compareAndSet(false, true) && !cancelled) {
+            try {
+                queue.offer(END, TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Ends the result after an error, called by the producer
+     */
+    public void fail(Throwable t) {
+        if (!completed.get()) {
+            error = t;
+            logger.warn("Query failed: {}", t.getMessage());
+        }
+        complete();
+    }
+
+    /**
+     * Returns the error the result has been ended with
+     *
+     * @return the error of the query, null if the query hasn't failed (yet)
+     */
+    public @Nullable Throwable getError() {
+        return error;
+    }
+
+    private void cancel() {
+        cancelled = true;
+        queue.clear();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            Object element = queue.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (element == null) {
+                logger.warn("No query result received within {} seconds, result is incomplete", TIMEOUT_SECONDS);
+                cancel();
+            } else if (element != END) {
+                next = (InfluxRow) element;
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+        }
+        finished = true;
+        return false;
+    }
+
+    @Override
+    public InfluxRow next() {
+        InfluxRow row = hasNext() ? next : null;
+        if (row == null) {
+            throw new NoSuchElementException();
+        }
+        next = null;
+        return row;
+    }
+}
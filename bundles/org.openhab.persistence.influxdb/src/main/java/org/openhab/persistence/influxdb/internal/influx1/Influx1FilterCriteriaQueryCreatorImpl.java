@@ -16,13 +16,17 @@ import static org.influxdb.querybuilder.BuiltQuery.QueryBuilder.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils.stateToObject;
 
+import java.time.Duration;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.influxdb.dto.Query;
 import org.influxdb.querybuilder.Appender;
 import org.influxdb.querybuilder.BuiltQuery;
 import org.influxdb.querybuilder.Select;
 import org.influxdb.querybuilder.Where;
 import org.influxdb.querybuilder.clauses.SimpleClause;
+import org.influxdb.querybuilder.time.DurationLiteral;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
 import org.openhab.persistence.influxdb.internal.InfluxDBVersion;
@@ -36,7 +40,7 @@ import org.openhab.persistence.influxdb.internal.InfluxDBVersion;
 public class Influx1FilterCriteriaQueryCreatorImpl implements FilterCriteriaQueryCreator {
 
     @Override
-    public String createQuery(FilterCriteria criteria, String retentionPolicy) {
+    public String createQuery(FilterCriteria criteria, String retentionPolicy, @Nullable Duration aggregationWindow) {
         final String tableName;
         boolean hasCriteriaName = criteria.getItemName() != null;
         if (hasCriteriaName) {
@@ -45,8 +49,10 @@ public class Influx1FilterCriteriaQueryCreatorImpl implements FilterCriteriaQuer
             tableName = "/.*/";
         }
 
-        Select select = select(COLUMN_VALUE_NAME_V1).fromRaw(null,
-                fullQualifiedTableName(retentionPolicy, tableName, hasCriteriaName));
+        final String table = fullQualifiedTableName(retentionPolicy, tableName, hasCriteriaName);
+        Select select = aggregationWindow != null
+                ? select().mean(COLUMN_VALUE_NAME_V1).as(COLUMN_VALUE_NAME_V1).fromRaw(null, table)
+                : select(COLUMN_VALUE_NAME_V1).fromRaw(null, table);
 
         Where where = select.where();
         if (criteria.getBeginDate() != null) {
@@ -64,6 +70,10 @@ public class Influx1FilterCriteriaQueryCreatorImpl implements FilterCriteriaQuer
                     stateToObject(criteria.getState())));
         }
 
+        if (aggregationWindow != null) {
+            select = select.groupBy(time(aggregationWindow.toMillis(), DurationLiteral.MILLISECOND));
+        }
+
         if (criteria.getOrdering() == FilterCriteria.Ordering.DESCENDING) {
             select = select.orderBy(desc());
         } else if (criteria.getOrdering() == FilterCriteria.Ordering.ASCENDING) {
@@ -14,11 +14,11 @@ package org.openhab.persistence.influxdb.internal.influx1;
 
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.COLUMN_TIME_NAME_V1;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.COLUMN_VALUE_NAME_V1;
-import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.FIELD_VALUE_NAME;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -27,15 +27,13 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.influxdb.InfluxDB;
 import org.influxdb.InfluxDBFactory;
-import org.influxdb.dto.Point;
 import org.influxdb.dto.Pong;
 import org.influxdb.dto.Query;
 import org.influxdb.dto.QueryResult;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
-import org.openhab.persistence.influxdb.internal.InfluxPoint;
 import org.openhab.persistence.influxdb.internal.InfluxRow;
-import org.openhab.persistence.influxdb.internal.UnnexpectedConditionException;
+import org.openhab.persistence.influxdb.internal.InfluxRowIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -67,7 +65,9 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
                 configuration.getPassword());
         createdClient.setDatabase(configuration.getDatabaseName());
         createdClient.setRetentionPolicy(configuration.getRetentionPolicy());
-        createdClient.enableBatch(200, 100, TimeUnit.MILLISECONDS);
+        if (configuration.isGzip()) {
+            createdClient.enableGzip();
+        }
         this.client = createdClient;
         return checkConnectionStatus();
     }
@@ -110,35 +110,20 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
     }
 
     @Override
-    public void write(InfluxPoint point) {
+    public boolean write(List<String> lines) {
         final InfluxDB currentClient = this.client;
         if (currentClient != null) {
-            Point clientPoint = convertPointToClientFormat(point);
-            currentClient.write(configuration.getDatabaseName(), configuration.getRetentionPolicy(), clientPoint);
-        } else {
-            logger.warn("Write point {} ignored due to client isn't connected", point);
-        }
-    }
-
-    private Point convertPointToClientFormat(InfluxPoint point) {
-        Point.Builder clientPoint = Point.measurement(point.getMeasurementName()).time(point.getTime().toEpochMilli(),
-                TimeUnit.MILLISECONDS);
-        setPointValue(point.getValue(), clientPoint);
-        point.getTags().entrySet().forEach(e -> clientPoint.tag(e.getKey(), e.getValue()));
-        return clientPoint.build();
-    }
-
-    private void setPointValue(@Nullable Object value, Point.Builder point) {
-        if (value instanceof String) {
-            point.addField(FIELD_VALUE_NAME, (String) value);
-        } else if (value instanceof Number) {
-            point.addField(FIELD_VALUE_NAME, (Number) value);
-        } else if (value instanceof Boolean) {
-            point.addField(FIELD_VALUE_NAME, (Boolean) value);
-        } else if (value == null) {
-            point.addField(FIELD_VALUE_NAME, (String) null);
+            try {
+                currentClient.write(configuration.getDatabaseName(), configuration.getRetentionPolicy(),
+                        InfluxDB.ConsistencyLevel.ONE, TimeUnit.MILLISECONDS, lines);
+                return true;
+            } catch (RuntimeException e) {
+                handleDatabaseException(e);
+                return false;
+            }
         } else {
-            throw new UnnexpectedConditionException("Not expected value type");
+            logger.warn("Write of {} points postponed due to client isn't connected", lines.size());
+            return false;
         }
     }
 
@@ -155,6 +140,36 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
         }
     }
 
+    @Override
+    public Iterator<InfluxRow> queryIterator(String query) {
+        final InfluxDB currentClient = client;
+        if (currentClient != null) {
+            int chunkSize = Math.max(1, configuration.getQueryChunkSize());
+            InfluxRowIterator rows = new InfluxRowIterator(chunkSize);
+            Query parsedQuery = new Query(query, configuration.getDatabaseName());
+            // chunks are received asynchronously, the end of the result is signaled as "DONE" error
+            currentClient.query(parsedQuery, chunkSize, (cancellable, chunk) -> {
+                String error = chunk.getError();
+                if (error != null) {
+                    if (!"DONE".equals(error)) {
+                        rows.fail(new IllegalStateException(error));
+                    }
+                    return;
+                }
+                for (InfluxRow row : convertClientResutToRepository(chunk.getResults())) {
+                    if (!rows.offer(row)) {
+                        cancellable.cancel();
+                        return;
+                    }
+                }
+            }, rows::complete, rows::fail);
+            return rows;
+        } else {
+            logger.warn("Returning empty result because client isn't connected");
+            return Collections.emptyIterator();
+        }
+    }
+
     private List<InfluxRow> convertClientResutToRepository(List<QueryResult.Result> results) {
         List<InfluxRow> rows = new ArrayList<>();
         for (QueryResult.Result result : results) {
@@ -190,9 +205,15 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
                                 throw new IllegalStateException("missing column");
                             }
                             for (int i = 0; i < valuess.size(); i++) {
-                                Double rawTime = (Double) valuess.get(i).get(timestampColumn);
-                                Instant time = Instant.ofEpochMilli(rawTime.longValue());
+                                Object rawTime = valuess.get(i).get(timestampColumn);
+                                // chunked queries don't support a precision and return RFC3339 strings
+                                Instant time = rawTime instanceof String ? Instant.parse((String) rawTime)
+                                        : Instant.ofEpochMilli(((Number) rawTime).longValue());
                                 Object value = valuess.get(i).get(valueColumn);
+                                if (value == null) {
+                                    // empty window of an aggregated query
+                                    continue;
+                                }
                                 logger.trace("adding historic item {}: time {} value {}", itemName, time, value);
                                 rows.add(new InfluxRow(time, itemName, value));
                             }
@@ -16,6 +16,7 @@ import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 
 import java.time.Instant;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,9 +28,8 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBConstants;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
-import org.openhab.persistence.influxdb.internal.InfluxPoint;
 import org.openhab.persistence.influxdb.internal.InfluxRow;
-import org.openhab.persistence.influxdb.internal.UnnexpectedConditionException;
+import org.openhab.persistence.influxdb.internal.InfluxRowIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,10 +37,10 @@ import com.influxdb.client.InfluxDBClient;
 import com.influxdb.client.InfluxDBClientFactory;
 import com.influxdb.client.InfluxDBClientOptions;
 import com.influxdb.client.QueryApi;
-import com.influxdb.client.WriteApi;
+import com.influxdb.client.WriteApiBlocking;
 import com.influxdb.client.domain.Ready;
 import com.influxdb.client.domain.WritePrecision;
-import com.influxdb.client.write.Point;
+import com.influxdb.query.FluxRecord;
 import com.influxdb.query.FluxTable;
 
 /**
@@ -57,7 +57,7 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
     @Nullable
     private QueryApi queryAPI;
     @Nullable
-    private WriteApi writeAPI;
+    private WriteApiBlocking writeAPI;
 
     public InfluxDB2RepositoryImpl(InfluxDBConfiguration configuration) {
         this.configuration = configuration;
@@ -91,10 +91,13 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
         InfluxDBClientOptions clientOptions = optionsBuilder.build();
 
         final InfluxDBClient createdClient = InfluxDBClientFactory.create(clientOptions);
+        if (configuration.isGzip()) {
+            createdClient.enableGzip();
+        }
         this.client = createdClient;
         logger.debug("Succesfully connected to InfluxDB. Instance ready={}", createdClient.ready());
         queryAPI = createdClient.getQueryApi();
-        writeAPI = createdClient.getWriteApi();
+        writeAPI = createdClient.getWriteApiBlocking();
         return checkConnectionStatus();
     }
 
@@ -134,38 +137,25 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
     }
 
     /**
-     * Write point to database
+     * Write line protocol records to database
      *
-     * @param point
+     * @param lines Records with millisecond precision
+     * @return True if the records have been written
      */
     @Override
-    public void write(InfluxPoint point) {
-        final WriteApi currentWriteAPI = writeAPI;
+    public boolean write(List<String> lines) {
+        final WriteApiBlocking currentWriteAPI = writeAPI;
         if (currentWriteAPI != null) {
-            currentWriteAPI.writePoint(convertPointToClientFormat(point));
-        } else {
-            logger.warn("Write point {} ignored due to writeAPI isn't present", point);
-        }
-    }
-
-    private Point convertPointToClientFormat(InfluxPoint point) {
-        Point clientPoint = Point.measurement(point.getMeasurementName()).time(point.getTime(), WritePrecision.MS);
-        setPointValue(point.getValue(), clientPoint);
-        point.getTags().entrySet().forEach(e -> clientPoint.addTag(e.getKey(), e.getValue()));
-        return clientPoint;
-    }
-
-    private void setPointValue(@Nullable Object value, Point point) {
-        if (value instanceof String) {
-            point.addField(FIELD_VALUE_NAME, (String) value);
-        } else if (value instanceof Number) {
-            point.addField(FIELD_VALUE_NAME, (Number) value);
-        } else if (value instanceof Boolean) {
-            point.addField(FIELD_VALUE_NAME, (Boolean) value);
-        } else if (value == null) {
-            point.addField(FIELD_VALUE_NAME, (String) null);
+            try {
+                currentWriteAPI.writeRecords(WritePrecision.MS, lines);
+                return true;
+            } catch (RuntimeException e) {
+                logger.warn("Write of {} points failed: {}", lines.size(), e.getMessage());
+                return false;
+            }
         } else {
-            throw new UnnexpectedConditionException("Not expected value type");
+            logger.warn("Write of {} points postponed due to writeAPI isn't present", lines.size());
+            return false;
         }
     }
 
@@ -187,17 +177,42 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
         }
     }
 
+    /**
+     * Executes Flux query and streams the records as they are parsed from the response
+     *
+     * @param query Query
+     * @return Iterator over the query results
+     */
+    @Override
+    public Iterator<InfluxRow> queryIterator(String query) {
+        final QueryApi currentQueryAPI = queryAPI;
+        if (currentQueryAPI != null) {
+            InfluxRowIterator rows = new InfluxRowIterator(configuration.getQueryChunkSize());
+            currentQueryAPI.query(query, (cancellable, record) -> {
+                if (!rows.offer(mapRecordToRow(record))) {
+                    cancellable.cancel();
+                }
+            }, rows::fail, rows::complete);
+            return rows;
+        } else {
+            logger.warn("Returning empty result because queryAPI isn't present");
+            return Collections.emptyIterator();
+        }
+    }
+
     private List<InfluxRow> convertClientResutToRepository(List<FluxTable> clientResult) {
         return clientResult.stream().flatMap(this::mapRawResultToHistoric).collect(Collectors.toList());
     }
 
     private Stream<InfluxRow> mapRawResultToHistoric(FluxTable rawRow) {
-        return rawRow.getRecords().stream().map(r -> {
-            String itemName = (String) r.getValueByKey(InfluxDBConstants.TAG_ITEM_NAME);
-            Object value = r.getValueByKey(COLUMN_VALUE_NAME_V2);
-            Instant time = (Instant) r.getValueByKey(COLUMN_TIME_NAME_V2);
-            return new InfluxRow(time, itemName, value);
-        });
+        return rawRow.getRecords().stream().map(this::mapRecordToRow);
+    }
+
+    private InfluxRow mapRecordToRow(FluxRecord r) {
+        String itemName = (String) r.getValueByKey(InfluxDBConstants.TAG_ITEM_NAME);
+        Object value = r.getValueByKey(COLUMN_VALUE_NAME_V2);
+        Instant time = (Instant) r.getValueByKey(COLUMN_TIME_NAME_V2);
+        return new InfluxRow(time, itemName, value);
     }
 
     /**
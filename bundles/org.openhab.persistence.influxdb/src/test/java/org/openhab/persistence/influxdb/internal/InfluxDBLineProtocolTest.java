@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBLineProtocolTest {
+    private static final Instant TIME = Instant.ofEpochMilli(1558302027124L);
+
+    @Test
+    public void numberValuesAreConverted() {
+        assertThat(InfluxDBLineProtocol.toLine(point("temp", new BigDecimal("21.50"))),
+                is("temp,item=temp value=21.50 1558302027124"));
+        assertThat(InfluxDBLineProtocol.toLine(point("switch", 1)), is("switch,item=switch value=1i 1558302027124"));
+        assertThat(InfluxDBLineProtocol.toLine(point("time", 1558302027124L)),
+                is("time,item=time value=1558302027124i 1558302027124"));
+        assertThat(InfluxDBLineProtocol.toLine(point("double", 1e20)),
+                is("double,item=double value=100000000000000000000 1558302027124"));
+        assertThat(InfluxDBLineProtocol.toLine(point("double", Double.NaN)), is(nullValue()));
+    }
+
+    @Test
+    public void stringValuesAreQuotedAndEscaped() {
+        assertThat(InfluxDBLineProtocol.toLine(point("text", "say \"hi\" \\o/")),
+                is("text,item=text value=\"say \\\"hi\\\" \\\\o/\" 1558302027124"));
+    }
+
+    @Test
+    public void measurementAndTagsAreEscapedAndSorted() {
+        InfluxPoint point = InfluxPoint.newBuilder("my measurement,1").withTime(TIME).withValue(true)
+                .withTag("item", "my item").withTag("label", "a=b").withTag("category", "").build();
+        assertThat(InfluxDBLineProtocol.seriesKey(point), is("my\\ measurement\\,1,item=my\\ item,label=a\\=b"));
+        assertThat(InfluxDBLineProtocol.toLine(point),
+                is("my\\ measurement\\,1,item=my\\ item,label=a\\=b value=true 1558302027124"));
+    }
+
+    private static InfluxPoint point(String name, Object value) {
+        return InfluxPoint.newBuilder(name).withTime(TIME).withValue(value).withTag("item", name).build();
+    }
+}
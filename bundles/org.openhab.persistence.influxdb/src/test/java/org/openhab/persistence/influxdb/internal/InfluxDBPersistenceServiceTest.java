@@ -12,9 +12,17 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
-import static org.mockito.ArgumentMatchers.any;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.AdditionalMatchers.not;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.Mockito.*;
 
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.jdt.annotation.DefaultLocation;
@@ -23,10 +31,13 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.items.MetadataRegistry;
+import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.persistence.influxdb.InfluxDBPersistenceService;
 
 /**
@@ -38,17 +49,25 @@ public class InfluxDBPersistenceServiceTest {
     private InfluxDBPersistenceService instance;
 
     private @Mock InfluxDBRepository influxDBRepository;
+    private @Mock ItemRegistry itemRegistry;
+
+    private @TempDir Path tempDir;
 
     private Map<String, Object> validConfig;
     private Map<String, Object> invalidConfig;
 
     @BeforeEach
     public void before() {
-        instance = new InfluxDBPersistenceService(mock(ItemRegistry.class), mock(MetadataRegistry.class)) {
+        instance = new InfluxDBPersistenceService(itemRegistry, mock(MetadataRegistry.class)) {
             @Override
             protected InfluxDBRepository createInfluxDBRepository() {
                 return influxDBRepository;
             }
+
+            @Override
+            protected Path getDiskBufferFile() {
+                return tempDir.resolve("buffer.dat");
+            }
         };
 
         validConfig = ConfigurationTestHelper.createValidConfigurationParameters();
@@ -90,10 +109,22 @@ public class InfluxDBPersistenceServiceTest {
 
     @Test
     public void storeItemWithConnectedRepository() {
+        instance.activate(validConfig);
+        when(influxDBRepository.isConnected()).thenReturn(true);
+        when(influxDBRepository.write(anyList())).thenReturn(true);
+        instance.store(ItemTestHelper.createNumberItem("number", 5));
+        instance.deactivate();
+        verify(influxDBRepository).write(anyList());
+    }
+
+    @Test
+    public void storeItemWithUnreachableServerIsKeptInDiskBuffer() {
         instance.activate(validConfig);
         when(influxDBRepository.isConnected()).thenReturn(true);
         instance.store(ItemTestHelper.createNumberItem("number", 5));
-        verify(influxDBRepository).write(any());
+        instance.deactivate();
+        verify(influxDBRepository).write(anyList());
+        assertThat(new InfluxDBDiskBuffer(tempDir.resolve("buffer.dat"), 1024).readAll().size(), is(1));
     }
 
     @Test
@@ -101,6 +132,58 @@ public class InfluxDBPersistenceServiceTest {
         instance.activate(validConfig);
         when(influxDBRepository.isConnected()).thenReturn(false);
         instance.store(ItemTestHelper.createNumberItem("number", 5));
-        verify(influxDBRepository, never()).write(any());
+        instance.deactivate();
+        verify(influxDBRepository, never()).write(anyList());
+    }
+
+    @Test
+    public void queryIsAggregatedWithQueryMaxPoints() throws ItemNotFoundException {
+        validConfig.put(InfluxDBConfiguration.QUERY_MAX_POINTS_PARAM, 100);
+        validConfig.put(InfluxDBConfiguration.QUERY_CHUNK_SIZE_PARAM, 0);
+        instance.activate(validConfig);
+        when(influxDBRepository.isConnected()).thenReturn(true);
+        when(itemRegistry.getItem("number")).thenReturn(ItemTestHelper.createNumberItem("number", 5));
+        when(influxDBRepository.query(anyString())).thenReturn(List.of());
+
+        instance.query(dayFilter());
+        instance.deactivate();
+
+        verify(influxDBRepository).query(contains("aggregateWindow("));
+    }
+
+    @Test
+    public void pagedQueryIsNotAggregated() {
+        validConfig.put(InfluxDBConfiguration.QUERY_MAX_POINTS_PARAM, 100);
+        validConfig.put(InfluxDBConfiguration.QUERY_CHUNK_SIZE_PARAM, 0);
+        instance.activate(validConfig);
+        when(influxDBRepository.isConnected()).thenReturn(true);
+        when(influxDBRepository.query(anyString())).thenReturn(List.of());
+
+        FilterCriteria filter = dayFilter();
+        filter.setPageSize(10);
+        instance.query(filter);
+        instance.deactivate();
+
+        verify(influxDBRepository).query(not(contains("aggregateWindow(")));
+    }
+
+    @Test
+    public void queryIsNotAggregatedByDefault() {
+        validConfig.put(InfluxDBConfiguration.QUERY_CHUNK_SIZE_PARAM, 0);
+        instance.activate(validConfig);
+        when(influxDBRepository.isConnected()).thenReturn(true);
+        when(influxDBRepository.query(anyString())).thenReturn(List.of());
+
+        instance.query(dayFilter());
+        instance.deactivate();
+
+        verify(influxDBRepository).query(not(contains("aggregateWindow(")));
+    }
+
+    private FilterCriteria dayFilter() {
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName("number");
+        filter.setBeginDate(ZonedDateTime.now().minusDays(1));
+        return filter;
     }
 }
@@ -12,9 +12,11 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -159,6 +161,23 @@ public class InfluxFilterCriteriaQueryCreatorImplTest {
                         + "|> sort(desc:false, columns:[\"_time\"])"));
     }
 
+    @Test
+    public void testAggregationWindow() {
+        FilterCriteria criteria = createBaseCriteria();
+        criteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+
+        String query = instanceV1.createQuery(criteria, RETENTION_POLICY, Duration.ofMinutes(1));
+        assertThat(query.toLowerCase(), containsString("select mean(value) as value from origin.sampleitem"));
+        assertThat(query.toLowerCase(), containsString("group by time(60000ms)"));
+
+        String queryV2 = instanceV2.createQuery(criteria, RETENTION_POLICY, Duration.ofMinutes(1));
+        assertThat(queryV2,
+                equalTo("from(bucket:\"origin\")\n\t" + "|> range(start:-100y)\n\t"
+                        + "|> filter(fn: (r) => r[\"_measurement\"] == \"sampleItem\")\n\t"
+                        + "|> aggregateWindow(every: 60000ms, fn: mean, timeSrc: \"_start\", createEmpty: false)\n\t"
+                        + "|> sort(desc:false, columns:[\"_time\"])"));
+    }
+
     private FilterCriteria createBaseCriteria() {
         return createBaseCriteria(ITEM_NAME);
     }
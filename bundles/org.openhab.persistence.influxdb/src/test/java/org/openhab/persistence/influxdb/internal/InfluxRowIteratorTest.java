@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.time.Instant;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxRowIteratorTest {
+
+    @Test
+    public void rowsProducedByAnotherThreadAreIteratedInOrder() throws InterruptedException {
+        InfluxRowIterator rows = new InfluxRowIterator(2);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 100; i++) {
+                rows.offer(new InfluxRow(Instant.ofEpochMilli(i), "item", i));
+            }
+            rows.complete();
+        });
+        producer.start();
+
+        int count = 0;
+        while (rows.hasNext()) {
+            assertThat(rows.next().getValue(), is(count));
+            count++;
+        }
+        producer.join();
+
+        assertThat(count, is(100));
+        assertThat(rows.hasNext(), is(false));
+    }
+
+    @Test
+    public void failedQueryEndsIteration() {
+        InfluxRowIterator rows = new InfluxRowIterator(10);
+        rows.offer(new InfluxRow(Instant.EPOCH, "item", 1));
+        rows.fail(new IllegalStateException("test"));
+
+        assertThat(rows.next().getValue(), is(1));
+        assertThat(rows.hasNext(), is(false));
+    }
+
+    @Test
+    public void failureEndsIterationWithError() {
+        InfluxRowIterator rows = new InfluxRowIterator(10);
+        IllegalStateException error = new IllegalStateException("connection lost");
+        rows.fail(error);
+
+        assertThat(rows.hasNext(), is(false));
+        assertThat(rows.getError(), is(error));
+    }
+
+    @Test
+    public void completeIsIdempotent() {
+        InfluxRowIterator rows = new InfluxRowIterator(2);
+        rows.offer(new InfluxRow(Instant.EPOCH, "item", 1));
+        rows.complete();
+        // the queue is full now, a second end marker would block the producer until the timeout
+        rows.complete();
+        rows.fail(new IllegalStateException("late failure"));
+
+        assertThat(rows.next().getValue(), is(1));
+        assertThat(rows.hasNext(), is(false));
+        assertThat(rows.getError(), is(nullValue()));
+    }
+}
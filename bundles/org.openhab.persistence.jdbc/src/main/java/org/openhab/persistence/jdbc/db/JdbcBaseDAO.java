@@ -13,15 +13,19 @@
 package org.openhab.persistence.jdbc.db;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.measure.Quantity;
@@ -71,6 +75,7 @@ public class JdbcBaseDAO {
     public final Properties databaseProps = new Properties();
     protected String urlSuffix = "";
     public final Map<String, String> sqlTypes = new HashMap<>();
+    private final Map<String, String> histItemFilterQueries = new ConcurrentHashMap<>();
 
     // Get Database Meta data
     protected DbMetaData dbMeta;
@@ -85,6 +90,7 @@ public class JdbcBaseDAO {
     protected String sqlGetItemTables;
     protected String sqlCreateItemTable;
     protected String sqlInsertItemValue;
+    protected String sqlInsertItemValueTimeParameter;
 
     /********
      * INIT *
@@ -144,6 +150,7 @@ public class JdbcBaseDAO {
         sqlGetItemTables = "SELECT table_name FROM information_schema.tables WHERE table_type='BASE TABLE' AND table_schema='#jdbcUriDatabaseName#' AND NOT table_name='#itemsManageTable#'";
         sqlCreateItemTable = "CREATE TABLE IF NOT EXISTS #tableName# (time #tablePrimaryKey# NOT NULL, value #dbType#, PRIMARY KEY(time))";
         sqlInsertItemValue = "INSERT INTO #tableName# (TIME, VALUE) VALUES( #tablePrimaryValue#, ? ) ON DUPLICATE KEY UPDATE VALUE= ?";
+        sqlInsertItemValueTimeParameter = "?";
     }
 
     /**
@@ -314,6 +321,7 @@ public class JdbcBaseDAO {
         if (!vol.isEmpty()) {
             String sql = updateItemTableNamesProvider(vol);
             Yank.execute(sql, null);
+            histItemFilterQueries.clear();
         }
     }
 
@@ -327,19 +335,60 @@ public class JdbcBaseDAO {
 
     public void doStoreItemValue(Item item, ItemVO vo) {
         ItemVO storedVO = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#tablePrimaryValue#" },
-                new String[] { storedVO.getTableName(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { storedVO.getValue(), storedVO.getValue() };
+        String sql = insertItemValueSqlProvider(storedVO, sqlTypes.get("tablePrimaryValue"));
+        Object[] params = insertItemValueParamsProvider(storedVO);
         logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, storedVO.getValue());
         Yank.execute(sql, params);
     }
 
+    /**
+     * Converts the current state of the item like {@link #doStoreItemValue(Item, ItemVO)} does, but does not write
+     * it. The value can be written later on by {@link #doStoreItemValues(List)}.
+     *
+     * @param item the item to convert the state of
+     * @param vo value object holding the table name
+     * @param time time of the state change
+     * @return the converted value
+     */
+    public ItemVO doPrepareItemValue(Item item, ItemVO vo, Date time) {
+        ItemVO storedVO = storeItemValueProvider(item, vo);
+        storedVO.setTime(time);
+        return storedVO;
+    }
+
+    /**
+     * Stores a list of already converted values of one item table as a single JDBC batch.
+     * In contrast to {@link #doStoreItemValue(Item, ItemVO)} the time column is not set by the database but bound
+     * from {@link ItemVO#getTime()}, which has been captured when the state was handed to the service.
+     *
+     * @param vol values to store, all of them belonging to the same table
+     * @return number of statements executed
+     */
+    public int doStoreItemValues(List<ItemVO> vol) {
+        if (vol.isEmpty()) {
+            return 0;
+        }
+        String sql = insertItemValueSqlProvider(vol.get(0), sqlInsertItemValueTimeParameter);
+        Object[][] params = new Object[vol.size()][];
+        for (int i = 0; i < vol.size(); i++) {
+            ItemVO vo = vol.get(i);
+            Object[] valueParams = insertItemValueParamsProvider(vo);
+            Object[] rowParams = new Object[valueParams.length + 1];
+            rowParams[0] = timeAsParameter(vo.getTime());
+            System.arraycopy(valueParams, 0, rowParams, 1, valueParams.length);
+            params[i] = rowParams;
+        }
+        logger.debug("JDBC::doStoreItemValues sql={} rows={}", sql, vol.size());
+        Yank.executeBatch(sql, params);
+        return vol.size();
+    }
+
     public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
             String table, String name, ZoneId timeZone) {
-        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
-        logger.debug("JDBC::doGetHistItemFilterQuery sql={}", sql);
-        List<Object[]> m = Yank.queryObjectArrays(sql, null);
+        String sql = getHistItemFilterQuery(filter, numberDecimalcount, table, name, timeZone);
+        Object[] params = histItemFilterQueryParamsProvider(filter, timeZone);
+        logger.debug("JDBC::doGetHistItemFilterQuery sql={} params={}", sql, params);
+        List<Object[]> m = Yank.queryObjectArrays(sql, params);
         // we already retrieve the unit here once as it is a very costly operation
         String itemName = item.getName();
         Unit<? extends Quantity<?>> unit = item instanceof NumberItem ? ((NumberItem) item).getUnit() : null;
@@ -347,10 +396,66 @@ public class JdbcBaseDAO {
                 .collect(Collectors.<HistoricItem> toList());
     }
 
+    /**
+     * Returns the mean values of a numeric item in time buckets of {@code bucketSeconds}, calculated by the database.
+     * The time of each mean value is the time of the first row in its bucket. Paging of the filter is ignored.
+     */
+    public List<HistoricItem> doGetHistItemAggregateQuery(Item item, FilterCriteria filter, int numberDecimalcount,
+            String table, ZoneId timeZone, long bucketSeconds) {
+        String sql = histItemAggregateQueryProvider(filter, table, bucketSeconds);
+        Object[] params = histItemFilterQueryParamsProvider(filter, timeZone);
+        logger.debug("JDBC::doGetHistItemAggregateQuery sql={} params={}", sql, params);
+        List<Object[]> m = Yank.queryObjectArrays(sql, params);
+        String itemName = item.getName();
+        Unit<? extends Quantity<?>> unit = item instanceof NumberItem ? ((NumberItem) item).getUnit() : null;
+        return m.stream().filter(o -> o[1] != null)
+                .map(o -> new JdbcHistoricItem(itemName,
+                        getAggregateState(item, unit, (Number) o[1], numberDecimalcount), objectAsDate(o[0])))
+                .collect(Collectors.<HistoricItem> toList());
+    }
+
+    /**
+     * Returns the filter query for the given table and filter shape. The statement only contains parameters for the
+     * filter values, so the same SQL text is used for all queries of one shape, which allows the database driver and
+     * server to reuse the prepared statement and its plan. The statement text itself is cached.
+     */
+    protected String getHistItemFilterQuery(FilterCriteria filter, int numberDecimalcount, String table, String name,
+            ZoneId timeZone) {
+        String key = table + '|' + name + '|' + numberDecimalcount + '|' + (filter.getBeginDate() != null) + '|'
+                + (filter.getEndDate() != null) + '|' + filter.getOrdering() + '|'
+                + (filter.getPageSize() != 0x7fffffff);
+        String sql = histItemFilterQueries.get(key);
+        if (sql == null) {
+            sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
+            histItemFilterQueries.put(key, sql);
+        }
+        return sql;
+    }
+
     /*************
      * Providers *
      *************/
     static final DateTimeFormatter JDBC_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    static final DateTimeFormatter JDBC_FILTER_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    /**
+     * Returns the parameters of the statement built by
+     * {@link #histItemFilterQueryProvider(FilterCriteria, int, String, String, ZoneId)}.
+     */
+    protected Object[] histItemFilterQueryParamsProvider(FilterCriteria filter, ZoneId timeZone) {
+        List<Object> params = new ArrayList<>(4);
+        if (filter.getBeginDate() != null) {
+            params.add(filterTimeAsParameter(filter.getBeginDate().withZoneSameInstant(timeZone)));
+        }
+        if (filter.getEndDate() != null) {
+            params.add(filterTimeAsParameter(filter.getEndDate().withZoneSameInstant(timeZone)));
+        }
+        if (filter.getPageSize() != 0x7fffffff) {
+            params.add(filter.getPageNumber() * filter.getPageSize());
+            params.add(filter.getPageSize());
+        }
+        return params.toArray();
+    }
 
     protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
             String simpleName, ZoneId timeZone) {
@@ -361,17 +466,15 @@ public class JdbcBaseDAO {
         String filterString = "";
         if (filter.getBeginDate() != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME>'" + JDBC_DATE_FORMAT.format(filter.getBeginDate().withZoneSameInstant(timeZone))
-                    + "'";
+            filterString += " TIME>?";
         }
         if (filter.getEndDate() != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME<'" + JDBC_DATE_FORMAT.format(filter.getEndDate().withZoneSameInstant(timeZone))
-                    + "'";
+            filterString += " TIME<?";
         }
         filterString += (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY time ASC" : " ORDER BY time DESC ";
         if (filter.getPageSize() != 0x7fffffff) {
-            filterString += " LIMIT " + filter.getPageNumber() * filter.getPageSize() + "," + filter.getPageSize();
+            filterString += " LIMIT ?,?";
         }
         // SELECT time, ROUND(value,3) FROM number_item_0114 ORDER BY time DESC LIMIT 0,1
         // rounding HALF UP
@@ -385,6 +488,51 @@ public class JdbcBaseDAO {
         return queryString;
     }
 
+    protected String histItemAggregateQueryProvider(FilterCriteria filter, String table, long bucketSeconds) {
+        String filterString = "";
+        if (filter.getBeginDate() != null) {
+            filterString += filterString.isEmpty() ? " WHERE" : " AND";
+            filterString += " TIME>?";
+        }
+        if (filter.getEndDate() != null) {
+            filterString += filterString.isEmpty() ? " WHERE" : " AND";
+            filterString += " TIME<?";
+        }
+        String queryString = "SELECT MIN(time), AVG(value) FROM " + table + filterString + " GROUP BY "
+                + timeBucketSqlProvider(bucketSeconds)
+                + ((filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY 1 ASC" : " ORDER BY 1 DESC");
+        logger.debug("JDBC::query aggregate queryString = {}", queryString);
+        return queryString;
+    }
+
+    /**
+     * Returns the SQL expression which numbers the time buckets of the given length the time column falls into.
+     */
+    protected String timeBucketSqlProvider(long bucketSeconds) {
+        return "FLOOR(UNIX_TIMESTAMP(time) / " + bucketSeconds + ")";
+    }
+
+    /**
+     * Builds the INSERT statement for one item table.
+     *
+     * @param vo the converted value, providing table name and database type
+     * @param timeValue SQL expression used for the time column, e.g. 'NOW()' or a '?' parameter for batches
+     * @return the statement
+     */
+    protected String insertItemValueSqlProvider(ItemVO vo, String timeValue) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
+                new String[] { vo.getTableName(), vo.getDbType(), timeValue });
+    }
+
+    /**
+     * Returns the value parameters of the statement built by {@link #insertItemValueSqlProvider(ItemVO, String)},
+     * not including the time parameter.
+     */
+    protected Object[] insertItemValueParamsProvider(ItemVO vo) {
+        return new Object[] { vo.getValue(), vo.getValue() };
+    }
+
     private String updateItemTableNamesProvider(List<ItemVO> namesList) {
         logger.debug("JDBC::updateItemTableNamesProvider namesList.size = {}", namesList.size());
         String queryString = "";
@@ -487,6 +635,19 @@ public class JdbcBaseDAO {
     /*****************
      * H E L P E R S *
      *****************/
+    protected State getAggregateState(Item item, @Nullable Unit<? extends Quantity<?>> unit, Number v,
+            int numberDecimalcount) {
+        BigDecimal value = v instanceof BigDecimal ? (BigDecimal) v : new BigDecimal(v.toString());
+        if (item instanceof NumberItem) {
+            if (numberDecimalcount > -1) {
+                value = value.setScale(numberDecimalcount, RoundingMode.HALF_UP);
+            }
+            return unit == null ? new DecimalType(value) : QuantityType.valueOf(value.doubleValue(), unit);
+        }
+        // DimmerItem, RollershutterItem
+        return new PercentType(value.setScale(0, RoundingMode.HALF_UP));
+    }
+
     protected State getState(Item item, @Nullable Unit<? extends Quantity<?>> unit, Object v) {
         logger.debug(
                 "JDBC::ItemResultHandler::handleResult getState value = '{}', unit = '{}', getClass = '{}', clazz = '{}'",
@@ -541,6 +702,18 @@ public class JdbcBaseDAO {
         return ((java.sql.Timestamp) v).getTime();
     }
 
+    /**
+     * Converts a begin or end date of a filter, already in the configured time zone, into a statement parameter. The
+     * milliseconds are kept, so the time of a returned row can be used as exclusive bound of the next page.
+     */
+    protected Object filterTimeAsParameter(ZonedDateTime date) {
+        return JDBC_FILTER_DATE_FORMAT.format(date);
+    }
+
+    protected Object timeAsParameter(Date time) {
+        return new Timestamp(time.getTime());
+    }
+
     protected Integer objectAsInteger(Object v) {
         if (v instanceof Byte) {
             return ((Byte) v).intValue();
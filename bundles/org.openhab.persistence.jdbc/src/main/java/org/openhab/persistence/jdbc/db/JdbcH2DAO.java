@@ -12,10 +12,7 @@
  */
 package org.openhab.persistence.jdbc.db;
 
-import org.knowm.yank.Yank;
-import org.openhab.core.items.Item;
 import org.openhab.persistence.jdbc.model.ItemVO;
-import org.openhab.persistence.jdbc.utils.StringUtilsExt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,21 +67,20 @@ public class JdbcH2DAO extends JdbcBaseDAO {
     /*************
      * ITEM DAOs *
      *************/
-    @Override
-    public void doStoreItemValue(Item item, ItemVO vo) {
-        vo = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
-                new String[] { vo.getTableName(), vo.getDbType(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { vo.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, vo.getValue());
-        Yank.execute(sql, params);
-    }
-
     /****************************
      * SQL generation Providers *
      ****************************/
 
+    @Override
+    protected Object[] insertItemValueParamsProvider(ItemVO vo) {
+        return new Object[] { vo.getValue() };
+    }
+
+    @Override
+    protected String timeBucketSqlProvider(long bucketSeconds) {
+        return "FLOOR(DATEDIFF('SECOND', TIMESTAMP '1970-01-01 00:00:00', time) / " + bucketSeconds + ")";
+    }
+
     /*****************
      * H E L P E R S *
      *****************/
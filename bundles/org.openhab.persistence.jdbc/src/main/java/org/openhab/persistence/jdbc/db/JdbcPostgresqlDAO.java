@@ -12,11 +12,12 @@
  */
 package org.openhab.persistence.jdbc.db;
 
+import java.sql.Timestamp;
 import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.List;
 
 import org.knowm.yank.Yank;
-import org.openhab.core.items.Item;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.persistence.jdbc.model.ItemVO;
@@ -84,10 +85,10 @@ public class JdbcPostgresqlDAO extends JdbcBaseDAO {
      * INFO: https://github.com/brettwooldridge/HikariCP
      */
     private void initDbProps() {
-        // Performance:
-        // databaseProps.setProperty("dataSource.cachePrepStmts", "true");
-        // databaseProps.setProperty("dataSource.prepStmtCacheSize", "250");
-        // databaseProps.setProperty("dataSource.prepStmtCacheSqlLimit", "2048");
+        // Performance: filter queries are parameterized, let the driver switch to server side prepared statements
+        // after the second execution of the same statement on a connection
+        databaseProps.setProperty("dataSource.prepareThreshold", "2");
+        databaseProps.setProperty("dataSource.preparedStatementCacheQueries", "512");
 
         // Properties for HikariCP
         databaseProps.setProperty("driverClassName", "org.postgresql.Driver");
@@ -130,21 +131,15 @@ public class JdbcPostgresqlDAO extends JdbcBaseDAO {
     /*************
      * ITEM DAOs *
      *************/
-    @Override
-    public void doStoreItemValue(Item item, ItemVO vo) {
-        vo = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
-                new String[] { vo.getTableName(), vo.getDbType(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { vo.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, vo.getValue());
-        Yank.execute(sql, params);
-    }
-
     /****************************
      * SQL generation Providers *
      ****************************/
 
+    @Override
+    protected Object[] insertItemValueParamsProvider(ItemVO vo) {
+        return new Object[] { vo.getValue() };
+    }
+
     @Override
     protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
             String simpleName, ZoneId timeZone) {
@@ -155,20 +150,17 @@ public class JdbcPostgresqlDAO extends JdbcBaseDAO {
         String filterString = "";
         if (filter.getBeginDate() != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME>'" + JDBC_DATE_FORMAT.format(filter.getBeginDate().withZoneSameInstant(timeZone))
-                    + "'";
+            filterString += " TIME>?";
         }
         if (filter.getEndDate() != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME<'" + JDBC_DATE_FORMAT.format(filter.getEndDate().withZoneSameInstant(timeZone))
-                    + "'";
+            filterString += " TIME<?";
         }
         filterString += (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY time ASC" : " ORDER BY time DESC";
         if (filter.getPageSize() != 0x7fffffff) {
             // see:
             // http://www.jooq.org/doc/3.5/manual/sql-building/sql-statements/select-statement/limit-clause/
-            filterString += " OFFSET " + filter.getPageNumber() * filter.getPageSize() + " LIMIT "
-                    + filter.getPageSize();
+            filterString += " OFFSET ? LIMIT ?";
         }
         String queryString = "NUMBERITEM".equalsIgnoreCase(simpleName) && numberDecimalcount > -1
                 ? "SELECT time, ROUND(CAST (value AS numeric)," + numberDecimalcount + ") FROM " + table
@@ -180,10 +172,23 @@ public class JdbcPostgresqlDAO extends JdbcBaseDAO {
         return queryString;
     }
 
+    @Override
+    protected String timeBucketSqlProvider(long bucketSeconds) {
+        return "FLOOR(EXTRACT(EPOCH FROM time) / " + bucketSeconds + ")";
+    }
+
     /*****************
      * H E L P E R S *
      *****************/
 
+    /**
+     * A string parameter would be sent as varchar, which cannot be compared with a timestamp column.
+     */
+    @Override
+    protected Object filterTimeAsParameter(ZonedDateTime date) {
+        return Timestamp.valueOf(date.toLocalDateTime());
+    }
+
     /******************************
      * public Getters and Setters *
      ******************************/
@@ -12,8 +12,12 @@
  */
 package org.openhab.persistence.jdbc.db;
 
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
 import org.knowm.yank.Yank;
-import org.openhab.core.items.Item;
 import org.openhab.persistence.jdbc.model.ItemVO;
 import org.openhab.persistence.jdbc.model.ItemsVO;
 import org.openhab.persistence.jdbc.utils.StringUtilsExt;
@@ -30,6 +34,9 @@ import org.slf4j.LoggerFactory;
 public class JdbcSqliteDAO extends JdbcBaseDAO {
     private final Logger logger = LoggerFactory.getLogger(JdbcSqliteDAO.class);
 
+    private static final DateTimeFormatter SQLITE_DATE_FORMAT = DateTimeFormatter
+            .ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
     /********
      * INIT *
      ********/
@@ -89,25 +96,32 @@ public class JdbcSqliteDAO extends JdbcBaseDAO {
     /*************
      * ITEM DAOs *
      *************/
-    @Override
-    public void doStoreItemValue(Item item, ItemVO vo) {
-        vo = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
-                new String[] { vo.getTableName(), vo.getDbType(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { vo.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, vo.getValue());
-        Yank.execute(sql, params);
-    }
-
     /****************************
      * SQL generation Providers *
      ****************************/
 
+    @Override
+    protected Object[] insertItemValueParamsProvider(ItemVO vo) {
+        return new Object[] { vo.getValue() };
+    }
+
+    @Override
+    protected String timeBucketSqlProvider(long bucketSeconds) {
+        return "CAST(strftime('%s', time) AS INTEGER) / " + bucketSeconds;
+    }
+
     /*****************
      * H E L P E R S *
      *****************/
 
+    /**
+     * SQLite has no native timestamp type, the time column holds the local time as text like 'tablePrimaryValue'.
+     */
+    @Override
+    protected Object timeAsParameter(Date time) {
+        return SQLITE_DATE_FORMAT.format(ZonedDateTime.ofInstant(time.toInstant(), ZoneId.systemDefault()));
+    }
+
     /******************************
      * public Getters and Setters *
      ******************************/
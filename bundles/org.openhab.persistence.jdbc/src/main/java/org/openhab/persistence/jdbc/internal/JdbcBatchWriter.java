@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.persistence.jdbc.model.ItemVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Buffers converted item values and writes them asynchronously, grouped by item table, as JDBC batches.
+ *
+ * A flush is triggered every {@code commitIntervalMillis} or as soon as {@code flushSize} values are pending. If the
+ * buffer is full, the calling thread flushes the buffer itself, which throttles the producers to the speed of the
+ * database instead of growing the heap.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcBatchWriter {
+    private final Logger logger = LoggerFactory.getLogger(JdbcBatchWriter.class);
+
+    private final JdbcMapper mapper;
+    private final ScheduledExecutorService scheduler;
+    private final BlockingQueue<ItemVO> buffer;
+    private final int flushSize;
+    private final long commitIntervalMillis;
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+    private @Nullable ScheduledFuture<?> flushJob;
+
+    // statistics
+    private final AtomicLong storedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong backPressureCount = new AtomicLong();
+    private volatile long lastFlushMillis;
+    private volatile long maxFlushMillis;
+
+    public JdbcBatchWriter(JdbcMapper mapper, ScheduledExecutorService scheduler, int bufferSize, int flushSize,
+            long commitIntervalMillis) {
+        this.mapper = mapper;
+        this.scheduler = scheduler;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.flushSize = Math.max(1, Math.min(flushSize, bufferSize));
+        this.commitIntervalMillis = commitIntervalMillis;
+    }
+
+    public void start() {
+        flushJob = scheduler.scheduleWithFixedDelay(this::flushSafely, commitIntervalMillis, commitIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        logger.debug("JDBC::JdbcBatchWriter: started, bufferSize={} flushSize={} commitIntervalMillis={}",
+                buffer.remainingCapacity(), flushSize, commitIntervalMillis);
+    }
+
+    /**
+     * Stops the periodic flush and writes all values still pending.
+     */
+    public void stop() {
+        ScheduledFuture<?> job = flushJob;
+        if (job != null) {
+            job.cancel(false);
+            flushJob = null;
+        }
+        flushSafely();
+        logger.debug("JDBC::JdbcBatchWriter: stopped, {}", getStatistics());
+    }
+
+    /**
+     * Queues a value for writing. Returns immediately unless the buffer is full.
+     *
+     * @param vo converted value with table name and time set
+     */
+    public void add(ItemVO vo) {
+        if (!buffer.offer(vo)) {
+            backPressureCount.incrementAndGet();
+            logger.debug("JDBC::JdbcBatchWriter: buffer full, flushing on calling thread");
+            flush();
+            if (!buffer.offer(vo)) {
+                failedCount.incrementAndGet();
+                logger.warn("JDBC::JdbcBatchWriter: buffer still full, value for table '{}' is dropped",
+                        vo.getTableName());
+                return;
+            }
+        }
+        if (buffer.size() >= flushSize && flushPending.compareAndSet(false, true)) {
+            scheduler.execute(this::flushSafely);
+        }
+    }
+
+    /**
+     * Writes all pending values. Values of one table are written with a single batch statement.
+     */
+    public synchronized void flush() {
+        flushPending.set(false);
+        List<ItemVO> pending = new ArrayList<>(buffer.size());
+        buffer.drainTo(pending);
+        if (pending.isEmpty()) {
+            return;
+        }
+        long timerStart = System.currentTimeMillis();
+        Map<String, List<ItemVO>> tables = new LinkedHashMap<>();
+        for (ItemVO vo : pending) {
+            List<ItemVO> vol = tables.computeIfAbsent(vo.getTableName(), k -> new ArrayList<>());
+            int last = vol.size() - 1;
+            if (last >= 0 && vol.get(last).getTime().equals(vo.getTime())) {
+                // same primary key, only the latest value survives
+                vol.set(last, vo);
+            } else {
+                vol.add(vo);
+            }
+        }
+        for (List<ItemVO> vol : tables.values()) {
+            try {
+                storedCount.addAndGet(mapper.storeItemValues(vol));
+            } catch (RuntimeException e) {
+                logger.debug("JDBC::JdbcBatchWriter: batch of {} values for table '{}' failed, retrying row by row: {}",
+                        vol.size(), vol.get(0).getTableName(), e.getMessage());
+                storeRowByRow(vol);
+            }
+        }
+        long duration = System.currentTimeMillis() - timerStart;
+        lastFlushMillis = duration;
+        if (duration > maxFlushMillis) {
+            maxFlushMillis = duration;
+        }
+        flushCount.incrementAndGet();
+        logger.debug("JDBC::JdbcBatchWriter: flushed {} values into {} tables in {} ms, {} values pending",
+                pending.size(), tables.size(), duration, buffer.size());
+    }
+
+    /**
+     * Writes the values of a failed batch one by one, so a single bad row (e.g. a duplicate key on databases without
+     * upsert) doesn't drop the whole batch. Values which still can't be written are logged.
+     */
+    private void storeRowByRow(List<ItemVO> vol) {
+        for (ItemVO vo : vol) {
+            try {
+                storedCount.addAndGet(mapper.storeItemValues(Collections.singletonList(vo)));
+            } catch (RuntimeException e) {
+                failedCount.incrementAndGet();
+                logger.warn("JDBC::JdbcBatchWriter: value '{}' at {} is lost for table '{}': {}", vo.getValue(),
+                        vo.getTime(), vo.getTableName(), e.getMessage());
+            }
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // an unhandled exception would stop the scheduled flush job
+            logger.warn("JDBC::JdbcBatchWriter: unexpected exception while flushing", e);
+        }
+    }
+
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    public long getStoredCount() {
+        return storedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public long getBackPressureCount() {
+        return backPressureCount.get();
+    }
+
+    public long getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    public long getMaxFlushMillis() {
+        return maxFlushMillis;
+    }
+
+    public String getStatistics() {
+        return String.format(
+                "queueDepth=%d stored=%d failed=%d flushes=%d backPressure=%d lastFlushMillis=%d maxFlushMillis=%d",
+                getQueueDepth(), getStoredCount(), getFailedCount(), getFlushCount(), getBackPressureCount(),
+                getLastFlushMillis(), getMaxFlushMillis());
+    }
+}
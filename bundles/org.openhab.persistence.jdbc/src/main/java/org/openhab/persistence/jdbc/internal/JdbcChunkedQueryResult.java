@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.items.Item;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+
+/**
+ * Result of an unpaged query which is fetched lazily in chunks of {@code chunkSize} rows. A chunk is only queried when
+ * the previous one has been consumed, so at most one chunk is held in memory. Every call of {@link #iterator()}
+ * executes the query again.
+ *
+ * The chunks are fetched by keyset: the time of the last row of a chunk becomes the exclusive begin (ascending) or end
+ * (descending) date of the next one, so the database doesn't need to skip the rows of all previous chunks.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcChunkedQueryResult implements Iterable<HistoricItem> {
+
+    private final JdbcMapper mapper;
+    private final FilterCriteria filter;
+    private final int numberDecimalcount;
+    private final String table;
+    private final Item item;
+    private final int chunkSize;
+
+    public JdbcChunkedQueryResult(JdbcMapper mapper, FilterCriteria filter, int numberDecimalcount, String table,
+            Item item, int chunkSize) {
+        this.mapper = mapper;
+        this.filter = filter;
+        this.numberDecimalcount = numberDecimalcount;
+        this.table = table;
+        this.item = item;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public Iterator<HistoricItem> iterator() {
+        return new Iterator<HistoricItem>() {
+            private Iterator<HistoricItem> chunk = Collections.emptyIterator();
+            private @Nullable ZonedDateTime lastTime;
+            private boolean lastChunk = false;
+
+            @Override
+            public boolean hasNext() {
+                while (!chunk.hasNext() && !lastChunk) {
+                    List<HistoricItem> items = mapper.getHistItemFilterQuery(chunkFilter(lastTime),
+                            numberDecimalcount, table, item);
+                    if (items == null) {
+                        items = List.of();
+                    }
+                    lastChunk = items.size() < chunkSize;
+                    List<HistoricItem> newItems = skipSeen(items);
+                    if (newItems.isEmpty() && !items.isEmpty()) {
+                        // the database time is more precise than the bound, no progress possible
+                        lastChunk = true;
+                    }
+                    if (!newItems.isEmpty()) {
+                        lastTime = newItems.get(newItems.size() - 1).getTimestamp();
+                    }
+                    chunk = newItems.iterator();
+                }
+                return chunk.hasNext();
+            }
+
+            /**
+             * Drops rows of a previous chunk, which are returned again if the database stores the time more precisely
+             * than the bound parameter.
+             */
+            private List<HistoricItem> skipSeen(List<HistoricItem> items) {
+                ZonedDateTime last = lastTime;
+                if (last == null) {
+                    return items;
+                }
+                int first = 0;
+                while (first < items.size() && !isAfterLast(items.get(first).getTimestamp(), last)) {
+                    first++;
+                }
+                return first == 0 ? items : items.subList(first, items.size());
+            }
+
+            private boolean isAfterLast(ZonedDateTime time, ZonedDateTime last) {
+                return filter.getOrdering() == Ordering.ASCENDING ? time.isAfter(last) : time.isBefore(last);
+            }
+
+            @Override
+            public HistoricItem next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunk.next();
+            }
+        };
+    }
+
+    private FilterCriteria chunkFilter(@Nullable ZonedDateTime lastTime) {
+        FilterCriteria chunkFilter = new FilterCriteria();
+        chunkFilter.setItemName(filter.getItemName());
+        chunkFilter.setBeginDate(filter.getBeginDate());
+        chunkFilter.setEndDate(filter.getEndDate());
+        if (lastTime != null) {
+            if (filter.getOrdering() == Ordering.ASCENDING) {
+                chunkFilter.setBeginDate(lastTime);
+            } else {
+                chunkFilter.setEndDate(lastTime);
+            }
+        }
+        chunkFilter.setOrdering(filter.getOrdering());
+        chunkFilter.setOperator(filter.getOperator());
+        chunkFilter.setState(filter.getState());
+        chunkFilter.setPageSize(chunkSize);
+        chunkFilter.setPageNumber(0);
+        return chunkFilter;
+    }
+}
@@ -60,6 +60,17 @@ public class JdbcConfiguration {
 
     private int errReconnectThreshold = 0;
 
+    // asynchronous write buffer, a buffer size of 0 disables it
+    private int bufferSize = 1000;
+    private int bufferFlushSize = 100;
+    private long bufferCommitIntervalMillis = 1000;
+
+    // query results are fetched in chunks of this size, 0 fetches them at once
+    private int queryChunkSize = 0;
+
+    // numeric query results are reduced to the mean values of this number of time buckets, 0 returns raw values
+    private int queryMaxPoints = 0;
+
     public int timerCount = 0;
     public int time1000Statements = 0;
     public long timer1000 = 0;
@@ -173,6 +184,36 @@ public class JdbcConfiguration {
             logger.debug("JDBC::updateConfig: rebuildTableNames={}", rebuildTableNames);
         }
 
+        String bs = (String) configuration.get("bufferSize");
+        if (bs != null && !bs.isBlank() && isNumericPattern.matcher(bs).matches()) {
+            bufferSize = Integer.parseInt(bs);
+            logger.debug("JDBC::updateConfig: bufferSize={}", bufferSize);
+        }
+
+        String bf = (String) configuration.get("bufferFlushSize");
+        if (bf != null && !bf.isBlank() && isNumericPattern.matcher(bf).matches()) {
+            bufferFlushSize = Integer.parseInt(bf);
+            logger.debug("JDBC::updateConfig: bufferFlushSize={}", bufferFlushSize);
+        }
+
+        String bc = (String) configuration.get("bufferCommitIntervalMillis");
+        if (bc != null && !bc.isBlank() && isNumericPattern.matcher(bc).matches()) {
+            bufferCommitIntervalMillis = Long.parseLong(bc);
+            logger.debug("JDBC::updateConfig: bufferCommitIntervalMillis={}", bufferCommitIntervalMillis);
+        }
+
+        String qc = (String) configuration.get("queryChunkSize");
+        if (qc != null && !qc.isBlank() && isNumericPattern.matcher(qc).matches()) {
+            queryChunkSize = Integer.parseInt(qc);
+            logger.debug("JDBC::updateConfig: queryChunkSize={}", queryChunkSize);
+        }
+
+        String qm = (String) configuration.get("queryMaxPoints");
+        if (qm != null && !qm.isBlank() && isNumericPattern.matcher(qm).matches()) {
+            queryMaxPoints = Integer.parseInt(qm);
+            logger.debug("JDBC::updateConfig: queryMaxPoints={}", queryMaxPoints);
+        }
+
         // undocumented
         String ac = (String) configuration.get("maximumPoolSize");
         if (ac != null && !ac.isBlank()) {
@@ -350,6 +391,26 @@ public class JdbcConfiguration {
         return tableIdDigitCount;
     }
 
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getBufferFlushSize() {
+        return bufferFlushSize;
+    }
+
+    public long getBufferCommitIntervalMillis() {
+        return bufferCommitIntervalMillis;
+    }
+
+    public int getQueryChunkSize() {
+        return queryChunkSize;
+    }
+
+    public int getQueryMaxPoints() {
+        return queryMaxPoints;
+    }
+
     public JdbcBaseDAO getDBDAO() {
         return dBDAO;
     }
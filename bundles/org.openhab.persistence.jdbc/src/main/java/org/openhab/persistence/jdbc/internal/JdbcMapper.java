@@ -13,10 +13,12 @@
 package org.openhab.persistence.jdbc.internal;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.knowm.yank.Yank;
@@ -46,9 +48,15 @@ public class JdbcMapper {
     protected boolean initialized = false;
     protected JdbcConfiguration conf = null;
     protected final Map<String, String> sqlTables = new HashMap<>();
+    protected volatile JdbcBatchWriter batchWriter = null;
     private long afterAccessMin = 10000;
     private long afterAccessMax = 0;
     private static final String ITEM_NAME_PATTERN = "[^a-zA-Z_0-9\\-]";
+    // HikariCP default
+    private static final int DEFAULT_MAXIMUM_POOL_SIZE = 10;
+
+    private final AtomicInteger activeQueries = new AtomicInteger();
+    private volatile int peakQueries = 0;
 
     public JdbcMapper(TimeZoneProvider timeZoneProvider) {
         this.timeZoneProvider = timeZoneProvider;
@@ -152,6 +160,12 @@ public class JdbcMapper {
             logger.error("JDBC::store: Unable to store item '{}'.", item.getName());
             return item;
         }
+        JdbcBatchWriter writer = batchWriter;
+        if (writer != null) {
+            // convert the state now, the insert itself is done by the writer thread
+            writer.add(conf.getDBDAO().doPrepareItemValue(item, new ItemVO(tableName, null), new Date()));
+            return item;
+        }
         long timerStart = System.currentTimeMillis();
         conf.getDBDAO().doStoreItemValue(item, new ItemVO(tableName, null));
         logTime("storeItemValue", timerStart, System.currentTimeMillis());
@@ -159,6 +173,15 @@ public class JdbcMapper {
         return item;
     }
 
+    public int storeItemValues(List<ItemVO> vol) {
+        logger.debug("JDBC::storeItemValues: table={} size={}", vol.get(0).getTableName(), vol.size());
+        long timerStart = System.currentTimeMillis();
+        int count = conf.getDBDAO().doStoreItemValues(vol);
+        logTime("storeItemValues", timerStart, System.currentTimeMillis());
+        errCnt = 0;
+        return count;
+    }
+
     public List<HistoricItem> getHistItemFilterQuery(FilterCriteria filter, int numberDecimalcount, String table,
             Item item) {
         logger.debug(
@@ -166,8 +189,18 @@ public class JdbcMapper {
                 (filter != null), numberDecimalcount, table, item, item.getName());
         if (table != null) {
             long timerStart = System.currentTimeMillis();
-            List<HistoricItem> result = conf.getDBDAO().doGetHistItemFilterQuery(item, filter, numberDecimalcount,
-                    table, item.getName(), timeZoneProvider.getTimeZone());
+            int concurrentQueries = activeQueries.incrementAndGet();
+            if (concurrentQueries > peakQueries) {
+                peakQueries = concurrentQueries;
+                checkPoolSize(concurrentQueries);
+            }
+            List<HistoricItem> result;
+            try {
+                result = conf.getDBDAO().doGetHistItemFilterQuery(item, filter, numberDecimalcount, table,
+                        item.getName(), timeZoneProvider.getTimeZone());
+            } finally {
+                activeQueries.decrementAndGet();
+            }
             logTime("getHistItemFilterQuery", timerStart, System.currentTimeMillis());
             errCnt = 0;
             return result;
@@ -177,6 +210,28 @@ public class JdbcMapper {
         return null;
     }
 
+    public List<HistoricItem> getHistItemAggregateQuery(FilterCriteria filter, int numberDecimalcount, String table,
+            Item item, long bucketSeconds) {
+        logger.debug("JDBC::getHistItemAggregateQuery table='{}' itemName='{}' bucketSeconds='{}'", table,
+                item.getName(), bucketSeconds);
+        long timerStart = System.currentTimeMillis();
+        int concurrentQueries = activeQueries.incrementAndGet();
+        if (concurrentQueries > peakQueries) {
+            peakQueries = concurrentQueries;
+            checkPoolSize(concurrentQueries);
+        }
+        List<HistoricItem> result;
+        try {
+            result = conf.getDBDAO().doGetHistItemAggregateQuery(item, filter, numberDecimalcount, table,
+                    timeZoneProvider.getTimeZone(), bucketSeconds);
+        } finally {
+            activeQueries.decrementAndGet();
+        }
+        logTime("getHistItemAggregateQuery", timerStart, System.currentTimeMillis());
+        errCnt = 0;
+        return result;
+    }
+
     /***********************
      * DATABASE CONNECTION *
      ***********************/
@@ -391,6 +446,30 @@ public class JdbcMapper {
     /*****************
      * H E L P E R S *
      *****************/
+    /**
+     * Compares the observed number of concurrent queries with the size of the connection pool. If all connections are
+     * taken by queries (one more is needed by the write buffer), queries start to wait for each other.
+     */
+    private void checkPoolSize(int concurrentQueries) {
+        String maximumPoolSize = conf.getHikariConfiguration().getProperty("maximumPoolSize",
+                String.valueOf(DEFAULT_MAXIMUM_POOL_SIZE));
+        int poolSize;
+        try {
+            poolSize = Integer.parseInt(maximumPoolSize.trim());
+        } catch (NumberFormatException e) {
+            return;
+        }
+        int needed = concurrentQueries + (batchWriter != null ? 1 : 0);
+        if (needed > poolSize) {
+            logger.info(
+                    "JDBC::checkPoolSize: observed {} concurrent queries, the connection pool has {} connections. Consider setting 'maximumPoolSize' to {}.",
+                    concurrentQueries, poolSize, needed);
+        } else {
+            logger.debug("JDBC::checkPoolSize: observed {} concurrent queries, maximumPoolSize={}", concurrentQueries,
+                    poolSize);
+        }
+    }
+
     private void logTime(String me, long timerStart, long timerStop) {
         if (conf.enableLogTime && logger.isInfoEnabled()) {
             conf.timerCount++;
@@ -12,19 +12,27 @@
  */
 package org.openhab.persistence.jdbc.internal;
 
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.NamedThreadFactory;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.i18n.TimeZoneProvider;
 import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.library.items.DimmerItem;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.items.RollershutterItem;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.PersistenceItemInfo;
@@ -55,10 +63,13 @@ import org.slf4j.LoggerFactory;
 public class JdbcPersistenceService extends JdbcMapper implements QueryablePersistenceService {
 
     protected static final String CONFIG_URI = "persistence:jdbc";
+    private static final String JDBC_THREADPOOL_NAME = "jdbcPersistenceService";
 
     private final Logger logger = LoggerFactory.getLogger(JdbcPersistenceService.class);
 
     private final ItemRegistry itemRegistry;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new NamedThreadFactory(JDBC_THREADPOOL_NAME));
 
     @Activate
     public JdbcPersistenceService(final @Reference ItemRegistry itemRegistry,
@@ -104,6 +115,8 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
     public void deactivate(final int reason) {
         logger.debug("JDBC::deactivate:  persistence bundle stopping. Disconnecting from database. reason={}", reason);
         // closeConnection();
+        stopBatchWriter();
+        scheduler.shutdown();
         initialized = false;
     }
 
@@ -141,8 +154,9 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
         }
         long timerStart = System.currentTimeMillis();
         storeItemValue(item);
-        logger.debug("JDBC: Stored item '{}' as '{}' in SQL database at {} in {} ms.", item.getName(), item.getState(),
-                new java.util.Date(), System.currentTimeMillis() - timerStart);
+        logger.debug("JDBC: Stored item '{}' as '{}' in SQL database at {} in {} ms{}.", item.getName(),
+                item.getState(), new java.util.Date(), System.currentTimeMillis() - timerStart,
+                batchWriter != null ? " (buffered)" : "");
     }
 
     @Override
@@ -160,11 +174,35 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
      */
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
+        JdbcConfiguration configuration = conf;
+        return query(filter, configuration != null ? configuration.getQueryMaxPoints() : 0);
+    }
+
+    /**
+     * Queries the {@link PersistenceService} for data with a given filter criteria. Values of numeric items are
+     * reduced by the database to the mean values of about {@code maxPoints} time buckets between begin and end date,
+     * e.g. one per pixel of a chart. Raw values are returned for other items, paged filters, filters without begin
+     * date or if buckets would be shorter than a second. {@link #query(FilterCriteria)} uses the configured
+     * {@code queryMaxPoints}.
+     *
+     * @param filter
+     *            the filter to apply to the query
+     * @param maxPoints
+     *            maximum number of values to return, 0 to return raw values
+     * @return a time series of items
+     */
+    public Iterable<HistoricItem> query(FilterCriteria filter, int maxPoints) {
         if (!checkDBAccessability()) {
             logger.warn("JDBC::query: database not connected, query aborted for item '{}'", filter.getItemName());
             return List.of();
         }
 
+        JdbcBatchWriter writer = batchWriter;
+        if (writer != null) {
+            // make buffered values visible to the query
+            writer.flush();
+        }
+
         // Get the item name from the filter
         // Also get the Item object so we can determine the type
         Item item = null;
@@ -201,6 +239,22 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
             table = getTable(item);
         }
 
+        long bucketSeconds = getBucketSeconds(filter, item, maxPoints);
+        if (bucketSeconds > 0) {
+            long timerStart = System.currentTimeMillis();
+            List<HistoricItem> items = getHistItemAggregateQuery(filter, conf.getNumberDecimalcount(), table, item,
+                    bucketSeconds);
+            logger.debug("JDBC::query: aggregate query for {} returned {} rows in {} ms", itemName, items.size(),
+                    System.currentTimeMillis() - timerStart);
+            return items;
+        }
+
+        int chunkSize = conf.getQueryChunkSize();
+        if (chunkSize > 0 && filter.getPageSize() == Integer.MAX_VALUE) {
+            logger.debug("JDBC::query: query for {} is fetched in chunks of {} rows", itemName, chunkSize);
+            return new JdbcChunkedQueryResult(this, filter, conf.getNumberDecimalcount(), table, item, chunkSize);
+        }
+
         long timerStart = System.currentTimeMillis();
         List<HistoricItem> items = getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
 
@@ -215,6 +269,8 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
     public void updateConfig(Map<Object, Object> configuration) {
         logger.debug("JDBC::updateConfig");
 
+        // write pending values with the old configuration
+        stopBatchWriter();
         conf = new JdbcConfiguration(configuration);
         if (conf.valid && checkDBAccessability()) {
             checkDBSchema();
@@ -223,10 +279,34 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
         } else {
             initialized = false;
         }
+        if (conf.valid && conf.getBufferSize() > 0 && conf.getBufferCommitIntervalMillis() > 0) {
+            JdbcBatchWriter writer = new JdbcBatchWriter(this, scheduler, conf.getBufferSize(),
+                    conf.getBufferFlushSize(), conf.getBufferCommitIntervalMillis());
+            writer.start();
+            batchWriter = writer;
+        }
 
         logger.debug("JDBC::updateConfig: configuration complete for service={}.", getId());
     }
 
+    private long getBucketSeconds(FilterCriteria filter, Item item, int maxPoints) {
+        ZonedDateTime beginDate = filter.getBeginDate();
+        if (maxPoints <= 0 || beginDate == null || filter.getPageSize() != Integer.MAX_VALUE
+                || !(item instanceof NumberItem || item instanceof DimmerItem || item instanceof RollershutterItem)) {
+            return 0;
+        }
+        ZonedDateTime endDate = filter.getEndDate();
+        return Duration.between(beginDate, endDate != null ? endDate : ZonedDateTime.now()).getSeconds() / maxPoints;
+    }
+
+    private void stopBatchWriter() {
+        JdbcBatchWriter writer = batchWriter;
+        if (writer != null) {
+            batchWriter = null;
+            writer.stop();
+        }
+    }
+
     @Override
     public List<PersistenceStrategy> getDefaultStrategies() {
         return List.of(PersistenceStrategy.Globals.CHANGE);
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.knowm.yank.Yank;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.persistence.jdbc.model.ItemVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checks the parameterized, cached filter query and the aggregate query of {@link JdbcBaseDAO} against an in-memory
+ * H2 database. The filter query is compared with the former approach of building a statement with literal values.
+ *
+ * @author agent - Initial contribution
+ */
+@SuppressWarnings("null")
+public class JdbcH2DAOQueryTest {
+
+    private static final String TABLE = "item0001";
+    private static final int ROWS = 5000;
+    private static final int QUERIES = 2000;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static final JdbcH2DAO DAO = new JdbcH2DAO();
+    private static final NumberItem ITEM = new NumberItem("Test");
+    private static final ZonedDateTime START = ZonedDateTime.now(ZONE).minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+    private final Logger logger = LoggerFactory.getLogger(JdbcH2DAOQueryTest.class);
+
+    @BeforeAll
+    public static void setUp() {
+        Properties properties = new Properties();
+        properties.setProperty("driverClassName", "org.h2.Driver");
+        properties.setProperty("jdbcUrl", "jdbc:h2:mem:querytest;DB_CLOSE_DELAY=-1");
+        Yank.setupDefaultConnectionPool(properties);
+
+        ItemVO table = new ItemVO(TABLE, null);
+        table.setDbType(DAO.getDataType(ITEM));
+        DAO.doCreateItemTable(table);
+
+        List<ItemVO> values = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            ITEM.setState(new DecimalType(i));
+            values.add(DAO.doPrepareItemValue(ITEM, new ItemVO(TABLE, null),
+                    Date.from(START.plusSeconds(10L * i).toInstant())));
+        }
+        DAO.doStoreItemValues(values);
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        Yank.releaseDefaultConnectionPool();
+    }
+
+    @Test
+    public void parameterizedQueryReturnsSameRowsAsLiteralQuery() {
+        FilterCriteria filter = filter(100);
+
+        List<HistoricItem> result = DAO.doGetHistItemFilterQuery(ITEM, filter, 3, TABLE, ITEM.getName(), ZONE);
+        List<Object[]> literal = Yank.queryObjectArrays(literalQuery(filter), null);
+
+        assertThat(result.size(), is(literal.size()));
+        assertThat(result.size(), is(both(greaterThan(0)).and(lessThan(ROWS))));
+        for (int i = 0; i < result.size(); i++) {
+            assertThat(((DecimalType) result.get(i).getState()).doubleValue(),
+                    is(((Number) literal.get(i)[1]).doubleValue()));
+        }
+    }
+
+    @Test
+    public void parameterizedQueryHonoursBoundsOrderingAndPaging() {
+        FilterCriteria filter = filter(0);
+        filter.setOrdering(Ordering.DESCENDING);
+        filter.setPageSize(10);
+        filter.setPageNumber(1);
+
+        List<HistoricItem> result = DAO.doGetHistItemFilterQuery(ITEM, filter, 3, TABLE, ITEM.getName(), ZONE);
+
+        // one value every 10 seconds, the first hour ends with value 359, the second page starts 10 values before
+        assertThat(result.size(), is(10));
+        assertThat(((DecimalType) result.get(0).getState()).intValue(), is(349));
+        assertThat(((DecimalType) result.get(9).getState()).intValue(), is(340));
+        assertThat(result.get(0).getTimestamp().after(result.get(9).getTimestamp()), is(true));
+    }
+
+    @Test
+    public void cachedQueryIsReusedWithDifferentParameters() {
+        List<HistoricItem> first = DAO.doGetHistItemFilterQuery(ITEM, filter(0), 3, TABLE, ITEM.getName(), ZONE);
+        List<HistoricItem> second = DAO.doGetHistItemFilterQuery(ITEM, filter(60), 3, TABLE, ITEM.getName(), ZONE);
+
+        // the begin date is exclusive
+        assertThat(((DecimalType) first.get(0).getState()).intValue(), is(1));
+        assertThat(((DecimalType) second.get(0).getState()).intValue(), is(361));
+    }
+
+    @Test
+    public void aggregateQueryReturnsOneMeanValuePerBucket() {
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName(ITEM.getName());
+        filter.setBeginDate(START.minusSeconds(1));
+        filter.setEndDate(START.plusSeconds(10L * ROWS));
+        filter.setOrdering(Ordering.ASCENDING);
+
+        List<HistoricItem> result = DAO.doGetHistItemAggregateQuery(ITEM, filter, 3, TABLE, ZONE, 3600);
+
+        // 5000 values every 10 seconds span 14 hours, plus one partial bucket at each end at most
+        assertThat(result.size(), is(both(greaterThanOrEqualTo(14)).and(lessThanOrEqualTo(16))));
+        assertThat(((DecimalType) result.get(1).getState()).doubleValue(), is(greaterThan(0.0)));
+    }
+
+    /**
+     * Throughput comparison of both query approaches, run manually when changing the query code.
+     */
+    @Test
+    @Disabled("benchmark, not a unit test")
+    public void benchmarkQueriesPerSecond() {
+        // warm up both paths
+        runLiteral(QUERIES / 10);
+        runParameterized(QUERIES / 10);
+
+        long literalNanos = runLiteral(QUERIES);
+        long parameterizedNanos = runParameterized(QUERIES);
+
+        logger.info("JDBC H2 filter query: literal {} queries/s, parameterized {} queries/s",
+                Math.round(QUERIES * 1e9 / literalNanos), Math.round(QUERIES * 1e9 / parameterizedNanos));
+    }
+
+    private long runLiteral(int count) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            Yank.queryObjectArrays(literalQuery(filter(i % 500)), null);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long runParameterized(int count) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            DAO.doGetHistItemFilterQuery(ITEM, filter(i % 500), 3, TABLE, ITEM.getName(), ZONE);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static FilterCriteria filter(int offsetMinutes) {
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName(ITEM.getName());
+        filter.setBeginDate(START.plusMinutes(offsetMinutes));
+        filter.setEndDate(START.plusMinutes(offsetMinutes + 60));
+        filter.setOrdering(Ordering.ASCENDING);
+        return filter;
+    }
+
+    /**
+     * The statement as it has been built before, with the filter values as literals.
+     */
+    private static String literalQuery(FilterCriteria filter) {
+        return "SELECT time, value FROM " + TABLE + " WHERE TIME>'"
+                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(filter.getBeginDate().withZoneSameInstant(ZONE))
+                + "' AND TIME<'" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(filter.getEndDate().withZoneSameInstant(ZONE))
+                + "' ORDER BY time ASC";
+    }
+}
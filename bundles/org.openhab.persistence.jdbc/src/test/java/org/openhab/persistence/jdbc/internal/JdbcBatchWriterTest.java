@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.i18n.TimeZoneProvider;
+import org.openhab.persistence.jdbc.model.ItemVO;
+
+/**
+ * Tests the {@link JdbcBatchWriter} with a mapper which records the batches instead of writing them to a database.
+ *
+ * @author agent - Initial contribution
+ */
+@SuppressWarnings("null")
+public class JdbcBatchWriterTest {
+
+    // never runs the scheduled flushes, so every flush of the tests is deterministic
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private RecordingMapper mapper;
+
+    @BeforeEach
+    public void setUp() {
+        mapper = new RecordingMapper();
+    }
+
+    @Test
+    public void valuesAreWrittenAsOneBatchPerTable() {
+        JdbcBatchWriter writer = new JdbcBatchWriter(mapper, scheduler, 100, 100, 60000);
+        writer.add(value("item0001", 1000, 1));
+        writer.add(value("item0002", 1000, 2));
+        writer.add(value("item0001", 2000, 3));
+        writer.flush();
+
+        assertThat(mapper.batches.size(), is(2));
+        assertThat(mapper.batches.get(0).size(), is(2));
+        assertThat(mapper.batches.get(1).size(), is(1));
+        assertThat(writer.getStoredCount(), is(3L));
+        assertThat(writer.getFailedCount(), is(0L));
+        assertThat(writer.getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void valuesWithSameTimeAreCollapsed() {
+        JdbcBatchWriter writer = new JdbcBatchWriter(mapper, scheduler, 100, 100, 60000);
+        writer.add(value("item0001", 1000, 1));
+        writer.add(value("item0001", 1000, 2));
+        writer.flush();
+
+        assertThat(mapper.stored.size(), is(1));
+        assertThat(mapper.stored.get(0).getValue(), is(2));
+    }
+
+    @Test
+    public void failedBatchIsRetriedRowByRow() {
+        mapper.rejectedValue = 2;
+        JdbcBatchWriter writer = new JdbcBatchWriter(mapper, scheduler, 100, 100, 60000);
+        writer.add(value("item0001", 1000, 1));
+        writer.add(value("item0001", 2000, 2));
+        writer.add(value("item0001", 3000, 3));
+        writer.flush();
+
+        // the failed batch followed by three single rows
+        assertThat(mapper.batches.size(), is(4));
+        assertThat(mapper.stored.size(), is(2));
+        assertThat(mapper.stored.get(0).getValue(), is(1));
+        assertThat(mapper.stored.get(1).getValue(), is(3));
+        assertThat(writer.getStoredCount(), is(2L));
+        assertThat(writer.getFailedCount(), is(1L));
+    }
+
+    @Test
+    public void fullBufferIsFlushedByCallingThread() {
+        JdbcBatchWriter writer = new JdbcBatchWriter(mapper, scheduler, 2, 100, 60000);
+        writer.add(value("item0001", 1000, 1));
+        writer.add(value("item0001", 2000, 2));
+        writer.add(value("item0001", 3000, 3));
+
+        assertThat(writer.getBackPressureCount(), is(1L));
+        assertThat(mapper.stored.size(), is(2));
+        assertThat(writer.getQueueDepth(), is(1));
+
+        writer.stop();
+        assertThat(mapper.stored.size(), is(3));
+        assertThat(writer.getQueueDepth(), is(0));
+    }
+
+    private static ItemVO value(String table, long time, int value) {
+        ItemVO vo = new ItemVO(table, null);
+        vo.setTime(new Date(time));
+        vo.setValue(value);
+        return vo;
+    }
+
+    private static class RecordingMapper extends JdbcMapper {
+        private final List<List<ItemVO>> batches = new ArrayList<>();
+        private final List<ItemVO> stored = new ArrayList<>();
+        private Object rejectedValue;
+
+        RecordingMapper() {
+            super(mock(TimeZoneProvider.class));
+        }
+
+        @Override
+        public int storeItemValues(List<ItemVO> vol) {
+            batches.add(new ArrayList<>(vol));
+            for (ItemVO vo : vol) {
+                if (vo.getValue().equals(rejectedValue)) {
+                    throw new IllegalStateException("duplicate key");
+                }
+            }
+            stored.addAll(vol);
+            return vol.size();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.openhab.core.i18n.TimeZoneProvider;
+import org.openhab.core.items.Item;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.persistence.jdbc.model.JdbcHistoricItem;
+
+/**
+ * Tests the keyset chunking of {@link JdbcChunkedQueryResult} with a mapper which answers the queries from a list.
+ *
+ * @author agent - Initial contribution
+ */
+@SuppressWarnings("null")
+public class JdbcChunkedQueryResultTest {
+
+    private static final int ROWS = 25;
+    private static final ZonedDateTime START = ZonedDateTime.now().minusDays(1);
+
+    private final NumberItem item = new NumberItem("Test");
+    private final ListMapper mapper = new ListMapper();
+
+    @Test
+    public void ascendingChunksContinueAfterLastRow() {
+        List<Integer> values = values(Ordering.ASCENDING, 10);
+
+        assertThat(values.size(), is(ROWS));
+        assertThat(values.get(0), is(0));
+        assertThat(values.get(ROWS - 1), is(ROWS - 1));
+        assertThat(mapper.filters.size(), is(3));
+        assertThat(mapper.filters.get(1).getBeginDate(), is(START.plusSeconds(9)));
+        assertThat(mapper.filters.get(2).getBeginDate(), is(START.plusSeconds(19)));
+        assertThat(mapper.filters.stream().allMatch(f -> f.getPageNumber() == 0), is(true));
+    }
+
+    @Test
+    public void descendingChunksContinueBeforeLastRow() {
+        List<Integer> values = values(Ordering.DESCENDING, 10);
+
+        assertThat(values.size(), is(ROWS));
+        assertThat(values.get(0), is(ROWS - 1));
+        assertThat(values.get(ROWS - 1), is(0));
+        assertThat(mapper.filters.get(1).getEndDate(), is(START.plusSeconds(15)));
+    }
+
+    @Test
+    public void rowsReturnedAgainAreSkipped() {
+        // the bound is less precise than the stored time, so the last row of a chunk is returned again
+        mapper.inclusiveBounds = true;
+        List<Integer> values = values(Ordering.ASCENDING, 10);
+
+        assertThat(values.size(), is(ROWS));
+        for (int i = 0; i < ROWS; i++) {
+            assertThat(values.get(i), is(i));
+        }
+    }
+
+    @Test
+    public void exactMultipleOfChunkSizeEndsWithEmptyChunk() {
+        List<Integer> values = values(Ordering.ASCENDING, 5);
+
+        assertThat(values.size(), is(ROWS));
+        assertThat(mapper.filters.size(), is(6));
+    }
+
+    private List<Integer> values(Ordering ordering, int chunkSize) {
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName(item.getName());
+        filter.setBeginDate(START.minusSeconds(1));
+        filter.setOrdering(ordering);
+        List<Integer> values = new ArrayList<>();
+        for (HistoricItem historicItem : new JdbcChunkedQueryResult(mapper, filter, 3, "item0001", item,
+                chunkSize)) {
+            values.add(((DecimalType) historicItem.getState()).intValue());
+        }
+        return values;
+    }
+
+    private static class ListMapper extends JdbcMapper {
+        private final List<FilterCriteria> filters = new ArrayList<>();
+        private boolean inclusiveBounds;
+
+        ListMapper() {
+            super(mock(TimeZoneProvider.class));
+        }
+
+        @Override
+        public List<HistoricItem> getHistItemFilterQuery(FilterCriteria filter, int numberDecimalcount, String table,
+                Item item) {
+            filters.add(filter);
+            List<HistoricItem> rows = new ArrayList<>();
+            for (int i = 0; i < ROWS; i++) {
+                rows.add(new JdbcHistoricItem(item.getName(), new DecimalType(i), START.plusSeconds(i)));
+            }
+            Comparator<HistoricItem> byTime = Comparator.comparing(HistoricItem::getTimestamp);
+            return rows.stream().filter(r -> filter.getBeginDate() == null || after(r, filter.getBeginDate()))
+                    .filter(r -> filter.getEndDate() == null || after(filter.getEndDate(), r))
+                    .sorted(filter.getOrdering() == Ordering.ASCENDING ? byTime : byTime.reversed())
+                    .skip((long) filter.getPageNumber() * filter.getPageSize()).limit(filter.getPageSize())
+                    .collect(Collectors.toList());
+        }
+
+        private boolean after(HistoricItem row, ZonedDateTime begin) {
+            return inclusiveBounds ? !row.getTimestamp().isBefore(begin) : row.getTimestamp().isAfter(begin);
+        }
+
+        private boolean after(ZonedDateTime end, HistoricItem row) {
+            return inclusiveBounds ? !row.getTimestamp().isAfter(end) : row.getTimestamp().isBefore(end);
+        }
+    }
+}
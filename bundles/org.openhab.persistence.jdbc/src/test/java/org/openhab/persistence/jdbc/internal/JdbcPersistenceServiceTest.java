@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.i18n.TimeZoneProvider;
+import org.openhab.core.items.Item;
+import org.openhab.core.items.ItemNotFoundException;
+import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.items.StringItem;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.HistoricItem;
+
+/**
+ * Tests which query is executed by {@link JdbcPersistenceService#query(FilterCriteria)}, with the database access
+ * replaced by a recording of the called mapper methods.
+ *
+ * @author agent - Initial contribution
+ */
+@SuppressWarnings("null")
+public class JdbcPersistenceServiceTest {
+
+    private final ItemRegistry itemRegistry = mock(ItemRegistry.class);
+    private RecordingService service;
+
+    @BeforeEach
+    public void setUp() throws ItemNotFoundException {
+        service = new RecordingService(itemRegistry);
+        when(itemRegistry.getItem("Number")).thenReturn(new NumberItem("Number"));
+        when(itemRegistry.getItem("String")).thenReturn(new StringItem("String"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.deactivate(0);
+    }
+
+    @Test
+    public void queryIsAggregatedWithQueryMaxPoints() {
+        service.configure("100");
+
+        service.query(dayFilter("Number"));
+
+        assertThat(service.aggregateBucketSeconds, is(864L));
+        assertThat(service.filterQueries, is(0));
+    }
+
+    @Test
+    public void queryIsNotAggregatedByDefault() {
+        service.configure(null);
+
+        service.query(dayFilter("Number"));
+
+        assertThat(service.aggregateBucketSeconds, is(0L));
+        assertThat(service.filterQueries, is(1));
+    }
+
+    @Test
+    public void pagedQueryIsNotAggregated() {
+        service.configure("100");
+        FilterCriteria filter = dayFilter("Number");
+        filter.setPageSize(10);
+
+        service.query(filter);
+
+        assertThat(service.aggregateBucketSeconds, is(0L));
+        assertThat(service.filterQueries, is(1));
+    }
+
+    @Test
+    public void queryOfNonNumericItemIsNotAggregated() {
+        service.configure("100");
+
+        service.query(dayFilter("String"));
+
+        assertThat(service.aggregateBucketSeconds, is(0L));
+        assertThat(service.filterQueries, is(1));
+    }
+
+    private static FilterCriteria dayFilter(String itemName) {
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName(itemName);
+        ZonedDateTime end = ZonedDateTime.now();
+        filter.setBeginDate(end.minusHours(24));
+        filter.setEndDate(end);
+        return filter;
+    }
+
+    private static class RecordingService extends JdbcPersistenceService {
+        private long aggregateBucketSeconds;
+        private int filterQueries;
+
+        RecordingService(ItemRegistry itemRegistry) {
+            super(itemRegistry, mock(TimeZoneProvider.class));
+        }
+
+        void configure(String queryMaxPoints) {
+            Map<Object, Object> configuration = new HashMap<>();
+            configuration.put("url", "jdbc:h2:mem:test");
+            configuration.put("queryChunkSize", "0");
+            if (queryMaxPoints != null) {
+                configuration.put("queryMaxPoints", queryMaxPoints);
+            }
+            conf = new JdbcConfiguration(configuration);
+            sqlTables.put("Number", "number0001");
+            sqlTables.put("String", "string0002");
+            // pretend the database has been connected
+            initialized = true;
+        }
+
+        @Override
+        public List<HistoricItem> getHistItemFilterQuery(FilterCriteria filter, int numberDecimalcount, String table,
+                Item item) {
+            filterQueries++;
+            return List.of();
+        }
+
+        @Override
+        public List<HistoricItem> getHistItemAggregateQuery(FilterCriteria filter, int numberDecimalcount,
+                String table, Item item, long bucketSeconds) {
+            aggregateBucketSeconds = bucketSeconds;
+            return List.of();
+        }
+    }
+}
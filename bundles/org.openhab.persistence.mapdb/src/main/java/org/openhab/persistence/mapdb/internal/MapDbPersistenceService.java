@@ -24,7 +24,12 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -32,8 +37,10 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
 import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.items.Item;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
@@ -43,9 +50,12 @@ import org.openhab.core.persistence.QueryablePersistenceService;
 import org.openhab.core.persistence.strategy.PersistenceStrategy;
 import org.openhab.core.types.State;
 import org.openhab.core.types.UnDefType;
+import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,43 +70,106 @@ import com.google.gson.GsonBuilder;
  * @author Martin Kühl - Port to 3.x
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class })
+@Component(service = { PersistenceService.class,
+        QueryablePersistenceService.class }, configurationPid = "org.openhab.mapdb", configurationPolicy = ConfigurationPolicy.OPTIONAL, //
+        property = Constants.SERVICE_PID + "=org.openhab.mapdb")
+@ConfigurableService(category = "persistence", label = "MapDB Persistence Service", description_uri = MapDbPersistenceService.CONFIG_URI)
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
+    protected static final String CONFIG_URI = "persistence:mapdb";
+
     private static final String SERVICE_ID = "mapdb";
     private static final String SERVICE_LABEL = "MapDB";
     private static final Path DB_DIR = new File(OpenHAB.getUserDataFolder(), "persistence").toPath().resolve("mapdb");
-    private static final Path BACKUP_DIR = DB_DIR.resolve("backup");
+    private static final String BACKUP_DIR_NAME = "backup";
     private static final String DB_FILE_NAME = "storage.mapdb";
+    /** item states encoded by {@link MapDbStateCodec} */
+    private static final String ITEM_STATES_NAME = "itemStates";
+    /**
+     * item states as JSON, used up to openHAB 3.1 and migrated on activation. The map is kept, so openHAB can still
+     * be downgraded, and can be removed in a later release.
+     */
+    private static final String LEGACY_ITEM_STORE_NAME = "itemStore";
+
+    private static final String COMMIT_INTERVAL_PARAM = "commitInterval";
+    private static final String COMMIT_THRESHOLD_PARAM = "commitThreshold";
+    private static final String MEMORY_MAPPED_PARAM = "memoryMapped";
+    private static final long DEFAULT_COMMIT_INTERVAL = 1000;
+    private static final int DEFAULT_COMMIT_THRESHOLD = 1000;
 
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
-    private final ExecutorService threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
+    private final ScheduledExecutorService threadPool = ThreadPoolManager.getScheduledPool(getClass().getSimpleName());
+
+    /** group commit: updates within commitInterval are committed together, unless commitThreshold is reached */
+    private volatile long commitInterval = DEFAULT_COMMIT_INTERVAL;
+    private volatile int commitThreshold = DEFAULT_COMMIT_THRESHOLD;
+    private boolean memoryMapped = false;
+    private final AtomicInteger dirtyCount = new AtomicInteger();
+    private final AtomicBoolean commitScheduled = new AtomicBoolean();
+
+    // commit statistics
+    private long commitCount;
+    private long committedUpdates;
+    private long totalCommitNanos;
+    private long maxCommitNanos;
 
     /** holds the local instance of the MapDB database */
 
     private @NonNullByDefault({}) DB db;
-    private @NonNullByDefault({}) Map<String, String> map;
+    private @NonNullByDefault({}) Map<String, byte[]> map;
+
+    /** held by every access of the database, exclusively while the database is reopened */
+    private final ReadWriteLock dbLock = new ReentrantReadWriteLock();
 
     private transient Gson mapper = new GsonBuilder().registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
             .create();
 
     @Activate
-    public void activate() {
+    public void activate(final @Nullable Map<String, Object> config) {
         logger.debug("MapDB persistence service is being activated");
+        memoryMapped = applyConfig(config);
+        openDb();
+        logger.debug("MapDB persistence service is now activated");
+    }
 
+    /**
+     * Applies the commit settings and returns the memory mapped setting, which requires the database to be reopened.
+     */
+    private boolean applyConfig(@Nullable Map<String, Object> config) {
+        boolean mapped = false;
+        if (config != null) {
+            commitInterval = getLongValue(config, COMMIT_INTERVAL_PARAM, DEFAULT_COMMIT_INTERVAL);
+            commitThreshold = (int) getLongValue(config, COMMIT_THRESHOLD_PARAM, DEFAULT_COMMIT_THRESHOLD);
+            Object mm = config.get(MEMORY_MAPPED_PARAM);
+            mapped = mm instanceof Boolean ? (Boolean) mm : mm != null && Boolean.parseBoolean(mm.toString());
+        }
+        logger.debug("MapDB commitInterval={} commitThreshold={} memoryMapped={}", commitInterval, commitThreshold,
+                mapped);
+        return mapped;
+    }
+
+    /**
+     * Returns the directory of the database file
+     */
+    protected Path getDbDir() {
+        return DB_DIR;
+    }
+
+    private void openDb() {
+        Path dbDir = getDbDir();
         try {
-            Files.createDirectories(DB_DIR);
+            Files.createDirectories(dbDir);
         } catch (IOException e) {
-            logger.warn("Failed to create one or more directories in the path '{}'", DB_DIR);
+            logger.warn("Failed to create one or more directories in the path '{}'", dbDir);
             logger.warn("MapDB persistence service activation has failed.");
             return;
         }
 
-        File dbFile = DB_DIR.resolve(DB_FILE_NAME).toFile();
+        File dbFile = dbDir.resolve(DB_FILE_NAME).toFile();
         try {
-            db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-            map = db.createTreeMap("itemStore").makeOrGet();
+            db = openDb(dbFile);
+            map = openItemStates();
         } catch (RuntimeException re) {
             Throwable cause = re.getCause();
             if (cause instanceof ClassNotFoundException) {
@@ -105,45 +178,124 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
                         "The MapDB in {} is incompatible with openHAB {}: {}. A new and empty MapDB will be used instead.",
                         dbFile, OpenHAB.getVersion(), cnf.getMessage());
 
+                Path backupDir = dbDir.resolve(BACKUP_DIR_NAME);
                 try {
-                    Files.createDirectories(BACKUP_DIR);
+                    Files.createDirectories(backupDir);
                 } catch (IOException ioe) {
-                    logger.warn("Failed to create one or more directories in the path '{}'", BACKUP_DIR);
+                    logger.warn("Failed to create one or more directories in the path '{}'", backupDir);
                     logger.warn("MapDB persistence service activation has failed.");
                     return;
                 }
 
-                try (DirectoryStream<Path> stream = Files.newDirectoryStream(DB_DIR)) {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(dbDir)) {
                     long epochMilli = Instant.now().toEpochMilli();
                     for (Path path : stream) {
                         if (!Files.isDirectory(path)) {
-                            Path newPath = BACKUP_DIR.resolve(epochMilli + "--" + path.getFileName());
+                            Path newPath = backupDir.resolve(epochMilli + "--" + path.getFileName());
                             Files.move(path, newPath);
                             logger.info("Moved incompatible MapDB file '{}' to '{}'", path, newPath);
                         }
                     }
                 } catch (IOException ioe) {
-                    logger.warn("Failed to read files from '{}': {}", DB_DIR, ioe.getMessage());
+                    logger.warn("Failed to read files from '{}': {}", dbDir, ioe.getMessage());
                     logger.warn("MapDB persistence service activation has failed.");
                     return;
                 }
 
-                db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-                map = db.createTreeMap("itemStore").makeOrGet();
+                db = openDb(dbFile);
+                map = openItemStates();
             } else {
                 logger.warn("Failed to create or open the MapDB: {}", re.getMessage());
                 logger.warn("MapDB persistence service activation has failed.");
             }
         }
-        logger.debug("MapDB persistence service is now activated");
+    }
+
+    private Map<String, byte[]> openItemStates() {
+        // the states are only migrated once, together with the creation of the new map
+        boolean migrate = !db.exists(ITEM_STATES_NAME) && db.exists(LEGACY_ITEM_STORE_NAME);
+        Map<String, byte[]> states = db.createTreeMap(ITEM_STATES_NAME).valueSerializer(Serializer.BYTE_ARRAY)
+                .makeOrGet();
+        if (migrate) {
+            Map<String, String> legacyStore = db.getTreeMap(LEGACY_ITEM_STORE_NAME);
+            int migrated = 0;
+            for (String json : legacyStore.values()) {
+                Optional<MapDbItem> item = deserialize(json);
+                if (item.isPresent()) {
+                    states.put(item.get().getName(), MapDbStateCodec.encode(item.get()));
+                    migrated++;
+                }
+            }
+            // the new map is only persisted with this commit, so an interrupted migration is repeated
+            db.commit();
+            logger.info("Migrated {} item states to binary format", migrated);
+        }
+        return states;
+    }
+
+    private DB openDb(File dbFile) {
+        DBMaker<?> maker = DBMaker.newFileDB(dbFile).closeOnJvmShutdown();
+        if (memoryMapped) {
+            maker = maker.mmapFileEnableIfSupported();
+        }
+        return maker.make();
+    }
+
+    /**
+     * Applies changed commit settings while the service keeps running. Only a changed memory mapped setting requires
+     * the database to be reopened, which blocks stores and queries meanwhile instead of letting them fail.
+     */
+    @Modified
+    protected void modified(final @Nullable Map<String, Object> config) {
+        boolean mapped = applyConfig(config);
+        if (mapped == memoryMapped && db != null) {
+            return;
+        }
+        dbLock.writeLock().lock();
+        try {
+            closeDb();
+            memoryMapped = mapped;
+            openDb();
+        } finally {
+            dbLock.writeLock().unlock();
+        }
+        logger.debug("MapDB persistence service has been reopened");
     }
 
     @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
+        dbLock.writeLock().lock();
+        try {
+            closeDb();
+        } finally {
+            dbLock.writeLock().unlock();
+        }
+    }
+
+    private void closeDb() {
         if (db != null) {
+            commitNow();
             db.close();
+            logger.debug("MapDB {} commits of {} updates, average {} ms, max {} ms", commitCount, committedUpdates,
+                    getAverageCommitMillis(), getMaxCommitMillis());
+            db = null;
+            map = null;
+        }
+    }
+
+    private static long getLongValue(Map<String, Object> config, String key, long defaultValue) {
+        Object value = config.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        } else if (value != null) {
+            try {
+                return Long.parseLong(value.toString().trim());
+            } catch (NumberFormatException e) {
+                // use default
+            }
         }
+        return defaultValue;
     }
 
     @Override
@@ -158,8 +310,17 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        return map.values().stream().map(this::deserialize).flatMap(MapDbPersistenceService::streamOptional)
-                .collect(Collectors.<PersistenceItemInfo> toUnmodifiableSet());
+        dbLock.readLock().lock();
+        try {
+            if (map == null) {
+                return Set.of();
+            }
+            return map.entrySet().stream().map(entry -> decode(entry.getKey(), entry.getValue()))
+                    .flatMap(MapDbPersistenceService::streamOptional)
+                    .collect(Collectors.<PersistenceItemInfo> toUnmodifiableSet());
+        } finally {
+            dbLock.readLock().unlock();
+        }
     }
 
     @Override
@@ -182,26 +343,43 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setName(localAlias);
         mItem.setState(state);
         mItem.setTimestamp(new Date());
-        String json = serialize(mItem);
-        map.put(localAlias, json);
-        commit();
-        if (logger.isDebugEnabled()) {
-            logger.debug("Stored '{}' with state '{}' as '{}' in MapDB database", localAlias, state, json);
+        dbLock.readLock().lock();
+        try {
+            if (map == null) {
+                logger.debug("MapDB is not open, '{}' is not stored", localAlias);
+                return;
+            }
+            map.put(localAlias, MapDbStateCodec.encode(mItem));
+            commit();
+        } finally {
+            dbLock.readLock().unlock();
         }
+        logger.debug("Stored '{}' with state '{}' in MapDB database", localAlias, state);
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
+        String itemName = filter.getItemName();
+        byte[] value;
+        dbLock.readLock().lock();
+        try {
+            value = itemName == null || map == null ? null : map.get(itemName);
+        } finally {
+            dbLock.readLock().unlock();
+        }
+        if (itemName == null || value == null) {
             return List.of();
         }
-        Optional<MapDbItem> item = deserialize(json);
+        Optional<MapDbItem> item = decode(itemName, value);
         return item.isPresent() ? List.of(item.get()) : List.of();
     }
 
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+    private Optional<MapDbItem> decode(String name, byte[] value) {
+        MapDbItem item = MapDbStateCodec.decode(name, value);
+        if (item == null) {
+            logger.warn("Invalid state stored for item '{}'", name);
+        }
+        return Optional.ofNullable(item);
     }
 
     @SuppressWarnings("null")
@@ -217,8 +395,58 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         return Optional.of(item);
     }
 
+    /**
+     * Marks the database dirty. The commit is delayed by commitInterval to merge it with further updates, unless
+     * commitThreshold updates are pending.
+     */
     private void commit() {
-        threadPool.submit(() -> db.commit());
+        int dirty = dirtyCount.incrementAndGet();
+        if (commitInterval <= 0 || dirty >= commitThreshold) {
+            threadPool.submit(this::commitNow);
+        } else if (commitScheduled.compareAndSet(false, true)) {
+            threadPool.schedule(this::commitNow, commitInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void commitNow() {
+        // the database must not be closed during the commit, the lock is taken before the monitor of the statistics
+        dbLock.readLock().lock();
+        try {
+            synchronized (this) {
+                commitScheduled.set(false);
+                int dirty = dirtyCount.getAndSet(0);
+                DB localDb = db;
+                if (dirty == 0 || localDb == null || localDb.isClosed()) {
+                    return;
+                }
+                long start = System.nanoTime();
+                localDb.commit();
+                long duration = System.nanoTime() - start;
+                commitCount++;
+                committedUpdates += dirty;
+                totalCommitNanos += duration;
+                maxCommitNanos = Math.max(maxCommitNanos, duration);
+                logger.trace("MapDB committed {} updates in {} ms", dirty, TimeUnit.NANOSECONDS.toMillis(duration));
+            }
+        } finally {
+            dbLock.readLock().unlock();
+        }
+    }
+
+    public synchronized long getCommitCount() {
+        return commitCount;
+    }
+
+    public synchronized long getCommittedUpdates() {
+        return committedUpdates;
+    }
+
+    public synchronized double getAverageCommitMillis() {
+        return commitCount == 0 ? 0 : totalCommitNanos / 1e6 / commitCount;
+    }
+
+    public synchronized double getMaxCommitMillis() {
+        return maxCommitNanos / 1e6;
     }
 
     private static <T> Stream<T> streamOptional(Optional<T> opt) {
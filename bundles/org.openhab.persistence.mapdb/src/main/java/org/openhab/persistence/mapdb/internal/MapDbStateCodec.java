@@ -0,0 +1,258 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.measure.Unit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.unit.Units;
+import org.openhab.core.types.State;
+import org.openhab.core.types.TypeParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compact binary encoding of a {@link MapDbItem}. The common state types are written as primitives, all other states
+ * as class name and full string like {@link StateTypeAdapter} does.
+ *
+ * Layout: version byte, timestamp (epoch millis), state type byte, state.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbStateCodec {
+    private static final byte VERSION = 1;
+
+    private static final byte TYPE_OTHER = 0;
+    private static final byte TYPE_ON = 1;
+    private static final byte TYPE_OFF = 2;
+    private static final byte TYPE_OPEN = 3;
+    private static final byte TYPE_CLOSED = 4;
+    private static final byte TYPE_DECIMAL = 5;
+    private static final byte TYPE_PERCENT = 6;
+    private static final byte TYPE_QUANTITY = 7;
+    private static final byte TYPE_STRING = 8;
+
+    private static final byte NUMBER_LONG = 0;
+    private static final byte NUMBER_BIG = 1;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MapDbStateCodec.class);
+
+    /** parsed units by symbol, empty if the symbol can't be parsed back to the same unit */
+    private static final Map<String, Optional<Unit<?>>> UNITS = new ConcurrentHashMap<>();
+    private static final Map<String, Optional<Class<? extends State>>> STATE_TYPES = new ConcurrentHashMap<>();
+
+    private MapDbStateCodec() {
+        // prevent instantiation
+    }
+
+    public static byte[] encode(MapDbItem item) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(item.getTimestamp().toInstant().toEpochMilli());
+            writeState(out, item.getState());
+        } catch (IOException e) {
+            // can't happen for in-memory streams
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the decoded item or {@code null} if the value is invalid
+     */
+    public static @Nullable MapDbItem decode(String name, byte[] value) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                LOGGER.warn("Couldn't decode state of '{}': unknown version {}", name, version);
+                return null;
+            }
+            long timestamp = in.readLong();
+            State state = readState(in);
+            if (state == null) {
+                return null;
+            }
+            MapDbItem item = new MapDbItem();
+            item.setName(name);
+            item.setState(state);
+            item.setTimestamp(new Date(timestamp));
+            return item;
+        } catch (IOException e) {
+            LOGGER.warn("Couldn't decode state of '{}': {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeState(DataOutputStream out, State state) throws IOException {
+        Class<?> type = state.getClass();
+        if (state == OnOffType.ON) {
+            out.writeByte(TYPE_ON);
+        } else if (state == OnOffType.OFF) {
+            out.writeByte(TYPE_OFF);
+        } else if (state == OpenClosedType.OPEN) {
+            out.writeByte(TYPE_OPEN);
+        } else if (state == OpenClosedType.CLOSED) {
+            out.writeByte(TYPE_CLOSED);
+        } else if (type == DecimalType.class) {
+            out.writeByte(TYPE_DECIMAL);
+            writeNumber(out, ((DecimalType) state).toBigDecimal());
+        } else if (type == PercentType.class) {
+            out.writeByte(TYPE_PERCENT);
+            writeNumber(out, ((PercentType) state).toBigDecimal());
+        } else if (type == QuantityType.class && writeQuantity(out, (QuantityType<?>) state)) {
+            // written
+        } else if (type == StringType.class) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, state.toFullString());
+        } else {
+            out.writeByte(TYPE_OTHER);
+            writeString(out, type.getName());
+            writeString(out, state.toFullString());
+        }
+    }
+
+    private static @Nullable State readState(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_ON:
+                return OnOffType.ON;
+            case TYPE_OFF:
+                return OnOffType.OFF;
+            case TYPE_OPEN:
+                return OpenClosedType.OPEN;
+            case TYPE_CLOSED:
+                return OpenClosedType.CLOSED;
+            case TYPE_DECIMAL:
+                return new DecimalType(readNumber(in));
+            case TYPE_PERCENT:
+                return new PercentType(readNumber(in));
+            case TYPE_QUANTITY:
+                BigDecimal value = readNumber(in);
+                String symbol = readString(in);
+                Unit<?> unit = symbol.isEmpty() ? Units.ONE : parseUnit(symbol).orElse(null);
+                if (unit == null) {
+                    LOGGER.warn("Couldn't decode state: unknown unit '{}'", symbol);
+                    return null;
+                }
+                return new QuantityType<>(value, unit);
+            case TYPE_STRING:
+                return new StringType(readString(in));
+            case TYPE_OTHER:
+                String typeName = readString(in);
+                String valueAsString = readString(in);
+                Class<? extends State> stateType = loadStateType(typeName).orElse(null);
+                return stateType == null ? null : TypeParser.parseState(List.of(stateType), valueAsString);
+            default:
+                LOGGER.warn("Couldn't decode state: unknown type {}", type);
+                return null;
+        }
+    }
+
+    /**
+     * @return false if the unit can't be restored from its symbol, the state has to be written as string then
+     */
+    private static boolean writeQuantity(DataOutputStream out, QuantityType<?> state) throws IOException {
+        Unit<?> unit = state.getUnit();
+        String symbol = Units.ONE.equals(unit) ? "" : unit.toString();
+        if (!symbol.isEmpty() && !unit.equals(parseUnit(symbol).orElse(null))) {
+            return false;
+        }
+        out.writeByte(TYPE_QUANTITY);
+        writeNumber(out, state.toBigDecimal());
+        writeString(out, symbol);
+        return true;
+    }
+
+    private static Optional<Unit<?>> parseUnit(String symbol) {
+        return UNITS.computeIfAbsent(symbol, s -> {
+            try {
+                return Optional.of(new QuantityType<>("0 " + s).getUnit());
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Optional<Class<? extends State>> loadStateType(String typeName) {
+        return STATE_TYPES.computeIfAbsent(typeName, name -> {
+            try {
+                return Optional.of((Class<? extends State>) Class.forName(name));
+            } catch (ClassNotFoundException e) {
+                LOGGER.warn("Couldn't decode state: unknown type '{}'", name);
+                return Optional.empty();
+            }
+        });
+    }
+
+    private static void writeNumber(DataOutputStream out, BigDecimal value) throws IOException {
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < 64) {
+            out.writeByte(NUMBER_LONG);
+            out.writeInt(value.scale());
+            out.writeLong(unscaled.longValue());
+        } else {
+            byte[] bytes = unscaled.toByteArray();
+            out.writeByte(NUMBER_BIG);
+            out.writeInt(value.scale());
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static BigDecimal readNumber(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        int scale = in.readInt();
+        if (kind == NUMBER_LONG) {
+            return BigDecimal.valueOf(in.readLong(), scale);
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
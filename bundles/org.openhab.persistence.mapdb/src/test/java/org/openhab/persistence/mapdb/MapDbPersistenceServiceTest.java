@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.openhab.core.library.items.StringItem;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.core.types.State;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbPersistenceService;
+import org.openhab.persistence.mapdb.internal.StateTypeAdapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Tests that stores and queries of the {@link MapDbPersistenceService} keep working while its configuration is
+ * modified, and the migration of item states stored as JSON.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbPersistenceServiceTest {
+    private static final int ITEMS = 4;
+    private static final int RECONFIGURATIONS = 10;
+
+    private @TempDir @NonNullByDefault({}) Path tempDir;
+    private @NonNullByDefault({}) TestService service;
+
+    @BeforeEach
+    public void setUp() {
+        service = new TestService(tempDir);
+        service.activate(Map.of("commitInterval", 10));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.deactivate();
+    }
+
+    @Test
+    public void storeIsNotInterruptedByReconfiguration() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService writers = Executors.newFixedThreadPool(ITEMS);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < ITEMS; i++) {
+                StringItem item = new StringItem("Item" + i);
+                results.add(writers.submit(() -> {
+                    int count = 0;
+                    while (running.get()) {
+                        item.setState(new StringType(Integer.toString(++count)));
+                        service.store(item);
+                    }
+                    return count;
+                }));
+            }
+            for (int i = 0; i < RECONFIGURATIONS; i++) {
+                // every other configuration reopens the database
+                service.reconfigure(Map.of("commitInterval", 10 + i, "memoryMapped", i % 2 == 0));
+            }
+            running.set(false);
+            for (int i = 0; i < ITEMS; i++) {
+                int count = results.get(i).get(10, TimeUnit.SECONDS);
+                assertThat(query("Item" + i), is(new StringType(Integer.toString(count))));
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void commitSettingsAreAppliedWithoutReopening() {
+        StringItem item = new StringItem("Item");
+        item.setState(new StringType("before"));
+        service.store(item);
+
+        service.reconfigure(Map.of("commitInterval", 0));
+        item.setState(new StringType("after"));
+        service.store(item);
+
+        assertThat(query("Item"), is(new StringType("after")));
+    }
+
+    @Test
+    public void legacyStatesAreMigratedOnceAndKept() throws Exception {
+        Path legacyDir = tempDir.resolve("legacy");
+        Files.createDirectories(legacyDir);
+        MapDbItem legacyItem = new MapDbItem();
+        legacyItem.setName("Item");
+        legacyItem.setState(new StringType("legacy"));
+        legacyItem.setTimestamp(new Date());
+        Gson mapper = new GsonBuilder().registerTypeHierarchyAdapter(State.class, new StateTypeAdapter()).create();
+        DB db = DBMaker.newFileDB(legacyDir.resolve("storage.mapdb").toFile()).make();
+        db.<String, String> getTreeMap("itemStore").put("Item", mapper.toJson(legacyItem));
+        db.commit();
+        db.close();
+
+        TestService legacyService = new TestService(legacyDir);
+        legacyService.activate(Map.of("commitInterval", 0));
+        try {
+            assertThat(query(legacyService, "Item"), is(new StringType("legacy")));
+
+            // a newer state is not replaced by the legacy state when the service is activated again
+            StringItem item = new StringItem("Item");
+            item.setState(new StringType("current"));
+            legacyService.store(item);
+            legacyService.deactivate();
+            legacyService.activate(Map.of("commitInterval", 0));
+            assertThat(query(legacyService, "Item"), is(new StringType("current")));
+        } finally {
+            legacyService.deactivate();
+        }
+
+        // the legacy states are kept for a downgrade
+        db = DBMaker.newFileDB(legacyDir.resolve("storage.mapdb").toFile()).make();
+        try {
+            assertThat(db.exists("itemStore"), is(true));
+            assertThat(db.<String, String> getTreeMap("itemStore").get("Item"), is(mapper.toJson(legacyItem)));
+        } finally {
+            db.close();
+        }
+    }
+
+    private @Nullable Object query(String itemName) {
+        return query(service, itemName);
+    }
+
+    private static @Nullable Object query(MapDbPersistenceService service, String itemName) {
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName(itemName);
+        for (HistoricItem historicItem : service.query(filter)) {
+            return historicItem.getState();
+        }
+        return null;
+    }
+
+    private static class TestService extends MapDbPersistenceService {
+        private final Path dbDir;
+
+        TestService(Path dbDir) {
+            this.dbDir = dbDir;
+        }
+
+        @Override
+        protected Path getDbDir() {
+            return dbDir;
+        }
+
+        void reconfigure(Map<String, Object> config) {
+            modified(config);
+        }
+    }
+}
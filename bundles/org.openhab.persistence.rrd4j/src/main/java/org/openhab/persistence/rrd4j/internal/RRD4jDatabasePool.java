@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.rrd4j.core.RrdDb;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the most recently used rrd4j databases open and serializes the access to every database.
+ *
+ * A database may only be used while its lock is held, see {@link #lock(String)}. The locks are striped, so the
+ * databases of different items can be used concurrently. Databases are only closed on eviction if their lock is
+ * free, so there is never more than one open instance per file.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jDatabasePool {
+    private static final int LOCK_STRIPES = 64;
+
+    private final Logger logger = LoggerFactory.getLogger(RRD4jDatabasePool.class);
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final Map<String, RrdDb> databases = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile int capacity;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong contendedLocks = new AtomicLong();
+    private final AtomicLong lockWaitNanos = new AtomicLong();
+
+    public RRD4jDatabasePool(int capacity) {
+        this.capacity = capacity;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Sets the maximum number of open databases, which is applied when the next database is opened.
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Locks the database of the given name. Has to be followed by {@link #unlock(String)}.
+     */
+    public void lock(String name) {
+        ReentrantLock lock = getLock(name);
+        if (!lock.tryLock()) {
+            long start = System.nanoTime();
+            lock.lock();
+            contendedLocks.incrementAndGet();
+            lockWaitNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    public void unlock(String name) {
+        getLock(name).unlock();
+    }
+
+    /**
+     * Returns the open database of the given name, the lock of the database has to be held.
+     *
+     * @return the database or null if it isn't open
+     */
+    public @Nullable RrdDb get(String name) {
+        RrdDb db;
+        synchronized (databases) {
+            db = databases.get(name);
+        }
+        (db != null ? hits : misses).incrementAndGet();
+        return db;
+    }
+
+    /**
+     * Adds an opened database, the lock of the database has to be held. Closes the least recently used databases which
+     * are not in use if there are more than allowed.
+     */
+    public void put(String name, RrdDb db) {
+        List<String> evicted = new ArrayList<>();
+        List<RrdDb> evictedDatabases = new ArrayList<>();
+        synchronized (databases) {
+            databases.put(name, db);
+            Iterator<Map.Entry<String, RrdDb>> it = databases.entrySet().iterator();
+            while (databases.size() > capacity && it.hasNext()) {
+                Map.Entry<String, RrdDb> eldest = it.next();
+                String eldestName = eldest.getKey();
+                // databases in use are skipped, the pool may exceed its capacity temporarily
+                if (!eldestName.equals(name) && getLock(eldestName).tryLock()) {
+                    it.remove();
+                    evicted.add(eldestName);
+                    evictedDatabases.add(eldest.getValue());
+                }
+            }
+        }
+        for (int i = 0; i < evicted.size(); i++) {
+            try {
+                close(evictedDatabases.get(i));
+            } finally {
+                unlock(evicted.get(i));
+            }
+        }
+    }
+
+    /**
+     * Closes and removes the database of the given name, the lock of the database has to be held.
+     */
+    public void invalidate(String name) {
+        RrdDb db;
+        synchronized (databases) {
+            db = databases.remove(name);
+        }
+        if (db != null) {
+            close(db);
+        }
+    }
+
+    /**
+     * Closes all databases.
+     */
+    public void closeAll() {
+        List<String> names;
+        synchronized (databases) {
+            names = new ArrayList<>(databases.keySet());
+        }
+        for (String name : names) {
+            lock(name);
+            try {
+                invalidate(name);
+            } finally {
+                unlock(name);
+            }
+        }
+        logger.debug("Closed rrd4j databases: {} pool hits, {} misses, {} contended locks waited {} ms", hits.get(),
+                misses.get(), contendedLocks.get(), lockWaitNanos.get() / 1000000);
+    }
+
+    public int getOpenDatabases() {
+        synchronized (databases) {
+            return databases.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of times a lock was not free
+     */
+    public long getContendedLocks() {
+        return contendedLocks.get();
+    }
+
+    /**
+     * @return the total time in nanoseconds spent waiting for locks
+     */
+    public long getLockWaitNanos() {
+        return lockWaitNanos.get();
+    }
+
+    private ReentrantLock getLock(String name) {
+        return locks[(name.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+
+    private void close(RrdDb db) {
+        try {
+            db.close();
+        } catch (IOException e) {
+            logger.debug("Error closing rrd4j database: {}", e.getMessage());
+        }
+    }
+}
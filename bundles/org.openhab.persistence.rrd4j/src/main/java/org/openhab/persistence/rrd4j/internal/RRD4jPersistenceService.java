@@ -18,7 +18,6 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -67,6 +66,7 @@ import org.openhab.core.types.State;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.rrd4j.ConsolFun;
@@ -89,14 +89,17 @@ import org.slf4j.LoggerFactory;
  * @author Karel Goderis - remove TimerThread dependency
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class,
-        QueryablePersistenceService.class }, configurationPid = "org.openhab.rrd4j", configurationPolicy = ConfigurationPolicy.OPTIONAL)
+@Component(service = { PersistenceService.class, QueryablePersistenceService.class,
+        RRD4jPersistenceService.class }, configurationPid = "org.openhab.rrd4j", configurationPolicy = ConfigurationPolicy.OPTIONAL)
 public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     private static final String DEFAULT_OTHER = "default_other";
     private static final String DEFAULT_NUMERIC = "default_numeric";
     private static final String DEFAULT_QUANTIFIABLE = "default_quantifiable";
 
+    private static final String CFG_MAX_OPEN_DATABASES = "maxOpenDatabases";
+    private static final int DEFAULT_MAX_OPEN_DATABASES = 128;
+
     private static final Set<String> SUPPORTED_TYPES = Set.of(CoreItemFactory.SWITCH, CoreItemFactory.CONTACT,
             CoreItemFactory.DIMMER, CoreItemFactory.NUMBER, CoreItemFactory.ROLLERSHUTTER, CoreItemFactory.COLOR);
 
@@ -111,7 +114,9 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     private final Logger logger = LoggerFactory.getLogger(RRD4jPersistenceService.class);
 
-    private final Map<String, ScheduledFuture<?>> scheduledJobs = new HashMap<>();
+    private final Map<String, ScheduledFuture<?>> scheduledJobs = new ConcurrentHashMap<>();
+
+    private final RRD4jDatabasePool databases = new RRD4jDatabasePool(DEFAULT_MAX_OPEN_DATABASES);
 
     protected final ItemRegistry itemRegistry;
 
@@ -131,13 +136,21 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     }
 
     @Override
-    public synchronized void store(final Item item, @Nullable final String alias) {
+    public void store(final Item item, @Nullable final String alias) {
         if (!isSupportedItemType(item)) {
             logger.trace("Ignoring item '{}' since its type {} is not supported", item.getName(), item.getType());
             return;
         }
         final String name = alias == null ? item.getName() : alias;
-        RrdDb db = getDB(name);
+        databases.lock(name);
+        try {
+            store(item, name, getDB(name));
+        } finally {
+            databases.unlock(name);
+        }
+    }
+
+    private void store(final Item item, final String name, @Nullable RrdDb db) {
         if (db != null) {
             ConsolFun function = getConsolidationFunction(db);
             long now = System.currentTimeMillis() / 1000;
@@ -214,11 +227,8 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
                 }
             } catch (Exception e) {
                 logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
-            }
-            try {
-                db.close();
-            } catch (IOException e) {
-                logger.debug("Error closing rrd4j database: {}", e.getMessage());
+                // reopen the database next time
+                databases.invalidate(name);
             }
         }
     }
@@ -232,7 +242,15 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     public Iterable<HistoricItem> query(FilterCriteria filter) {
         String itemName = filter.getItemName();
 
-        RrdDb db = getDB(itemName);
+        databases.lock(itemName);
+        try {
+            return query(filter, itemName, getDB(itemName));
+        } finally {
+            databases.unlock(itemName);
+        }
+    }
+
+    private Iterable<HistoricItem> query(FilterCriteria filter, String itemName, @Nullable RrdDb db) {
         if (db == null) {
             logger.debug("Could not find item '{}' in rrd4j database", itemName);
             return List.of();
@@ -313,8 +331,15 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return Set.of();
     }
 
-    protected synchronized @Nullable RrdDb getDB(String alias) {
-        RrdDb db = null;
+    /**
+     * Returns the open database of an item or opens it. The database must only be used while holding its lock, see
+     * {@link RRD4jDatabasePool#lock(String)}.
+     */
+    protected @Nullable RrdDb getDB(String alias) {
+        RrdDb db = databases.get(alias);
+        if (db != null) {
+            return db;
+        }
         File file = new File(DB_FOLDER + File.separator + alias + ".rrd");
         try {
             if (file.exists()) {
@@ -341,6 +366,9 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
             // this happens if the system is shut down
             logger.debug("Could not create rrd4j database file '{}': {}", file.getAbsolutePath(), e.getMessage());
         }
+        if (db != null) {
+            databases.put(alias, db);
+        }
         return db;
     }
 
@@ -392,6 +420,41 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         }
     }
 
+    /**
+     * @return the time of the last update of the item's database in seconds or -1 if there is no database
+     */
+    public long getLastUpdateTime(String itemName) {
+        if (!new File(DB_FOLDER + File.separator + itemName + ".rrd").exists()) {
+            return -1;
+        }
+        databases.lock(itemName);
+        try {
+            RrdDb db = getDB(itemName);
+            return db == null ? -1 : db.getLastUpdateTime();
+        } catch (IOException e) {
+            logger.debug("Could not read last update time of '{}': {}", itemName, e.getMessage());
+            return -1;
+        } finally {
+            databases.unlock(itemName);
+        }
+    }
+
+    /**
+     * @return the consolidation function of the item's database or {@link ConsolFun#MAX} if there is no database
+     */
+    public ConsolFun getConsolidationFunction(String itemName) {
+        if (!new File(DB_FOLDER + File.separator + itemName + ".rrd").exists()) {
+            return ConsolFun.MAX;
+        }
+        databases.lock(itemName);
+        try {
+            RrdDb db = getDB(itemName);
+            return db == null ? ConsolFun.MAX : getConsolidationFunction(db);
+        } finally {
+            databases.unlock(itemName);
+        }
+    }
+
     public ConsolFun getConsolidationFunction(RrdDb db) {
         try {
             return db.getRrdDef().getArcDefs()[0].getConsolFun();
@@ -443,11 +506,27 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         modified(config);
     }
 
+    @Deactivate
+    protected void deactivate() {
+        scheduledJobs.values().forEach(job -> job.cancel(false));
+        scheduledJobs.clear();
+        databases.closeAll();
+    }
+
     @Modified
     protected void modified(final Map<String, Object> config) {
         // clean existing definitions
         rrdDefs.clear();
 
+        Object maxOpenDatabases = config.get(CFG_MAX_OPEN_DATABASES);
+        try {
+            databases.setCapacity(maxOpenDatabases == null ? DEFAULT_MAX_OPEN_DATABASES
+                    : Integer.parseInt(maxOpenDatabases.toString()));
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring illegal configuration {} = {}", CFG_MAX_OPEN_DATABASES, maxOpenDatabases);
+            databases.setCapacity(DEFAULT_MAX_OPEN_DATABASES);
+        }
+
         // add default configurations
 
         RrdDefConfig defaultNumeric = new RrdDefConfig(DEFAULT_NUMERIC);
@@ -496,8 +575,8 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         while (keys.hasNext()) {
             String key = keys.next();
 
-            if (key.equals("service.pid") || key.equals("component.name")) {
-                // ignore service.pid and name
+            if (key.equals("service.pid") || key.equals("component.name") || key.equals(CFG_MAX_OPEN_DATABASES)) {
+                // ignore service.pid and name, the pool size has been set already
                 continue;
             }
 
@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal.charts;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Caches rendered charts, so a chart is only rendered again when new data has been stored for one of its items.
+ *
+ * A chart always ends at the time it has been rendered, so a cached chart is also rendered again once the x-axis
+ * would have moved by a pixel. Identical charts which are requested while they are being rendered wait for the same
+ * rendering.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class RRD4jChartCache {
+    private static final int MAX_CHARTS = 32;
+
+    @FunctionalInterface
+    interface Renderer {
+        BufferedImage render() throws IOException;
+    }
+
+    static class Chart {
+        final BufferedImage image;
+        private final long[] dataVersion;
+        private final long renderedAt;
+        private byte @Nullable [] png;
+
+        private Chart(BufferedImage image, long[] dataVersion, long renderedAt) {
+            this.image = image;
+            this.dataVersion = dataVersion;
+            this.renderedAt = renderedAt;
+        }
+
+        /**
+         * @return the chart as encoded PNG image, it is only encoded once
+         */
+        synchronized byte[] getPng() throws IOException {
+            byte[] png = this.png;
+            if (png == null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ImageIO.write(image, "png", out);
+                png = out.toByteArray();
+                this.png = png;
+            }
+            return png;
+        }
+
+        private boolean isValid(long[] dataVersion, long now, long maxAge) {
+            return Arrays.equals(this.dataVersion, dataVersion) && now - renderedAt <= maxAge;
+        }
+    }
+
+    private final Executor executor;
+    private final Map<String, Chart> charts = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Chart> eldest) {
+            return size() > MAX_CHARTS;
+        }
+    };
+    private final Map<String, CompletableFuture<Chart>> renderings = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong renders = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * @param executor Executor rendering the charts, its size limits the number of concurrent renderings
+     */
+    RRD4jChartCache(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the cached chart or renders it.
+     *
+     * @param key Identifies the chart, i.e. its items, size and period
+     * @param dataVersion The last update times of the databases shown in the chart
+     * @param maxAge Time in milliseconds the chart may be used if there is no new data
+     * @param renderer Renders the chart
+     * @return the chart
+     * @throws IOException if the chart could not be rendered
+     */
+    Chart get(String key, long[] dataVersion, long maxAge, Renderer renderer) throws IOException {
+        long now = System.currentTimeMillis();
+        Chart chart;
+        synchronized (charts) {
+            chart = charts.get(key);
+        }
+        if (chart != null && chart.isValid(dataVersion, now, maxAge)) {
+            hits.incrementAndGet();
+            return chart;
+        }
+
+        CompletableFuture<Chart> rendering = renderings.get(key);
+        if (rendering != null) {
+            coalesced.incrementAndGet();
+        } else {
+            CompletableFuture<Chart> newRendering = new CompletableFuture<>();
+            rendering = renderings.putIfAbsent(key, newRendering);
+            if (rendering != null) {
+                coalesced.incrementAndGet();
+            } else {
+                rendering = newRendering;
+                render(key, dataVersion, renderer, newRendering);
+            }
+        }
+
+        try {
+            return rendering.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for chart");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getRenders() {
+        return renders.get();
+    }
+
+    /**
+     * @return the number of requests which waited for the rendering of an identical chart
+     */
+    long getCoalesced() {
+        return coalesced.get();
+    }
+
+    private void render(String key, long[] dataVersion, Renderer renderer, CompletableFuture<Chart> rendering) {
+        try {
+            executor.execute(() -> {
+                try {
+                    long renderedAt = System.currentTimeMillis();
+                    Chart chart = new Chart(renderer.render(), dataVersion, renderedAt);
+                    renders.incrementAndGet();
+                    synchronized (charts) {
+                        charts.put(key, chart);
+                    }
+                    renderings.remove(key, rendering);
+                    rendering.complete(chart);
+                } catch (IOException e) {
+                    renderings.remove(key, rendering);
+                    rendering.completeExceptionally(new UncheckedIOException(e));
+                } catch (RuntimeException e) {
+                    renderings.remove(key, rendering);
+                    rendering.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            // the executor has been shut down
+            renderings.remove(key, rendering);
+            rendering.completeExceptionally(e);
+        }
+    }
+}
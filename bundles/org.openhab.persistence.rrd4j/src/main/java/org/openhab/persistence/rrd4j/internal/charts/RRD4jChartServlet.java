@@ -18,14 +18,17 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
-import javax.imageio.ImageIO;
 import javax.servlet.Servlet;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 
+import org.openhab.core.common.NamedThreadFactory;
 import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
@@ -40,7 +43,6 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.http.HttpService;
 import org.osgi.service.http.NamespaceException;
 import org.rrd4j.ConsolFun;
-import org.rrd4j.core.RrdDb;
 import org.rrd4j.graph.RrdGraph;
 import org.rrd4j.graph.RrdGraphDef;
 import org.slf4j.Logger;
@@ -57,6 +59,8 @@ import org.slf4j.LoggerFactory;
  * <li>groups: A comma separated list of group names, whose members should be displayed
  * </ul>
  *
+ * Rendered charts are cached until new data is stored for one of their items, see {@link RRD4jChartCache}.
+ *
  * @author Kai Kreuzer - Initial contribution
  * @author Chris Jackson - a few improvements
  * @author Jan N. Klug - a few improvements
@@ -79,6 +83,8 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
 
     protected static final Map<String, Long> PERIODS = new HashMap<>();
 
+    private static final int MAX_CONCURRENT_RENDERINGS = 2;
+
     static {
         PERIODS.put("h", -3600000L);
         PERIODS.put("4h", -14400000L);
@@ -100,8 +106,17 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
     @Reference
     protected ItemUIRegistry itemUIRegistry;
 
+    @Reference
+    protected RRD4jPersistenceService persistenceService;
+
+    private final ThreadPoolExecutor renderExecutor = new ThreadPoolExecutor(MAX_CONCURRENT_RENDERINGS,
+            MAX_CONCURRENT_RENDERINGS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            new NamedThreadFactory("RRD4j-chart"));
+    private final RRD4jChartCache chartCache = new RRD4jChartCache(renderExecutor);
+
     @Activate
     protected void activate() {
+        renderExecutor.allowCoreThreadTimeOut(true);
         try {
             logger.debug("Starting up rrd chart servlet at {}", SERVLET_NAME);
             httpService.registerServlet(SERVLET_NAME, this, new Hashtable<>(), httpService.createDefaultHttpContext());
@@ -115,6 +130,9 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
     @Deactivate
     protected void deactivate() {
         httpService.unregister(SERVLET_NAME);
+        renderExecutor.shutdownNow();
+        logger.debug("Charts served from cache: {}, rendered: {}, waited for identical rendering: {}",
+                chartCache.getHits(), chartCache.getRenders(), chartCache.getCoalesced());
     }
 
     @Override
@@ -143,9 +161,13 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         // Set the content type to that provided by the chart provider
         res.setContentType("image/" + getChartType());
         try {
-            BufferedImage chart = createChart(null, null, timeBegin, timeEnd, height, width, req.getParameter("items"),
-                    req.getParameter("groups"), null, null);
-            ImageIO.write(chart, getChartType().toString(), res.getOutputStream());
+            RRD4jChartCache.Chart chart = getChart(timeBegin, timeEnd, height, width, req.getParameter("items"),
+                    req.getParameter("groups"));
+            if (chart != null) {
+                byte[] png = chart.getPng();
+                res.setContentLength(png.length);
+                res.getOutputStream().write(png);
+            }
         } catch (ItemNotFoundException e) {
             logger.debug("Item not found error while generating chart.");
         } catch (IllegalArgumentException e) {
@@ -166,17 +188,10 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         Color color = LINECOLORS[counter % LINECOLORS.length];
         String label = itemUIRegistry.getLabel(item.getName());
         String rrdName = RRD4jPersistenceService.DB_FOLDER + File.separator + item.getName() + ".rrd";
-        ConsolFun consolFun;
         if (label != null && label.contains("[") && label.contains("]")) {
             label = label.substring(0, label.indexOf('['));
         }
-        try {
-            RrdDb db = new RrdDb(rrdName);
-            consolFun = db.getRrdDef().getArcDefs()[0].getConsolFun();
-            db.close();
-        } catch (IOException e) {
-            consolFun = ConsolFun.MAX;
-        }
+        ConsolFun consolFun = persistenceService.getConsolidationFunction(item.getName());
         if (item instanceof NumberItem) {
             // we only draw a line
             graphDef.datasource(Integer.toString(counter), rrdName, "state", consolFun); // RRD4jService.getConsolidationFunction(item));
@@ -220,27 +235,21 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
     @Override
     public BufferedImage createChart(String service, String theme, Date startTime, Date endTime, int height, int width,
             String items, String groups, Integer dpi, Boolean legend) throws ItemNotFoundException {
-        RrdGraphDef graphDef = new RrdGraphDef();
+        RRD4jChartCache.Chart chart = getChart(startTime, endTime, height, width, items, groups);
+        return chart == null ? null : chart.image;
+    }
 
+    private RRD4jChartCache.Chart getChart(Date startTime, Date endTime, int height, int width, String items,
+            String groups) throws ItemNotFoundException {
         long period = (startTime.getTime() - endTime.getTime()) / 1000;
 
-        graphDef.setWidth(width);
-        graphDef.setHeight(height);
-        graphDef.setAntiAliasing(true);
-        graphDef.setImageFormat("PNG");
-        graphDef.setStartTime(period);
-        graphDef.setTextAntiAliasing(true);
-        graphDef.setLargeFont(new Font("SansSerif", Font.PLAIN, 15));
-        graphDef.setSmallFont(new Font("SansSerif", Font.PLAIN, 11));
-
-        int seriesCounter = 0;
+        List<Item> lines = new ArrayList<>();
 
         // Loop through all the items
         if (items != null) {
             String[] itemNames = items.split(",");
             for (String itemName : itemNames) {
-                Item item = itemUIRegistry.getItem(itemName);
-                addLine(graphDef, item, seriesCounter++);
+                lines.add(itemUIRegistry.getItem(itemName));
             }
         }
 
@@ -251,24 +260,23 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
                 Item item = itemUIRegistry.getItem(groupName);
                 if (item instanceof GroupItem) {
                     GroupItem groupItem = (GroupItem) item;
-                    for (Item member : groupItem.getMembers()) {
-                        addLine(graphDef, member, seriesCounter++);
-                    }
+                    lines.addAll(groupItem.getMembers());
                 } else {
                     throw new ItemNotFoundException("Item '" + item.getName() + "' defined in groups is not a group.");
                 }
             }
         }
 
-        // Write the chart as a PNG image
-        RrdGraph graph;
-        try {
-            graph = new RrdGraph(graphDef);
-            BufferedImage bi = new BufferedImage(graph.getRrdGraphInfo().getWidth(),
-                    graph.getRrdGraphInfo().getHeight(), BufferedImage.TYPE_INT_RGB);
-            graph.render(bi.getGraphics());
+        // the chart only changes when new data has been stored or the x-axis has moved by a pixel
+        long[] dataVersion = new long[lines.size()];
+        for (int i = 0; i < dataVersion.length; i++) {
+            dataVersion[i] = persistenceService.getLastUpdateTime(lines.get(i).getName());
+        }
+        long maxAge = Math.abs(period) * 1000 / Math.max(width, 1);
+        String key = items + "|" + groups + "|" + width + "x" + height + "|" + period;
 
-            return bi;
+        try {
+            return chartCache.get(key, dataVersion, maxAge, () -> renderChart(lines, period, height, width));
         } catch (IOException e) {
             logger.error("Error generating graph.", e);
         }
@@ -276,6 +284,32 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         return null;
     }
 
+    private BufferedImage renderChart(List<Item> lines, long period, int height, int width) throws IOException {
+        RrdGraphDef graphDef = new RrdGraphDef();
+
+        graphDef.setWidth(width);
+        graphDef.setHeight(height);
+        graphDef.setAntiAliasing(true);
+        graphDef.setImageFormat("PNG");
+        graphDef.setStartTime(period);
+        graphDef.setTextAntiAliasing(true);
+        graphDef.setLargeFont(new Font("SansSerif", Font.PLAIN, 15));
+        graphDef.setSmallFont(new Font("SansSerif", Font.PLAIN, 11));
+
+        int seriesCounter = 0;
+        for (Item item : lines) {
+            addLine(graphDef, item, seriesCounter++);
+        }
+
+        // Write the chart as a PNG image
+        RrdGraph graph = new RrdGraph(graphDef);
+        BufferedImage bi = new BufferedImage(graph.getRrdGraphInfo().getWidth(), graph.getRrdGraphInfo().getHeight(),
+                BufferedImage.TYPE_INT_RGB);
+        graph.render(bi.getGraphics());
+
+        return bi;
+    }
+
     @Override
     public ImageType getChartType() {
         return ImageType.png;
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.openhab.core.test.java.JavaTest;
+import org.rrd4j.core.RrdDb;
+
+/**
+ * Tests the eviction and locking of the {@link RRD4jDatabasePool}.
+ *
+ * @author agent - Initial contribution
+ */
+@SuppressWarnings("null")
+public class RRD4jDatabasePoolTest extends JavaTest {
+
+    private final RRD4jDatabasePool pool = new RRD4jDatabasePool(2);
+
+    @Test
+    public void openDatabaseIsReturned() {
+        RrdDb db = mock(RrdDb.class);
+        pool.put("A", db);
+
+        assertThat(pool.get("A"), is(sameInstance(db)));
+        assertThat(pool.get("B"), is(nullValue()));
+        assertThat(pool.getHits(), is(1L));
+        assertThat(pool.getMisses(), is(1L));
+    }
+
+    @Test
+    public void leastRecentlyUsedDatabaseIsClosed() throws Exception {
+        RrdDb a = mock(RrdDb.class);
+        RrdDb b = mock(RrdDb.class);
+        RrdDb c = mock(RrdDb.class);
+        pool.put("A", a);
+        pool.put("B", b);
+        // A is used again, so B is the least recently used database
+        pool.get("A");
+        pool.put("C", c);
+
+        verify(b).close();
+        verify(a, never()).close();
+        assertThat(pool.getOpenDatabases(), is(2));
+        assertThat(pool.get("B"), is(nullValue()));
+    }
+
+    @Test
+    public void databaseInUseIsNotClosed() throws Exception {
+        RrdDb a = mock(RrdDb.class);
+        RrdDb b = mock(RrdDb.class);
+        pool.put("A", a);
+        pool.put("B", b);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread user = new Thread(() -> {
+            pool.lock("A");
+            try {
+                locked.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                pool.unlock("A");
+            }
+        });
+        user.start();
+        assertThat(locked.await(10, TimeUnit.SECONDS), is(true));
+        try {
+            RrdDb c = mock(RrdDb.class);
+            pool.put("C", c);
+
+            // A is in use by the other thread, so the next database is closed instead
+            verify(a, never()).close();
+            verify(b).close();
+            assertThat(pool.getOpenDatabases(), is(2));
+
+            pool.put("D", mock(RrdDb.class));
+            verify(a, never()).close();
+            verify(c).close();
+            assertThat(pool.getOpenDatabases(), is(2));
+        } finally {
+            release.countDown();
+            user.join(10000);
+        }
+
+        pool.put("E", mock(RrdDb.class));
+        verify(a).close();
+    }
+
+    @Test
+    public void contendedLockIsCounted() throws Exception {
+        pool.lock("A");
+        Thread waiter = new Thread(() -> {
+            pool.lock("A");
+            pool.unlock("A");
+        });
+        waiter.start();
+        try {
+            waitForAssert(() -> assertThat(waiter.getState(), is(Thread.State.WAITING)));
+        } finally {
+            pool.unlock("A");
+        }
+        waiter.join(10000);
+
+        assertThat(pool.getContendedLocks(), is(1L));
+        assertThat(pool.getLockWaitNanos() > 0, is(true));
+    }
+
+    @Test
+    public void invalidatedAndRemainingDatabasesAreClosed() throws Exception {
+        RrdDb a = mock(RrdDb.class);
+        RrdDb b = mock(RrdDb.class);
+        pool.put("A", a);
+        pool.put("B", b);
+
+        pool.invalidate("A");
+        verify(a).close();
+        assertThat(pool.get("A"), is(nullValue()));
+
+        pool.closeAll();
+        verify(b).close();
+        assertThat(pool.getOpenDatabases(), is(0));
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal.charts;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.openhab.core.test.java.JavaTest;
+import org.openhab.persistence.rrd4j.internal.charts.RRD4jChartCache.Chart;
+
+/**
+ * Tests when the {@link RRD4jChartCache} renders a chart again.
+ *
+ * @author agent - Initial contribution
+ */
+@SuppressWarnings("null")
+public class RRD4jChartCacheTest extends JavaTest {
+    private static final long MAX_AGE = 60000;
+
+    private final AtomicInteger renderCount = new AtomicInteger();
+    private final RRD4jChartCache.Renderer renderer = () -> {
+        renderCount.incrementAndGet();
+        return new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+    };
+
+    @Test
+    public void chartIsRenderedOnceWithoutNewData() throws IOException {
+        RRD4jChartCache cache = new RRD4jChartCache(Runnable::run);
+        Chart first = cache.get("chart", new long[] { 1, 2 }, MAX_AGE, renderer);
+        Chart second = cache.get("chart", new long[] { 1, 2 }, MAX_AGE, renderer);
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(renderCount.get(), is(1));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getRenders(), is(1L));
+    }
+
+    @Test
+    public void chartIsRenderedAgainWithNewData() throws IOException {
+        RRD4jChartCache cache = new RRD4jChartCache(Runnable::run);
+        Chart first = cache.get("chart", new long[] { 1, 2 }, MAX_AGE, renderer);
+        Chart second = cache.get("chart", new long[] { 1, 3 }, MAX_AGE, renderer);
+
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(renderCount.get(), is(2));
+    }
+
+    @Test
+    public void expiredChartIsRenderedAgain() throws IOException {
+        RRD4jChartCache cache = new RRD4jChartCache(Runnable::run);
+        cache.get("chart", new long[] { 1 }, -1, renderer);
+        cache.get("chart", new long[] { 1 }, -1, renderer);
+
+        assertThat(renderCount.get(), is(2));
+        assertThat(cache.getHits(), is(0L));
+    }
+
+    @Test
+    public void chartsAreCachedByKey() throws IOException {
+        RRD4jChartCache cache = new RRD4jChartCache(Runnable::run);
+        Chart a = cache.get("a", new long[] { 1 }, MAX_AGE, renderer);
+        Chart b = cache.get("b", new long[] { 1 }, MAX_AGE, renderer);
+
+        assertThat(b, is(not(sameInstance(a))));
+        assertThat(cache.get("a", new long[] { 1 }, MAX_AGE, renderer), is(sameInstance(a)));
+        assertThat(renderCount.get(), is(2));
+    }
+
+    @Test
+    public void pngIsOnlyEncodedOnce() throws IOException {
+        RRD4jChartCache cache = new RRD4jChartCache(Runnable::run);
+        Chart chart = cache.get("chart", new long[] { 1 }, MAX_AGE, renderer);
+
+        assertThat(chart.getPng(), is(sameInstance(chart.getPng())));
+    }
+
+    @Test
+    public void identicalRequestsWaitForTheSameRendering() throws Exception {
+        List<Runnable> tasks = new CopyOnWriteArrayList<>();
+        RRD4jChartCache cache = new RRD4jChartCache(tasks::add);
+        ExecutorService requests = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<Chart> first = CompletableFuture
+                    .supplyAsync(() -> get(cache, "chart", new long[] { 1 }), requests);
+            waitForAssert(() -> assertThat(tasks.size(), is(1)));
+            CompletableFuture<Chart> second = CompletableFuture
+                    .supplyAsync(() -> get(cache, "chart", new long[] { 1 }), requests);
+            waitForAssert(() -> assertThat(cache.getCoalesced(), is(1L)));
+
+            tasks.get(0).run();
+
+            assertThat(second.get(10, TimeUnit.SECONDS), is(sameInstance(first.get(10, TimeUnit.SECONDS))));
+            assertThat(tasks.size(), is(1));
+            assertThat(renderCount.get(), is(1));
+        } finally {
+            requests.shutdownNow();
+        }
+    }
+
+    @Test
+    public void renderingFailureIsThrownAndNotCached() throws IOException {
+        RRD4jChartCache cache = new RRD4jChartCache(Runnable::run);
+
+        IOException e = assertThrows(IOException.class, () -> cache.get("chart", new long[] { 1 }, MAX_AGE, () -> {
+            throw new IOException("no data");
+        }));
+        assertThat(e.getMessage(), is("no data"));
+
+        cache.get("chart", new long[] { 1 }, MAX_AGE, renderer);
+        assertThat(renderCount.get(), is(1));
+    }
+
+    private Chart get(RRD4jChartCache cache, String key, long[] dataVersion) {
+        try {
+            return cache.get(key, dataVersion, MAX_AGE, renderer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
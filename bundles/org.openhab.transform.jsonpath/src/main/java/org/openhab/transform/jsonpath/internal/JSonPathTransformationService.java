@@ -12,7 +12,12 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -24,6 +29,7 @@ import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
@@ -33,6 +39,10 @@ import com.jayway.jsonpath.PathNotFoundException;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by JSonPath Expressions.
  *
+ * <p>
+ * Compiled expressions are cached. Parsed documents are kept for a short time, so that all channels transforming the
+ * same payload share one parse.
+ *
  * @author Gaël L'hopital
  * @author Sebastian Janzen
  *
@@ -41,8 +51,34 @@ import com.jayway.jsonpath.PathNotFoundException;
 @Component(property = { "openhab.transform=JSONPATH" })
 public class JSonPathTransformationService implements TransformationService {
 
+    static final int PATH_CACHE_SIZE = 256;
+    static final int DOCUMENT_CACHE_SIZE = 16;
+    static final long DOCUMENT_CACHE_TTL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    /** compiled paths by expression, least recently used ones are evicted */
+    private final Map<String, JsonPath> pathCache = new LinkedHashMap<>(PATH_CACHE_SIZE, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, JsonPath> eldest) {
+            return size() > PATH_CACHE_SIZE;
+        }
+    };
+
+    /** recently parsed documents by source */
+    private final Map<String, ParsedDocument> documentCache = new LinkedHashMap<>(DOCUMENT_CACHE_SIZE, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, ParsedDocument> eldest) {
+            return size() > DOCUMENT_CACHE_SIZE;
+        }
+    };
+
+    private final AtomicLong parseCount = new AtomicLong();
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -60,7 +96,8 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            JsonPath jsonPath = getCompiledPath(jsonPathExpression);
+            Object transformationResult = jsonPath.read(getParsedDocument(source));
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -76,6 +113,44 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    private JsonPath getCompiledPath(String jsonPathExpression) {
+        synchronized (pathCache) {
+            JsonPath jsonPath = pathCache.get(jsonPathExpression);
+            if (jsonPath == null) {
+                jsonPath = JsonPath.compile(jsonPathExpression);
+                pathCache.put(jsonPathExpression, jsonPath);
+            }
+            return jsonPath;
+        }
+    }
+
+    private Object getParsedDocument(String source) {
+        long now = System.nanoTime();
+        synchronized (documentCache) {
+            ParsedDocument cached = documentCache.get(source);
+            if (cached != null && now - cached.parsed < DOCUMENT_CACHE_TTL_NANOS) {
+                return cached.document;
+            }
+        }
+
+        Object document = Configuration.defaultConfiguration().jsonProvider().parse(source);
+        parseCount.incrementAndGet();
+
+        synchronized (documentCache) {
+            for (Iterator<ParsedDocument> it = documentCache.values().iterator(); it.hasNext();) {
+                if (now - it.next().parsed >= DOCUMENT_CACHE_TTL_NANOS) {
+                    it.remove();
+                }
+            }
+            documentCache.put(source, new ParsedDocument(document, now));
+        }
+        return document;
+    }
+
+    long getParseCount() {
+        return parseCount.get();
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
@@ -100,4 +175,14 @@ public class JSonPathTransformationService implements TransformationService {
     private String createStringList(List<?> list) {
         return list.stream().map(n -> "\"" + String.valueOf(n) + "\"").collect(Collectors.joining(", ", "[", "]"));
     }
+
+    private static class ParsedDocument {
+        final Object document;
+        final long parsed;
+
+        ParsedDocument(Object document, long parsed) {
+            this.document = document;
+            this.parsed = parsed;
+        }
+    }
 }
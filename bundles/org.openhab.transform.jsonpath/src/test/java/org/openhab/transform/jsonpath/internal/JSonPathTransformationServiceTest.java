@@ -127,4 +127,26 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testChannelsOfOneMessageShareParsedDocument() throws TransformationException {
+        for (int message = 0; message < 3; message++) {
+            // a new String instance per message, as received from MQTT or HTTP
+            String json = new String("{\"message\":" + message + ",\"values\":[0,1,2,3,4,5,6,7,8,9]}");
+            for (int channel = 0; channel < 10; channel++) {
+                assertEquals(String.valueOf(channel), processor.transform("$.values[" + channel + "]", json));
+            }
+            assertEquals(String.valueOf(message), processor.transform("$.message", json));
+        }
+
+        // one parse per message instead of one per channel
+        assertEquals(3, processor.getParseCount());
+    }
+
+    @Test
+    public void testInvalidJsonIsNotCached() {
+        assertThrows(TransformationException.class, () -> processor.transform("$.data", "{\"data\":"));
+        assertThrows(TransformationException.class, () -> processor.transform("$.data", "{\"data\":"));
+        assertEquals(0, processor.getParseCount());
+    }
 }
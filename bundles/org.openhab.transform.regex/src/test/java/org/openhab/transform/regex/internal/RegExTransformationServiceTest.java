@@ -75,4 +75,29 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_compiledPatternIsReused() throws TransformationException {
+        // method under test
+        for (int i = 0; i < 10; i++) {
+            assertEquals(String.valueOf(i), processor.transform("value=(\\d+)", "value=" + i));
+            assertEquals("SetMode(" + i + ")",
+                    processor.transform("s/^OP:(.*?),ARG:(.*)$/$1($2)/", "OP:SetMode,ARG:" + i));
+        }
+
+        // Asserts
+        assertEquals(2, processor.getCacheMisses());
+        assertEquals(18, processor.getCacheHits());
+    }
+
+    @Test
+    public void testTransformByRegex_cacheIsBounded() throws TransformationException {
+        // method under test
+        for (int i = 0; i < RegExTransformationService.CACHE_SIZE + 10; i++) {
+            assertEquals("1", processor.transform("(\\d)" + "x{0," + i + "}", "1"));
+        }
+
+        // Asserts
+        assertEquals(RegExTransformationService.CACHE_SIZE, processor.getCacheSize());
+    }
 }
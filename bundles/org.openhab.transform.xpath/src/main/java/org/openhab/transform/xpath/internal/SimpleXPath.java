@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xpath.internal;
+
+import java.io.StringReader;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Evaluates simple absolute location paths like {@code /root/child/value} or {@code /root/child/@attribute} on a
+ * StAX stream, without building a DOM. The result is the string value of the first matching node, as with
+ * {@link javax.xml.xpath.XPathConstants#STRING}, or an empty string if nothing matches.
+ *
+ * The whole document is read, so malformed documents fail like they do with a DOM parser.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class SimpleXPath {
+    private static final String NAME = "[A-Za-z_][\\w.\\-]*";
+    private static final Pattern SIMPLE_PATH = Pattern.compile("(/" + NAME + ")+(/@" + NAME + ")?");
+
+    private final String[] steps;
+    private final @Nullable String attribute;
+
+    private SimpleXPath(String[] steps, @Nullable String attribute) {
+        this.steps = steps;
+        this.attribute = attribute;
+    }
+
+    /**
+     * @return the path or {@code null} if the expression is not a simple absolute location path
+     */
+    static @Nullable SimpleXPath parse(String expression) {
+        if (!SIMPLE_PATH.matcher(expression).matches()) {
+            return null;
+        }
+        String[] parts = expression.substring(1).split("/");
+        String last = parts[parts.length - 1];
+        if (last.startsWith("@")) {
+            String[] steps = new String[parts.length - 1];
+            System.arraycopy(parts, 0, steps, 0, steps.length);
+            return new SimpleXPath(steps, last.substring(1));
+        }
+        return new SimpleXPath(parts, null);
+    }
+
+    String evaluate(XMLInputFactory factory, String source) throws XMLStreamException {
+        XMLStreamReader reader = factory.createXMLStreamReader(new StringReader(source));
+        try {
+            String result = null;
+            StringBuilder text = null;
+            int depth = 0;
+            int matchedDepth = 0;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+                        if (result == null && text == null && matchedDepth == depth - 1 && depth <= steps.length
+                                && isUnqualified(reader.getNamespaceURI())
+                                && steps[depth - 1].equals(reader.getLocalName())) {
+                            matchedDepth = depth;
+                            if (depth == steps.length) {
+                                String attribute = this.attribute;
+                                if (attribute == null) {
+                                    text = new StringBuilder();
+                                } else {
+                                    result = getAttributeValue(reader, attribute);
+                                }
+                            }
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (matchedDepth == depth) {
+                            matchedDepth--;
+                            if (text != null && depth == steps.length) {
+                                result = text.toString();
+                                text = null;
+                            }
+                        }
+                        depth--;
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (text != null) {
+                            text.append(reader.getText());
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return result == null ? "" : result;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static @Nullable String getAttributeValue(XMLStreamReader reader, String name) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (name.equals(reader.getAttributeLocalName(i)) && isUnqualified(reader.getAttributeNamespace(i))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isUnqualified(@Nullable String namespaceURI) {
+        return namespaceURI == null || namespaceURI.isEmpty();
+    }
+}
@@ -13,12 +13,17 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -35,14 +40,35 @@ import org.xml.sax.InputSource;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XPath Expressions.
  *
+ * <p>
+ * Compiled expressions are cached. Simple absolute paths are evaluated on a StAX stream, all other expressions on a
+ * DOM built by a per-thread parser.
+ *
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
 @Component(property = { "openhab.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    static final int CACHE_SIZE = 256;
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    private final XMLInputFactory inputFactory = createInputFactory();
+    private final XPath xpath = XPathFactory.newInstance().newXPath();
+    private final ThreadLocal<DocumentBuilder> documentBuilder = ThreadLocal
+            .withInitial(XPathTransformationService::createDocumentBuilder);
+
+    /** compiled expressions by XPath expression, least recently used ones are evicted */
+    private final Map<String, Object> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, Object> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -51,34 +77,64 @@ public class XPathTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, xpathExpression);
 
-        StringReader stringReader = null;
-
         try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
+            Object compiled = getCompiled(xpathExpression);
 
-            stringReader = new StringReader(source);
-            InputSource inputSource = new InputSource(stringReader);
-            inputSource.setEncoding("UTF-8");
+            String transformationResult;
+            if (compiled instanceof SimpleXPath) {
+                transformationResult = ((SimpleXPath) compiled).evaluate(inputFactory, source);
+            } else {
+                XPathExpression expr = (XPathExpression) compiled;
+                DocumentBuilder builder = documentBuilder.get();
+                builder.reset();
 
-            Document doc = builder.parse(inputSource);
+                InputSource inputSource = new InputSource(new StringReader(source));
+                inputSource.setEncoding("UTF-8");
+                Document doc = builder.parse(inputSource);
 
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
-
-            String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+                // compiled expressions are not thread-safe
+                synchronized (expr) {
+                    transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+                }
+            }
 
             logger.debug("transformation resulted in '{}'", transformationResult);
 
             return transformationResult;
         } catch (Exception e) {
             throw new TransformationException("transformation throws exceptions", e);
-        } finally {
-            if (stringReader != null) {
-                stringReader.close();
+        }
+    }
+
+    private Object getCompiled(String xpathExpression) throws XPathExpressionException {
+        synchronized (cache) {
+            Object compiled = cache.get(xpathExpression);
+            if (compiled == null) {
+                compiled = SimpleXPath.parse(xpathExpression);
+                if (compiled == null) {
+                    compiled = xpath.compile(xpathExpression);
+                }
+                cache.put(xpathExpression, compiled);
             }
+            return compiled;
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    private static DocumentBuilder createDocumentBuilder() {
+        DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+        domFactory.setNamespaceAware(true);
+        domFactory.setValidating(false);
+        try {
+            return domFactory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
         }
     }
 }
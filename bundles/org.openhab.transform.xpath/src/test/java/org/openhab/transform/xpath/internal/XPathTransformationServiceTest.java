@@ -38,4 +38,29 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformBySimplePath() throws TransformationException {
+        // method under test
+        String transformedResponse = processor.transform("/xml_api_reply/weather/current_conditions/temp_c/@data",
+                source);
+
+        // Asserts
+        assertEquals("8", transformedResponse);
+    }
+
+    @Test
+    public void testTransformBySimplePath_textAndNoMatch() throws TransformationException {
+        String xml = "<root><a>1<b>2</b><![CDATA[&3]]></a><a>4</a></root>";
+
+        // Asserts
+        assertEquals("12&3", processor.transform("/root/a", xml));
+        assertEquals("", processor.transform("/root/c", xml));
+        assertEquals("", processor.transform("/a", xml));
+    }
+
+    @Test
+    public void testTransformBySimplePath_malformedSource() {
+        assertThrows(TransformationException.class, () -> processor.transform("/root/a", "<root><a>1</a>"));
+    }
 }
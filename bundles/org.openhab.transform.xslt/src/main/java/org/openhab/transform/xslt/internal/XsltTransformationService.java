@@ -15,9 +15,11 @@ package org.openhab.transform.xslt.internal;
 import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
 
-import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -43,6 +45,11 @@ public class XsltTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
+    /** compiled stylesheets by file path, recompiled when the file changes */
+    private final Map<String, CachedTemplates> cache = new HashMap<>();
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -60,12 +67,12 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
+        Templates templates;
 
         try {
             String path = OpenHAB.getConfigFolder() + File.separator + TransformationService.TRANSFORM_FOLDER_NAME
                     + File.separator + filename;
-            xsl = new StreamSource(new File(path));
+            templates = getTemplates(new File(path));
         } catch (Exception e) {
             String message = "opening file '" + filename + "' throws exception";
 
@@ -73,16 +80,13 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException(message, e);
         }
 
-        logger.debug("about to transform '{}' by the function '{}'", source, xsl);
+        logger.debug("about to transform '{}' by the function '{}'", source, filename);
 
         StringReader xml = new StringReader(source);
         StringWriter out = new StringWriter();
 
-        Transformer transformer;
-
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
-            transformer.transform(new StreamSource(xml), new StreamResult(out));
+            templates.newTransformer().transform(new StreamSource(xml), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
             throw new TransformationException("transformation throws exception", e);
@@ -92,4 +96,31 @@ public class XsltTransformationService implements TransformationService {
 
         return out.toString();
     }
+
+    private Templates getTemplates(File file) throws TransformerConfigurationException {
+        long lastModified = file.lastModified();
+        long length = file.length();
+        synchronized (cache) {
+            CachedTemplates cached = cache.get(file.getPath());
+            if (cached == null || cached.lastModified != lastModified || cached.length != length) {
+                logger.debug("compiling stylesheet '{}'", file);
+                cached = new CachedTemplates(transformerFactory.newTemplates(new StreamSource(file)), lastModified,
+                        length);
+                cache.put(file.getPath(), cached);
+            }
+            return cached.templates;
+        }
+    }
+
+    private static class CachedTemplates {
+        final Templates templates;
+        final long lastModified;
+        final long length;
+
+        CachedTemplates(Templates templates, long lastModified, long length) {
+            this.templates = templates;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
 }